@@ -0,0 +1,131 @@
+package araignee.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Accès aux classes du jeu depuis les benchmarks.
+ *
+ * Le jeu est compilé dans le paquetage par défaut, que JMH refuse pour les classes de benchmark
+ * et qu'aucune classe d'un paquetage nommé ne peut référencer. Les méthodes mesurées sont donc
+ * atteintes par des MethodHandle static final, que le JIT traite comme des constantes et inline
+ * comme des appels directs. Les types du jeu sont effacés en Object dans les signatures.
+ */
+final class Acces {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    static final Class<?> JEU = classe("JeuAraignee");
+    static final Class<?> PLATEAU = classe("Plateau");
+    static final Class<?> JOUEUR = classe("Joueur");
+    static final Class<?> PION = classe("Pion");
+    static final Class<?> POSITION = classe("Position");
+    static final Class<?> VICTOIRE_CHECKER = classe("VictoireChecker");
+    static final Class<?> PLATEAU_COMPACT = classe("PlateauCompact");
+    static final Class<?> COUP = classe("Coup");
+
+    // Position
+    /** (int x, int y) -> Position */
+    static final MethodHandle POSITION_OF = statique(POSITION, "of", POSITION, int.class, int.class);
+    /** (int index) -> Position */
+    static final MethodHandle POSITION_OF_INDEX = statique(POSITION, "of", POSITION, int.class);
+    /** (Position, Position) -> boolean */
+    static final MethodHandle POSITION_EST_ADJACENTE = virtuelle(POSITION, "estAdjacente", boolean.class, POSITION);
+
+    // Joueur, Pion, Plateau
+    /** (String nom, String couleur, int id) -> Joueur */
+    static final MethodHandle NOUVEAU_JOUEUR = constructeur(JOUEUR, String.class, String.class, int.class);
+    /** (Joueur) -> Pion */
+    static final MethodHandle NOUVEAU_PION = constructeur(PION, JOUEUR);
+    /** () -> Plateau */
+    static final MethodHandle NOUVEAU_PLATEAU = constructeur(PLATEAU);
+    /** (Plateau, Pion, Position) -> void */
+    static final MethodHandle PLATEAU_PLACER_PION = virtuelle(PLATEAU, "placerPion", void.class, PION, POSITION);
+    /** (Plateau, Position) -> Pion */
+    static final MethodHandle PLATEAU_RETIRER_PION = virtuelle(PLATEAU, "retirerPion", PION, POSITION);
+
+    // VictoireChecker
+    /** () -> VictoireChecker */
+    static final MethodHandle NOUVEAU_VICTOIRE_CHECKER = constructeur(VICTOIRE_CHECKER);
+    /** (VictoireChecker, Plateau, Joueur) -> boolean */
+    static final MethodHandle VICTOIRE_A_GAGNE = virtuelle(VICTOIRE_CHECKER, "aGagne", boolean.class, PLATEAU, JOUEUR);
+
+    // JeuAraignee
+    /** (String, String) -> JeuAraignee */
+    static final MethodHandle NOUVEAU_JEU = constructeur(JEU, String.class, String.class);
+    /** (JeuAraignee, Position) -> boolean */
+    static final MethodHandle JEU_PLACER_PION = virtuelle(JEU, "placerPion", boolean.class, POSITION);
+    /** (JeuAraignee, Position, Position) -> boolean */
+    static final MethodHandle JEU_DEPLACER_PION = virtuelle(JEU, "deplacerPion", boolean.class, POSITION, POSITION);
+    /** (JeuAraignee, int[]) -> int */
+    static final MethodHandle JEU_GENERER_COUPS = virtuelle(JEU, "genererCoups", int.class, int[].class);
+    /** (JeuAraignee, int) -> boolean */
+    static final MethodHandle JEU_JOUER_COUP = virtuelle(JEU, "jouerCoup", boolean.class, int.class);
+    /** (JeuAraignee) -> boolean */
+    static final MethodHandle JEU_ANNULER_COUP = virtuelle(JEU, "annulerCoup", boolean.class);
+    /** (JeuAraignee) -> void */
+    static final MethodHandle JEU_REINITIALISER = virtuelle(JEU, "reinitialiser", void.class);
+    /** (JeuAraignee) -> boolean */
+    static final MethodHandle JEU_EST_TERMINEE = virtuelle(JEU, "estPartieTerminee", boolean.class);
+    /** (JeuAraignee) -> Plateau */
+    static final MethodHandle JEU_GET_PLATEAU = virtuelle(JEU, "getPlateau", PLATEAU);
+    /** (JeuAraignee) -> Joueur */
+    static final MethodHandle JEU_GET_JOUEUR_ACTUEL = virtuelle(JEU, "getJoueurActuel", JOUEUR);
+
+    // État compact
+    /** (int masque) -> boolean */
+    static final MethodHandle A_ALIGNE = statique(VICTOIRE_CHECKER, "aAligne", boolean.class, int.class);
+    /** (int etat, int joueur, int case) -> int */
+    static final MethodHandle COMPACT_PLACER = statique(PLATEAU_COMPACT, "placer", int.class, int.class, int.class, int.class);
+    /** (int etat, int case) -> int */
+    static final MethodHandle COMPACT_RETIRER = statique(PLATEAU_COMPACT, "retirer", int.class, int.class, int.class);
+    /** (int etat, int[] tampon) -> int */
+    static final MethodHandle COUP_GENERER = statique(COUP, "generer", int.class, int.class, int[].class);
+    /** (int etat, int coup) -> int */
+    static final MethodHandle COUP_APPLIQUER = statique(COUP, "appliquer", int.class, int.class, int.class);
+
+    static final int MAX_COUPS = 12;
+
+    private Acces() {
+    }
+
+    private static Class<?> classe(String nom) {
+        try {
+            return Class.forName(nom);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Classe du jeu introuvable : " + nom, e);
+        }
+    }
+
+    private static MethodHandle statique(Class<?> classe, String nom, Class<?> retour, Class<?>... parametres) {
+        try {
+            return effacer(LOOKUP.findStatic(classe, nom, MethodType.methodType(retour, parametres)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Méthode du jeu introuvable : " + classe.getName() + "." + nom, e);
+        }
+    }
+
+    private static MethodHandle virtuelle(Class<?> classe, String nom, Class<?> retour, Class<?>... parametres) {
+        try {
+            return effacer(LOOKUP.findVirtual(classe, nom, MethodType.methodType(retour, parametres)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Méthode du jeu introuvable : " + classe.getName() + "." + nom, e);
+        }
+    }
+
+    private static MethodHandle constructeur(Class<?> classe, Class<?>... parametres) {
+        try {
+            return effacer(LOOKUP.findConstructor(classe, MethodType.methodType(void.class, parametres)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Constructeur du jeu introuvable : " + classe.getName(), e);
+        }
+    }
+
+    /**
+     * Remplace les types du jeu par Object dans la signature, pour permettre invokeExact depuis les benchmarks.
+     */
+    private static MethodHandle effacer(MethodHandle handle) {
+        return handle.asType(handle.type().erase());
+    }
+}
@@ -0,0 +1,112 @@
+package araignee.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Parties complètes sur un JeuAraignee réutilisé par reinitialiser : par jouerCoup, et par placerPion
+ * et deplacerPion avec vérification de victoire. Une fois l'historique à sa taille, aucune allocation.
+ *
+ * Le main lance ces benchmarks avec le profileur gc et échoue si l'un d'eux alloue. Il est exécuté
+ * par mvn -Pbenchmarks verify ; mvn test fait la même vérification, sans JMH, dans AllocationJeuTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationJeuBenchmark {
+
+    /** Tolérance en octets par opération : le profileur rapporte parfois quelques centièmes d'octet de bruit. */
+    private static final double ALLOCATION_MAX = 0.1;
+
+    private final SplittableRandom aleatoire = new SplittableRandom(42);
+    private final int[] coups = new int[Acces.MAX_COUPS];
+    private Object jeu;
+
+    @Setup
+    public void preparer() throws Throwable {
+        jeu = (Object) Acces.NOUVEAU_JEU.invokeExact((Object) "Rouge", (Object) "Bleu");
+    }
+
+    @Benchmark
+    public int partieRecycleeJouerCoup(Blackhole trou) throws Throwable {
+        Acces.JEU_REINITIALISER.invokeExact(jeu);
+        int nbCoupsJoues = 0;
+        for (int nb = (int) Acces.JEU_GENERER_COUPS.invokeExact(jeu, (Object) coups); nb > 0;
+             nb = (int) Acces.JEU_GENERER_COUPS.invokeExact(jeu, (Object) coups)) {
+            boolean joue = (boolean) Acces.JEU_JOUER_COUP.invokeExact(jeu, coups[aleatoire.nextInt(nb)]);
+            trou.consume(joue);
+            nbCoupsJoues++;
+        }
+        return nbCoupsJoues;
+    }
+
+    @Benchmark
+    public int partieRecycleePlacerDeplacer(Blackhole trou) throws Throwable {
+        Acces.JEU_REINITIALISER.invokeExact(jeu);
+        int nbCoupsJoues = 0;
+        for (int nb = (int) Acces.JEU_GENERER_COUPS.invokeExact(jeu, (Object) coups); nb > 0;
+             nb = (int) Acces.JEU_GENERER_COUPS.invokeExact(jeu, (Object) coups)) {
+            int coup = coups[aleatoire.nextInt(nb)];
+            Object destination = (Object) Acces.POSITION_OF_INDEX.invokeExact(coup & 0xF);
+            int origine = coup >>> 4;
+            boolean victoire;
+            if (origine == 0xF) {
+                victoire = (boolean) Acces.JEU_PLACER_PION.invokeExact(jeu, destination);
+            } else {
+                Object depart = (Object) Acces.POSITION_OF_INDEX.invokeExact(origine);
+                victoire = (boolean) Acces.JEU_DEPLACER_PION.invokeExact(jeu, depart, destination);
+            }
+            trou.consume(victoire);
+            nbCoupsJoues++;
+        }
+        return nbCoupsJoues;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(AllocationJeuBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class);
+        boolean alloue = false;
+        int nbMesures = 0;
+        for (RunResult resultat : new Runner(options.build()).run()) {
+            String nom = resultat.getParams().getBenchmark();
+            for (Result<?> secondaire : resultat.getSecondaryResults().values()) {
+                if (secondaire.getLabel().endsWith("gc.alloc.rate.norm")) {
+                    double octets = secondaire.getScore();
+                    nbMesures++;
+                    System.out.printf("%s : %.3f o/op%n", nom, octets);
+                    if (octets > ALLOCATION_MAX) {
+                        alloue = true;
+                    }
+                }
+            }
+        }
+        if (nbMesures == 0) {
+            System.err.println("Aucune mesure d'allocation");
+            System.exit(1);
+        }
+        if (alloue) {
+            System.err.println("Le chemin de jeu alloue de la mémoire");
+            System.exit(1);
+        }
+    }
+}
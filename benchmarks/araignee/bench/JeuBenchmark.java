@@ -0,0 +1,62 @@
+package araignee.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JeuAraignee.placerPion et deplacerPion, chacun suivi de annulerCoup pour rester dans la même position.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JeuBenchmark {
+
+    /** R R B / B B R / R . . puis Rouge déplace (2, 0) vers (2, 1) et revient. */
+    private static final int[][] PLACEMENTS = { {0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 0}, {0, 2} };
+
+    private Object jeuPlacement;
+    private Object jeuDeplacement;
+    private Object caseLibre;
+    private Object origine;
+    private Object destination;
+
+    @Setup
+    public void preparer() throws Throwable {
+        jeuPlacement = (Object) Acces.NOUVEAU_JEU.invokeExact((Object) "Rouge", (Object) "Bleu");
+        caseLibre = (Object) Acces.POSITION_OF.invokeExact(2, 2);
+
+        jeuDeplacement = (Object) Acces.NOUVEAU_JEU.invokeExact((Object) "Rouge", (Object) "Bleu");
+        for (int[] placement : PLACEMENTS) {
+            Object position = (Object) Acces.POSITION_OF.invokeExact(placement[0], placement[1]);
+            boolean victoire = (boolean) Acces.JEU_PLACER_PION.invokeExact(jeuDeplacement, position);
+        }
+        origine = (Object) Acces.POSITION_OF.invokeExact(2, 0);
+        destination = (Object) Acces.POSITION_OF.invokeExact(2, 1);
+    }
+
+    @Benchmark
+    public boolean placerPion() throws Throwable {
+        boolean victoire = (boolean) Acces.JEU_PLACER_PION.invokeExact(jeuPlacement, caseLibre);
+        boolean annule = (boolean) Acces.JEU_ANNULER_COUP.invokeExact(jeuPlacement);
+        return victoire;
+    }
+
+    @Benchmark
+    public boolean deplacerPion() throws Throwable {
+        boolean victoire = (boolean) Acces.JEU_DEPLACER_PION.invokeExact(jeuDeplacement, origine, destination);
+        boolean annule = (boolean) Acces.JEU_ANNULER_COUP.invokeExact(jeuDeplacement);
+        return victoire;
+    }
+}
@@ -0,0 +1,60 @@
+package araignee.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parties complètes à coups aléatoires, limitées à 200 coups : par JeuAraignee et sur l'état compact.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartieBenchmark {
+
+    private static final int LIMITE_COUPS = 200;
+
+    private final SplittableRandom aleatoire = new SplittableRandom(42);
+    private final int[] coups = new int[Acces.MAX_COUPS];
+
+    @Benchmark
+    public int partieJeuAraignee() throws Throwable {
+        Object jeu = (Object) Acces.NOUVEAU_JEU.invokeExact((Object) "Rouge", (Object) "Bleu");
+        int nbCoupsJoues = 0;
+        while (nbCoupsJoues < LIMITE_COUPS) {
+            int nb = (int) Acces.JEU_GENERER_COUPS.invokeExact(jeu, (Object) coups);
+            if (nb == 0) {
+                break;
+            }
+            boolean joue = (boolean) Acces.JEU_JOUER_COUP.invokeExact(jeu, coups[aleatoire.nextInt(nb)]);
+            nbCoupsJoues++;
+        }
+        return nbCoupsJoues;
+    }
+
+    @Benchmark
+    public int partieCompacte() throws Throwable {
+        int etat = 0;
+        int nbCoupsJoues = 0;
+        while (nbCoupsJoues < LIMITE_COUPS) {
+            int nb = (int) Acces.COUP_GENERER.invokeExact(etat, (Object) coups);
+            if (nb == 0) {
+                break;
+            }
+            etat = (int) Acces.COUP_APPLIQUER.invokeExact(etat, coups[aleatoire.nextInt(nb)]);
+            nbCoupsJoues++;
+        }
+        return etat;
+    }
+}
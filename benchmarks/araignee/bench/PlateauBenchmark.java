@@ -0,0 +1,59 @@
+package araignee.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Plateau.placerPion / retirerPion par l'API objet, et leur équivalent sur l'état compact.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlateauBenchmark {
+
+    private Object plateau;
+    private Object pion;
+    private Object[] positions;
+    private int indexCase;
+    private int etat;
+
+    @Setup
+    public void preparer() throws Throwable {
+        Object rouge = (Object) Acces.NOUVEAU_JOUEUR.invokeExact((Object) "Rouge", (Object) "Rouge", 0);
+        plateau = (Object) Acces.NOUVEAU_PLATEAU.invokeExact();
+        pion = (Object) Acces.NOUVEAU_PION.invokeExact(rouge);
+        positions = new Object[9];
+        for (int i = 0; i < 9; i++) {
+            positions[i] = (Object) Acces.POSITION_OF.invokeExact(i / 3, i % 3);
+        }
+    }
+
+    @Benchmark
+    public Object placerRetirerPion() throws Throwable {
+        Object position = positions[indexCase];
+        indexCase = indexCase == 8 ? 0 : indexCase + 1;
+        Acces.PLATEAU_PLACER_PION.invokeExact(plateau, pion, position);
+        return (Object) Acces.PLATEAU_RETIRER_PION.invokeExact(plateau, position);
+    }
+
+    @Benchmark
+    public int placerRetirerCompact() throws Throwable {
+        int indexCourant = indexCase;
+        indexCase = indexCase == 8 ? 0 : indexCase + 1;
+        int apres = (int) Acces.COMPACT_PLACER.invokeExact(etat, 0, indexCourant);
+        etat = (int) Acces.COMPACT_RETIRER.invokeExact(apres, indexCourant);
+        return apres;
+    }
+}
@@ -0,0 +1,50 @@
+package araignee.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Position.estAdjacente et Position.hashCode, en faisant varier les cases d'un appel à l'autre.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionBenchmark {
+
+    private Object[] positions;
+    private int i;
+    private int j = 4;
+
+    @Setup
+    public void preparer() throws Throwable {
+        positions = new Object[9];
+        for (int index = 0; index < 9; index++) {
+            positions[index] = (Object) Acces.POSITION_OF.invokeExact(index / 3, index % 3);
+        }
+    }
+
+    @Benchmark
+    public boolean estAdjacente() throws Throwable {
+        i = i == 8 ? 0 : i + 1;
+        j = j == 0 ? 8 : j - 1;
+        return (boolean) Acces.POSITION_EST_ADJACENTE.invokeExact(positions[i], positions[j]);
+    }
+
+    @Benchmark
+    public int hashCodePosition() {
+        i = i == 8 ? 0 : i + 1;
+        return positions[i].hashCode();
+    }
+}
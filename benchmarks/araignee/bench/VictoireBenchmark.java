@@ -0,0 +1,56 @@
+package araignee.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VictoireChecker.aGagne sur un plateau en fin de placement (sans alignement), et le test de masque seul.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VictoireBenchmark {
+
+    /** R R B / B B R / R . . : aucun alignement, pire cas du parcours complet. */
+    private static final int[][] PLACEMENTS = { {0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 0}, {0, 2} };
+
+    private Object checker;
+    private Object plateau;
+    private Object rouge;
+    private int masque;
+
+    @Setup
+    public void preparer() throws Throwable {
+        checker = (Object) Acces.NOUVEAU_VICTOIRE_CHECKER.invokeExact();
+        Object jeu = (Object) Acces.NOUVEAU_JEU.invokeExact((Object) "Rouge", (Object) "Bleu");
+        rouge = (Object) Acces.JEU_GET_JOUEUR_ACTUEL.invokeExact(jeu);
+        for (int[] placement : PLACEMENTS) {
+            Object position = (Object) Acces.POSITION_OF.invokeExact(placement[0], placement[1]);
+            boolean victoire = (boolean) Acces.JEU_PLACER_PION.invokeExact(jeu, position);
+        }
+        plateau = (Object) Acces.JEU_GET_PLATEAU.invokeExact(jeu);
+        masque = 0b000_000_011 | 0b001_000_000;
+    }
+
+    @Benchmark
+    public boolean aGagne() throws Throwable {
+        return (boolean) Acces.VICTOIRE_A_GAGNE.invokeExact(checker, plateau, rouge);
+    }
+
+    @Benchmark
+    public boolean aAligne() throws Throwable {
+        return (boolean) Acces.A_ALIGNE.invokeExact(masque);
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Analyse de tous les coups légaux d'une position, calculée d'un seul appel par JeuAraignee.analyserCoups :
+ * pour chaque coup, s'il gagne immédiatement, s'il termine la partie sur une nulle, si l'adversaire a ensuite
+ * un coup gagnant, et sa valeur théorique si un solveur est fourni.
+ *
+ * L'analyse travaille sur l'état compact (voir Coup et PlateauCompact) : la partie n'est jamais modifiée.
+ * Les nulles viennent de ReglesNulle, avec la limite de coups et l'historique de la partie : un coup
+ * qui répète une troisième fois la position ou atteint la limite vaut NUL, sans riposte possible.
+ * Une instance est un tampon réutilisable d'une analyse à l'autre, sans allocation ;
+ * les masques par case (9 bits, voir Position) servent directement à l'affichage des indices.
+ */
+public final class AnalyseCoups {
+
+    private final int[] coups = new int[Coup.MAX_COUPS];
+    private final boolean[] gagnants = new boolean[Coup.MAX_COUPS];
+    private final boolean[] nuls = new boolean[Coup.MAX_COUPS];
+    private final boolean[] ripostesGagnantes = new boolean[Coup.MAX_COUPS];
+    private final Resultat[] resultats = new Resultat[Coup.MAX_COUPS];
+    private final int[] ripostes = new int[Coup.MAX_COUPS];
+    private int nbCoups;
+
+    /**
+     * Remplit l'analyse pour l'état donné.
+     *
+     * @param etat l'état compact de la partie, ou l'analyse est vide si enCours est faux
+     * @param nbCoupsJoues le nombre de coups joués pour atteindre etat
+     * @param limiteCoups la limite de coups de la partie
+     * @param etatsAvantCoup l'état avant chaque coup déjà joué, indexé par rang (voir ReglesNulle.estNulle)
+     * @param oracle solveur qui donne la valeur de chaque coup, ou null
+     */
+    void analyser(int etat, boolean enCours, int nbCoupsJoues, int limiteCoups, int[] etatsAvantCoup,
+                  Solveur oracle) {
+        nbCoups = enCours ? Coup.generer(etat, coups) : 0;
+        for (int i = 0; i < nbCoups; i++) {
+            int suivant = Coup.appliquer(etat, coups[i]);
+            // Un coup gagnant fige le trait sur son auteur (voir Coup.appliquer)
+            boolean gagnant = PlateauCompact.trait(suivant) == PlateauCompact.trait(etat);
+            boolean nul = !gagnant
+                && ReglesNulle.estNulle(suivant, nbCoupsJoues + 1, limiteCoups, etatsAvantCoup, 0);
+            gagnants[i] = gagnant;
+            nuls[i] = nul;
+            ripostesGagnantes[i] = !gagnant && !nul && aCoupGagnant(suivant);
+            resultats[i] = oracle == null ? Resultat.INCONNU
+                : gagnant ? Resultat.GAIN
+                : nul ? Resultat.NUL
+                : inverser(oracle.getResultat(suivant));
+        }
+    }
+
+    private boolean aCoupGagnant(int etat) {
+        int trait = PlateauCompact.trait(etat);
+        int nb = Coup.generer(etat, ripostes);
+        for (int i = 0; i < nb; i++) {
+            if (PlateauCompact.trait(Coup.appliquer(etat, ripostes[i])) == trait) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * La valeur de l'état suivant est celle de l'adversaire : la valeur du coup est son opposé.
+     */
+    private static Resultat inverser(Resultat resultat) {
+        switch (resultat) {
+            case GAIN: return Resultat.PERTE;
+            case PERTE: return Resultat.GAIN;
+            default: return resultat;
+        }
+    }
+
+    public int getNbCoups() {
+        return nbCoups;
+    }
+
+    /**
+     * @return le i-ème coup légal, codé selon Coup
+     */
+    public int getCoup(int i) {
+        return coups[verifierIndex(i)];
+    }
+
+    public boolean estGagnant(int i) {
+        return gagnants[verifierIndex(i)];
+    }
+
+    /**
+     * @return true si ce coup termine la partie sur une nulle : répétition, limite de coups ou joueur bloqué
+     */
+    public boolean estNul(int i) {
+        return nuls[verifierIndex(i)];
+    }
+
+    /**
+     * @return true si, après ce coup, l'adversaire peut gagner immédiatement (jamais après un coup nul)
+     */
+    public boolean adversairePeutGagner(int i) {
+        return ripostesGagnantes[verifierIndex(i)];
+    }
+
+    /**
+     * @return la valeur théorique du coup pour celui qui le joue, INCONNU si l'analyse n'avait pas de solveur
+     */
+    public Resultat getResultat(int i) {
+        return resultats[verifierIndex(i)];
+    }
+
+    /**
+     * @return l'index du coup dans l'analyse, -1 s'il n'est pas légal
+     */
+    public int indexDe(int coup) {
+        for (int i = 0; i < nbCoups; i++) {
+            if (coups[i] == coup) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean estLegal(int coup) {
+        return indexDe(coup) >= 0;
+    }
+
+    /**
+     * @param origine la case du pion à déplacer, ou -1 pour les placements
+     * @return le masque des destinations légales depuis cette origine
+     */
+    public int masqueDestinations(int origine) {
+        int masque = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            if (Coup.origine(coups[i]) == origine) {
+                masque |= 1 << Coup.destination(coups[i]);
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @param origine la case du pion à déplacer, ou -1 pour les placements
+     * @return le masque des destinations qui gagnent immédiatement
+     */
+    public int masqueDestinationsGagnantes(int origine) {
+        int masque = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            if (gagnants[i] && Coup.origine(coups[i]) == origine) {
+                masque |= 1 << Coup.destination(coups[i]);
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @param origine la case du pion à déplacer, ou -1 pour les placements
+     * @return le masque des destinations après lesquelles l'adversaire peut gagner immédiatement
+     */
+    public int masqueDestinationsRisquees(int origine) {
+        int masque = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            if (ripostesGagnantes[i] && Coup.origine(coups[i]) == origine) {
+                masque |= 1 << Coup.destination(coups[i]);
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @return le masque des pions qui ont au moins un déplacement légal (0 en phase de placement)
+     */
+    public int masqueOrigines() {
+        int masque = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            if (!Coup.estPlacement(coups[i])) {
+                masque |= 1 << Coup.origine(coups[i]);
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @return le masque des pions qui ont un déplacement gagnant
+     */
+    public int masqueOriginesGagnantes() {
+        int masque = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            if (gagnants[i] && !Coup.estPlacement(coups[i])) {
+                masque |= 1 << Coup.origine(coups[i]);
+            }
+        }
+        return masque;
+    }
+
+    private int verifierIndex(int i) {
+        if (i < 0 || i >= nbCoups) {
+            throw new IndexOutOfBoundsException("Coup " + i + " hors de l'analyse (" + nbCoups + " coups)");
+        }
+        return i;
+    }
+}
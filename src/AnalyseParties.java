@@ -0,0 +1,329 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Analyse en flux d'archives de parties enregistrées par JournalPartie.
+ *
+ * Les archives sont projetées en mémoire fenêtre par fenêtre (voir JournalPartie) : les parties ne sont
+ * jamais toutes chargées. Chaque fenêtre est découpée aux frontières de parties en tâches fork-join,
+ * chaque tâche remplit ses propres histogrammes, fusionnés en remontant.
+ *
+ * Chaque partie est rejouée sur un JeuAraignee, avec la limite de coups enregistrée dans le journal,
+ * ce qui revalide chaque enregistrement avec les règles du jeu ;
+ * une partie contenant un enregistrement invalide est comptée à part et ignorée à partir de celui-ci.
+ * Chaque coup joué est comparé au jeu parfait du Solveur pour mesurer le taux d'erreurs.
+ */
+public class AnalyseParties {
+
+    /** En dessous de cette taille (en octets), une tâche analyse ses parties elle-même. */
+    private static final int SEUIL_DECOUPAGE = 64 * 1024;
+
+    private final Solveur oracle;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param oracle le solveur qui sert de référence de jeu parfait
+     * @param parallelisme le nombre de threads d'analyse
+     */
+    public AnalyseParties(Solveur oracle, int parallelisme) {
+        if (oracle == null) {
+            throw new IllegalArgumentException("L'oracle ne peut pas être null");
+        }
+        if (parallelisme < 1) {
+            throw new IllegalArgumentException("Il faut au moins un thread");
+        }
+        this.oracle = oracle;
+        this.pool = new ForkJoinPool(parallelisme);
+    }
+
+    /**
+     * Analyse une ou plusieurs archives, l'une après l'autre, et retourne les statistiques fusionnées.
+     *
+     * @throws IOException si une archive ne peut pas être lue
+     */
+    public Statistiques analyser(Path... archives) throws IOException {
+        Statistiques total = new Statistiques();
+        long debut = System.nanoTime();
+        for (Path archive : archives) {
+            JournalPartie.parcourirFenetres(archive,
+                fenetre -> total.fusionner(pool.invoke(new Tache(fenetre, 0, fenetre.limit()))));
+        }
+        total.dureeNanos = System.nanoTime() - debut;
+        return total;
+    }
+
+    public void arreter() {
+        pool.shutdown();
+    }
+
+    /**
+     * Analyse les parties d'une tranche [debut, fin[ de fenêtre. Les bornes tombent toujours sur un début de partie ;
+     * la fenêtre n'est lue que par accès absolus, elle est donc partagée sans copie entre les tâches.
+     */
+    private class Tache extends RecursiveTask<Statistiques> {
+
+        private final ByteBuffer fenetre;
+        private final int debut;
+        private final int fin;
+
+        Tache(ByteBuffer fenetre, int debut, int fin) {
+            this.fenetre = fenetre;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Statistiques compute() {
+            if (fin - debut > SEUIL_DECOUPAGE) {
+                int milieu = debut + (fin - debut) / 2;
+                while (milieu < fin && fenetre.get(milieu - 1) != JournalPartie.FIN_PARTIE) {
+                    milieu++;
+                }
+                if (milieu < fin) {
+                    Tache gauche = new Tache(fenetre, debut, milieu);
+                    gauche.fork();
+                    Statistiques statistiques = new Tache(fenetre, milieu, fin).compute();
+                    statistiques.fusionner(gauche.join());
+                    return statistiques;
+                }
+            }
+            Statistiques statistiques = new Statistiques();
+            JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+            int debutPartie = debut;
+            for (int i = debut; i < fin; i++) {
+                if (fenetre.get(i) == JournalPartie.FIN_PARTIE) {
+                    analyserPartie(jeu, fenetre, debutPartie, i, statistiques);
+                    debutPartie = i + 1;
+                }
+            }
+            if (debutPartie < fin) {
+                analyserPartie(jeu, fenetre, debutPartie, fin, statistiques);
+            }
+            return statistiques;
+        }
+    }
+
+    /**
+     * Rejoue une partie sur le jeu de la tâche, remis à zéro avec la limite de coups par défaut
+     * jusqu'à ce que la partie enregistre la sienne.
+     */
+    private void analyserPartie(JeuAraignee jeu, ByteBuffer fenetre, int debut, int fin, Statistiques statistiques) {
+        jeu.reinitialiser();
+        jeu.setLimiteCoups(JeuAraignee.LIMITE_COUPS_PAR_DEFAUT);
+        for (int i = debut; i < fin; i++) {
+            byte enregistrement = fenetre.get(i);
+            boolean valide;
+            if (enregistrement == JournalPartie.ANNULATION) {
+                valide = jeu.annulerCoup();
+            } else if (enregistrement == JournalPartie.RETABLISSEMENT) {
+                valide = jeu.retablirCoup();
+            } else if (enregistrement == JournalPartie.LIMITE) {
+                valide = JournalPartie.appliquerLimite(fenetre, i, fin, jeu);
+                i += JournalPartie.TAILLE_LIMITE;
+            } else {
+                int coup = enregistrement & 0xFF;
+                int etatAvant = jeu.getEtatCompact();
+                valide = jeu.jouerCoup(coup);
+                if (valide) {
+                    statistiques.enregistrerCoup(valeurPour(etatAvant, PlateauCompact.trait(etatAvant)),
+                        valeurPour(jeu.getEtatCompact(), PlateauCompact.trait(etatAvant)));
+                }
+            }
+            if (!valide) {
+                statistiques.nbPartiesInvalides++;
+                return;
+            }
+        }
+        statistiques.enregistrerPartie(jeu);
+    }
+
+    /**
+     * Valeur théorique d'une position pour un joueur : 2 gain, 1 nul, 0 perte.
+     */
+    private int valeurPour(int etat, int joueur) {
+        int valeur;
+        switch (oracle.getResultat(etat)) {
+            case GAIN:
+                valeur = 2;
+                break;
+            case PERTE:
+                valeur = 0;
+                break;
+            default:
+                valeur = 1;
+        }
+        return PlateauCompact.trait(etat) == joueur ? valeur : 2 - valeur;
+    }
+
+    /**
+     * Résultats agrégés d'une analyse.
+     */
+    public static class Statistiques {
+
+        /** Au-delà, les longueurs de phase de déplacement sont regroupées dans la dernière case de l'histogramme. */
+        public static final int LONGUEUR_MAX = 64;
+
+        /** Une partie en phase de déplacement compte toujours exactement 6 placements dans son historique. */
+        private static final int NB_PLACEMENTS = 6;
+
+        private static final String[] NOMS_ALIGNEMENTS = {
+            "ligne 1", "ligne 2", "ligne 3", "colonne 1", "colonne 2", "colonne 3"
+        };
+
+        private final long[] ouvertures = new long[PlateauCompact.NB_CASES];
+        private final long[] alignementsGagnants = new long[VictoireChecker.NB_ALIGNEMENTS];
+        private final long[] longueursDeplacement = new long[LONGUEUR_MAX + 1];
+        private long nbParties;
+        private long nbPartiesInvalides;
+        private long nbVictoires;
+        private long nbNuls;
+        private long nbCoups;
+        private long nbErreurs;
+        private long nbGainsPerdus;
+        private long totalDeplacements;
+        private long dureeNanos;
+
+        void enregistrerCoup(int valeurAvant, int valeurApres) {
+            nbCoups++;
+            if (valeurApres < valeurAvant) {
+                nbErreurs++;
+                if (valeurAvant == 2) {
+                    nbGainsPerdus++;
+                }
+            }
+        }
+
+        void enregistrerPartie(JeuAraignee jeu) {
+            nbParties++;
+            // L'ouverture est lue dans l'historique final : un premier coup annulé puis remplacé ne compte pas
+            if (jeu.getNbCoupsJoues() > 0) {
+                ouvertures[Coup.destination(jeu.getCoupJoue(0))]++;
+            }
+            int etat = jeu.getEtatCompact();
+            if (jeu.getIssue() == Issue.NUL) {
+                nbNuls++;
+            } else if (jeu.getIssue() == Issue.VICTOIRE) {
+                nbVictoires++;
+                int masque = PlateauCompact.masque(etat, PlateauCompact.trait(etat));
+                alignementsGagnants[VictoireChecker.alignementGagnant(masque)]++;
+            }
+            int nbDeplacements = PlateauCompact.estEnDeplacement(etat)
+                ? jeu.getNbCoupsJoues() - NB_PLACEMENTS : 0;
+            totalDeplacements += nbDeplacements;
+            longueursDeplacement[Math.min(nbDeplacements, LONGUEUR_MAX)]++;
+        }
+
+        void fusionner(Statistiques autre) {
+            for (int i = 0; i < ouvertures.length; i++) {
+                ouvertures[i] += autre.ouvertures[i];
+            }
+            for (int i = 0; i < alignementsGagnants.length; i++) {
+                alignementsGagnants[i] += autre.alignementsGagnants[i];
+            }
+            for (int i = 0; i < longueursDeplacement.length; i++) {
+                longueursDeplacement[i] += autre.longueursDeplacement[i];
+            }
+            nbParties += autre.nbParties;
+            nbPartiesInvalides += autre.nbPartiesInvalides;
+            nbVictoires += autre.nbVictoires;
+            nbNuls += autre.nbNuls;
+            nbCoups += autre.nbCoups;
+            nbErreurs += autre.nbErreurs;
+            nbGainsPerdus += autre.nbGainsPerdus;
+            totalDeplacements += autre.totalDeplacements;
+        }
+
+        public long getNbParties() {
+            return nbParties;
+        }
+
+        public long getNbPartiesInvalides() {
+            return nbPartiesInvalides;
+        }
+
+        public long getNbVictoires() {
+            return nbVictoires;
+        }
+
+        public long getNbNuls() {
+            return nbNuls;
+        }
+
+        /** Histogramme des premiers placements : getOuvertures()[c] parties ont commencé sur la case c. */
+        public long[] getOuvertures() {
+            return ouvertures.clone();
+        }
+
+        /** Histogramme des alignements gagnants, indexés comme dans VictoireChecker (lignes puis colonnes). */
+        public long[] getAlignementsGagnants() {
+            return alignementsGagnants.clone();
+        }
+
+        /** Histogramme du nombre de coups joués en phase de déplacement avant la fin de la partie (ou de l'archive). */
+        public long[] getLongueursDeplacement() {
+            return longueursDeplacement.clone();
+        }
+
+        public double getDeplacementsMoyens() {
+            return nbParties == 0 ? 0 : (double) totalDeplacements / nbParties;
+        }
+
+        /** Part des coups qui dégradent la valeur théorique de la position pour celui qui les joue. */
+        public double getTauxErreurs() {
+            return nbCoups == 0 ? 0 : (double) nbErreurs / nbCoups;
+        }
+
+        public double getPartiesParSeconde() {
+            return dureeNanos == 0 ? 0 : (nbParties + nbPartiesInvalides) * 1e9 / dureeNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texte = new StringBuilder();
+            texte.append(String.format("%d parties analysées en %.2f s (%.0f parties/s), %d invalides%n",
+                nbParties, dureeNanos / 1e9, getPartiesParSeconde(), nbPartiesInvalides));
+            texte.append("  Premier placement :");
+            for (int c = 0; c < ouvertures.length; c++) {
+                texte.append(String.format(" %d:%.1f%%", c, pourcentage(ouvertures[c], nbParties)));
+            }
+            texte.append(String.format("%n  Alignements gagnants (%d victoires, %d nuls) :", nbVictoires, nbNuls));
+            for (int i = 0; i < alignementsGagnants.length; i++) {
+                texte.append(String.format(" %s %.1f%%", NOMS_ALIGNEMENTS[i],
+                    pourcentage(alignementsGagnants[i], nbVictoires)));
+            }
+            texte.append(String.format("%n  Coups en phase de déplacement : %.2f en moyenne%n", getDeplacementsMoyens()));
+            texte.append(String.format("  Erreurs face au jeu parfait : %d sur %d coups (%.2f %%), dont %d gains perdus",
+                nbErreurs, nbCoups, 100.0 * getTauxErreurs(), nbGainsPerdus));
+            return texte.toString();
+        }
+
+        private static double pourcentage(long valeur, long total) {
+            return total == 0 ? 0 : 100.0 * valeur / total;
+        }
+    }
+
+    /**
+     * Usage : java AnalyseParties archive [archive...]
+     * Les archives sont des journaux écrits par JournalPartie.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage : java AnalyseParties archive [archive...]");
+            return;
+        }
+        Path[] archives = new Path[args.length];
+        for (int i = 0; i < args.length; i++) {
+            archives[i] = Paths.get(args[i]);
+        }
+        AnalyseParties analyse = new AnalyseParties(Solveur.resoudre(), Runtime.getRuntime().availableProcessors());
+        try {
+            System.out.println(analyse.analyser(archives));
+        } finally {
+            analyse.arreter();
+        }
+    }
+}
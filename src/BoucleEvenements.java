@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Boucle d'événements NIO d'un thread du ServeurJeu : elle sert toutes les connexions qui lui ont été
+ * confiées, et donc toutes leurs parties, sans jamais les partager avec un autre thread.
+ */
+class BoucleEvenements implements Runnable {
+
+    private final Selector selecteur;
+    private final Thread thread;
+    private final Queue<SocketChannel> nouvellesConnexions = new ConcurrentLinkedQueue<>();
+    private volatile int nbParties;
+
+    BoucleEvenements(String nom) throws IOException {
+        this.selecteur = Selector.open();
+        this.thread = new Thread(this, nom);
+        this.thread.setDaemon(true);
+    }
+
+    void demarrer() {
+        thread.start();
+    }
+
+    /**
+     * Confie une connexion acceptée à cette boucle. Appelé depuis le thread d'acceptation.
+     */
+    void confier(SocketChannel canal) {
+        nouvellesConnexions.add(canal);
+        selecteur.wakeup();
+    }
+
+    int getNbParties() {
+        return nbParties;
+    }
+
+    void arreter() throws IOException {
+        thread.interrupt();
+        selecteur.close();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!thread.isInterrupted()) {
+                selecteur.select();
+                enregistrerNouvellesConnexions();
+                Iterator<SelectionKey> cles = selecteur.selectedKeys().iterator();
+                while (cles.hasNext()) {
+                    SelectionKey cle = cles.next();
+                    cles.remove();
+                    traiter(cle);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!thread.isInterrupted()) {
+                System.err.println(thread.getName() + " arrêtée, ses connexions ne sont plus servies : " + e);
+            }
+        }
+    }
+
+    private void enregistrerNouvellesConnexions() {
+        SocketChannel canal;
+        while ((canal = nouvellesConnexions.poll()) != null) {
+            try {
+                canal.configureBlocking(false);
+                SelectionKey cle = canal.register(selecteur, SelectionKey.OP_READ);
+                cle.attach(new ConnexionClient(canal, cle));
+            } catch (IOException e) {
+                fermer(canal);
+            }
+        }
+    }
+
+    private void traiter(SelectionKey cle) {
+        ConnexionClient connexion = (ConnexionClient) cle.attachment();
+        try {
+            if (cle.isReadable()) {
+                int avant = connexion.getNbParties();
+                boolean ouverte = connexion.lire();
+                nbParties += connexion.getNbParties() - avant;
+                if (!ouverte) {
+                    terminer(cle, connexion);
+                    return;
+                }
+            }
+            if (cle.isValid() && cle.isWritable()) {
+                connexion.ecrire();
+            }
+        } catch (IOException e) {
+            terminer(cle, connexion);
+        }
+    }
+
+    private void terminer(SelectionKey cle, ConnexionClient connexion) {
+        nbParties -= connexion.getNbParties();
+        cle.cancel();
+        fermer((SocketChannel) cle.channel());
+    }
+
+    private static void fermer(SocketChannel canal) {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // La connexion est abandonnée de toute façon
+        }
+    }
+}
@@ -0,0 +1,332 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Connexion d'un client au ServeurJeu et parties qu'il a ouvertes.
+ * N'est manipulée que par le thread de sa BoucleEvenements.
+ *
+ * Le premier octet reçu choisit le protocole de la connexion : une lettre ASCII pour le protocole texte,
+ * sinon le protocole binaire (voir ProtocoleBinaire).
+ *
+ * Les parties sont rangées dans un tableau indexé par leur identifiant ; les identifiants des parties
+ * fermées sont réutilisés. Les commandes sont analysées directement dans le tampon de lecture.
+ */
+class ConnexionClient {
+
+    private static final int TAILLE_LECTURE = 8192;
+    private static final int TAILLE_ECRITURE = 16384;
+    private static final int TAILLE_ECRITURE_MAX = 1 << 20;
+    private static final int MARGE_REPONSE = 64;
+
+    private static final int PROTOCOLE_INCONNU = 0;
+    private static final int PROTOCOLE_TEXTE = 1;
+    private static final int PROTOCOLE_BINAIRE = 2;
+
+    private static final byte[] NOUVELLE = octets("NOUVELLE");
+    private static final byte[] COUP = octets("COUP");
+    private static final byte[] ETAT = octets("ETAT");
+    private static final byte[] FERMER = octets("FERMER");
+
+    private static final byte[] REPONSE_PARTIE = octets("PARTIE ");
+    private static final byte[] REPONSE_OK = octets("OK ");
+    private static final byte[] REPONSE_FIN = octets("FIN ");
+    private static final byte[] REPONSE_ETAT = octets("ETAT ");
+    private static final byte[] REPONSE_FERMEE = octets("FERMEE ");
+    private static final byte[] REPONSE_ERREUR = octets("ERREUR ");
+    private static final byte[] PARTIE_INCONNUE = octets(" partie inconnue");
+    private static final byte[] COUP_ILLEGAL = octets(" coup illegal");
+    private static final byte[] COMMANDE_INCONNUE = octets(" commande inconnue");
+
+    private final SocketChannel canal;
+    private final SelectionKey cle;
+    private final ByteBuffer lecture = ByteBuffer.allocate(TAILLE_LECTURE);
+    private ByteBuffer ecriture = ByteBuffer.allocate(TAILLE_ECRITURE);
+
+    private JeuAraignee[] parties = new JeuAraignee[16];
+    private int[] identifiantsLibres = new int[16];
+    private int nbIdentifiantsLibres;
+    private int prochainIdentifiant;
+    private int nbParties;
+    private int protocole = PROTOCOLE_INCONNU;
+
+    /** Position de lecture dans la ligne en cours d'analyse. */
+    private int curseur;
+
+    ConnexionClient(SocketChannel canal, SelectionKey cle) {
+        this.canal = canal;
+        this.cle = cle;
+    }
+
+    int getNbParties() {
+        return nbParties;
+    }
+
+    /**
+     * Lit les données disponibles, exécute toutes les commandes complètes et envoie les réponses.
+     *
+     * @return false si le client a fermé la connexion ou envoyé une commande invalide
+     */
+    boolean lire() throws IOException {
+        if (canal.read(lecture) < 0) {
+            return false;
+        }
+        if (protocole == PROTOCOLE_INCONNU && lecture.position() > 0) {
+            protocole = lecture.get(0) >= 'A' ? PROTOCOLE_TEXTE : PROTOCOLE_BINAIRE;
+        }
+        boolean valide = protocole == PROTOCOLE_BINAIRE ? lireMessages() : lireLignes();
+        if (!valide) {
+            return false;
+        }
+        ecrire();
+        return true;
+    }
+
+    private boolean lireLignes() throws IOException {
+        byte[] donnees = lecture.array();
+        int fin = lecture.position();
+        int debutLigne = 0;
+        for (int i = 0; i < fin; i++) {
+            if (donnees[i] == '\n') {
+                int finLigne = i > debutLigne && donnees[i - 1] == '\r' ? i - 1 : i;
+                executer(donnees, debutLigne, finLigne);
+                debutLigne = i + 1;
+            }
+        }
+        if (debutLigne == 0 && fin == donnees.length) {
+            return false;
+        }
+        lecture.position(debutLigne);
+        lecture.limit(fin);
+        lecture.compact();
+        return true;
+    }
+
+    private boolean lireMessages() throws IOException {
+        lecture.flip();
+        int taille;
+        while ((taille = ProtocoleBinaire.tailleMessage(lecture)) > 0) {
+            int suivant = lecture.position() + taille;
+            executer(lecture);
+            lecture.position(suivant);
+        }
+        lecture.compact();
+        return taille != ProtocoleBinaire.INVALIDE;
+    }
+
+    /**
+     * Envoie autant que possible des réponses en attente, et surveille l'écriture s'il en reste.
+     */
+    void ecrire() throws IOException {
+        ecriture.flip();
+        canal.write(ecriture);
+        boolean reste = ecriture.hasRemaining();
+        ecriture.compact();
+        cle.interestOps(reste ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void executer(byte[] ligne, int debut, int fin) throws IOException {
+        curseur = debut;
+        int debutMot = curseur;
+        int finMot = motSuivant(ligne, fin);
+        if (estMot(ligne, debutMot, finMot, NOUVELLE)) {
+            int identifiant = ouvrirPartie();
+            reponse(REPONSE_PARTIE).entier(identifiant).finReponse();
+        } else if (estMot(ligne, debutMot, finMot, COUP)) {
+            int identifiant = entierSuivant(ligne, fin);
+            int coup = entierSuivant(ligne, fin);
+            JeuAraignee jeu = partie(identifiant);
+            if (jeu == null) {
+                reponse(REPONSE_ERREUR).entier(identifiant).octets(PARTIE_INCONNUE).finReponse();
+            } else if (!jeu.jouerCoup(coup)) {
+                reponse(REPONSE_ERREUR).entier(identifiant).octets(COUP_ILLEGAL).finReponse();
+            } else {
+                reponse(jeu.estPartieTerminee() ? REPONSE_FIN : REPONSE_OK)
+                    .entier(identifiant).espace().entier(jeu.getEtatCompact()).finReponse();
+            }
+        } else if (estMot(ligne, debutMot, finMot, ETAT)) {
+            int identifiant = entierSuivant(ligne, fin);
+            JeuAraignee jeu = partie(identifiant);
+            if (jeu == null) {
+                reponse(REPONSE_ERREUR).entier(identifiant).octets(PARTIE_INCONNUE).finReponse();
+            } else {
+                reponse(REPONSE_ETAT).entier(identifiant).espace().entier(jeu.getEtatCompact()).finReponse();
+            }
+        } else if (estMot(ligne, debutMot, finMot, FERMER)) {
+            int identifiant = entierSuivant(ligne, fin);
+            if (fermerPartie(identifiant)) {
+                reponse(REPONSE_FERMEE).entier(identifiant).finReponse();
+            } else {
+                reponse(REPONSE_ERREUR).entier(identifiant).octets(PARTIE_INCONNUE).finReponse();
+            }
+        } else {
+            reponse(REPONSE_ERREUR).entier(-1).octets(COMMANDE_INCONNUE).finReponse();
+        }
+    }
+
+    /**
+     * Exécute le message binaire complet qui commence à la position du tampon.
+     */
+    private void executer(ByteBuffer message) throws IOException {
+        byte type = message.get();
+        if (type == ProtocoleBinaire.NOUVELLE) {
+            reserverReponse();
+            ProtocoleBinaire.ecrireMessage(ecriture, ProtocoleBinaire.PARTIE, ouvrirPartie());
+            return;
+        }
+        int identifiant = ProtocoleBinaire.lireIdentifiant(message);
+        JeuAraignee jeu = partie(identifiant);
+        reserverReponse();
+        if (jeu == null) {
+            ProtocoleBinaire.ecrireErreur(ecriture, identifiant,
+                type == ProtocoleBinaire.COUP || type == ProtocoleBinaire.ETAT || type == ProtocoleBinaire.FERMER
+                    ? ProtocoleBinaire.ERREUR_PARTIE_INCONNUE
+                    : ProtocoleBinaire.ERREUR_MESSAGE_INCONNU);
+        } else if (type == ProtocoleBinaire.COUP) {
+            if (!jeu.jouerCoup(ProtocoleBinaire.lireCoup(message))) {
+                ProtocoleBinaire.ecrireErreur(ecriture, identifiant, ProtocoleBinaire.ERREUR_COUP_ILLEGAL);
+            } else {
+                byte reponse = jeu.estPartieTerminee() ? ProtocoleBinaire.FIN : ProtocoleBinaire.OK;
+                ProtocoleBinaire.ecrireMessage(ecriture, reponse, identifiant, jeu.getEtatCompact());
+            }
+        } else if (type == ProtocoleBinaire.ETAT) {
+            ProtocoleBinaire.ecrireMessage(ecriture, ProtocoleBinaire.ETAT_PARTIE, identifiant, jeu.getEtatCompact());
+        } else if (type == ProtocoleBinaire.FERMER) {
+            fermerPartie(identifiant);
+            ProtocoleBinaire.ecrireMessage(ecriture, ProtocoleBinaire.FERMEE, identifiant);
+        } else {
+            ProtocoleBinaire.ecrireErreur(ecriture, identifiant, ProtocoleBinaire.ERREUR_MESSAGE_INCONNU);
+        }
+    }
+
+    private int ouvrirPartie() {
+        int identifiant;
+        if (nbIdentifiantsLibres > 0) {
+            identifiant = identifiantsLibres[--nbIdentifiantsLibres];
+        } else {
+            identifiant = prochainIdentifiant++;
+            if (identifiant == parties.length) {
+                parties = Arrays.copyOf(parties, identifiant * 2);
+            }
+        }
+        parties[identifiant] = new JeuAraignee("Rouge", "Bleu");
+        nbParties++;
+        return identifiant;
+    }
+
+    private JeuAraignee partie(int identifiant) {
+        return identifiant >= 0 && identifiant < prochainIdentifiant ? parties[identifiant] : null;
+    }
+
+    private boolean fermerPartie(int identifiant) {
+        if (partie(identifiant) == null) {
+            return false;
+        }
+        parties[identifiant] = null;
+        if (nbIdentifiantsLibres == identifiantsLibres.length) {
+            identifiantsLibres = Arrays.copyOf(identifiantsLibres, nbIdentifiantsLibres * 2);
+        }
+        identifiantsLibres[nbIdentifiantsLibres++] = identifiant;
+        nbParties--;
+        return true;
+    }
+
+    // Analyse de la ligne
+
+    private int motSuivant(byte[] ligne, int fin) {
+        while (curseur < fin && ligne[curseur] == ' ') {
+            curseur++;
+        }
+        while (curseur < fin && ligne[curseur] != ' ') {
+            curseur++;
+        }
+        return curseur;
+    }
+
+    /**
+     * @return l'entier décimal suivant de la ligne, ou -1 s'il est absent, invalide ou plus grand
+     *         que Integer.MAX_VALUE
+     */
+    private int entierSuivant(byte[] ligne, int fin) {
+        while (curseur < fin && ligne[curseur] == ' ') {
+            curseur++;
+        }
+        long valeur = 0;
+        int chiffres = 0;
+        while (curseur < fin && ligne[curseur] != ' ') {
+            int chiffre = ligne[curseur++] - '0';
+            if (chiffre < 0 || chiffre > 9 || ++chiffres > 10) {
+                return -1;
+            }
+            valeur = valeur * 10 + chiffre;
+        }
+        return chiffres == 0 || valeur > Integer.MAX_VALUE ? -1 : (int) valeur;
+    }
+
+    private static boolean estMot(byte[] ligne, int debut, int fin, byte[] mot) {
+        while (debut < fin && ligne[debut] == ' ') {
+            debut++;
+        }
+        return Arrays.equals(ligne, debut, fin, mot, 0, mot.length);
+    }
+
+    // Écriture des réponses
+
+    private ConnexionClient reponse(byte[] entete) throws IOException {
+        reserverReponse();
+        return octets(entete);
+    }
+
+    /**
+     * Garantit la place d'une réponse dans le tampon d'écriture, en l'agrandissant si le client lit trop lentement.
+     */
+    private void reserverReponse() throws IOException {
+        if (ecriture.remaining() < MARGE_REPONSE) {
+            if (ecriture.capacity() >= TAILLE_ECRITURE_MAX) {
+                throw new IOException("Le client ne lit pas ses réponses");
+            }
+            ByteBuffer agrandi = ByteBuffer.allocate(ecriture.capacity() * 2);
+            ecriture.flip();
+            agrandi.put(ecriture);
+            ecriture = agrandi;
+        }
+    }
+
+    private ConnexionClient octets(byte[] texte) {
+        ecriture.put(texte);
+        return this;
+    }
+
+    private ConnexionClient espace() {
+        ecriture.put((byte) ' ');
+        return this;
+    }
+
+    private ConnexionClient entier(int entier) {
+        // En long : -Integer.MIN_VALUE ne tient pas dans un int
+        long valeur = entier;
+        if (valeur < 0) {
+            ecriture.put((byte) '-');
+            valeur = -valeur;
+        }
+        long diviseur = 1;
+        while (valeur / diviseur >= 10) {
+            diviseur *= 10;
+        }
+        for (; diviseur > 0; diviseur /= 10) {
+            ecriture.put((byte) ('0' + valeur / diviseur % 10));
+        }
+        return this;
+    }
+
+    private void finReponse() {
+        ecriture.put((byte) '\n');
+    }
+
+    private static byte[] octets(String texte) {
+        return texte.getBytes(StandardCharsets.US_ASCII);
+    }
+}
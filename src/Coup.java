@@ -0,0 +1,127 @@
+/**
+ * Codage compact des coups du jeu de l'Araignée sur un octet.
+ * - Placement : 0xF0 | destination
+ * - Déplacement : origine << 4 | destination
+ * où origine et destination sont des index de case (0..8).
+ *
+ * Fournit aussi un générateur de coups légaux et les transitions sur l'état compact
+ * (voir PlateauCompact), sans allocation ni exception.
+ */
+public final class Coup {
+
+    /** Nombre maximal de coups légaux dans une position (3 pions × 4 voisines au plus, ou 9 cases). */
+    public static final int MAX_COUPS = 12;
+
+    /** Valeur réservée qui ne correspond à aucun coup. */
+    public static final int AUCUN = -1;
+
+    private static final int AUCUNE_ORIGINE = 0xF;
+    private static final int NB_PIONS_PAR_JOUEUR = 3;
+
+    private Coup() {
+    }
+
+    public static int placement(int destination) {
+        return (AUCUNE_ORIGINE << 4) | destination;
+    }
+
+    public static int deplacement(int origine, int destination) {
+        return (origine << 4) | destination;
+    }
+
+    public static boolean estPlacement(int coup) {
+        return (coup >>> 4) == AUCUNE_ORIGINE;
+    }
+
+    /**
+     * @return l'index de la case de départ, ou -1 pour un placement
+     */
+    public static int origine(int coup) {
+        int origine = coup >>> 4;
+        return origine == AUCUNE_ORIGINE ? -1 : origine;
+    }
+
+    public static int destination(int coup) {
+        return coup & 0xF;
+    }
+
+    /**
+     * Remplit le tampon avec les coups légaux du joueur qui a le trait.
+     * Aucun coup n'est généré si la partie est terminée.
+     *
+     * @param etat l'état compact de la partie
+     * @param tampon tableau d'au moins MAX_COUPS cases, réutilisable d'un appel à l'autre
+     * @return le nombre de coups écrits dans le tampon
+     */
+    public static int generer(int etat, int[] tampon) {
+        if (PlateauCompact.estTerminee(etat)) {
+            return 0;
+        }
+        int nb = 0;
+        int libres = ~PlateauCompact.occupation(etat) & PlateauCompact.MASQUE_CASES;
+        if (!PlateauCompact.estEnDeplacement(etat)) {
+            for (int cases = libres; cases != 0; cases &= cases - 1) {
+                tampon[nb++] = placement(Integer.numberOfTrailingZeros(cases));
+            }
+            return nb;
+        }
+        int pions = PlateauCompact.masque(etat, PlateauCompact.trait(etat));
+        for (; pions != 0; pions &= pions - 1) {
+            int origine = Integer.numberOfTrailingZeros(pions);
+            for (int cases = Position.masqueVoisines(origine) & libres; cases != 0; cases &= cases - 1) {
+                tampon[nb++] = deplacement(origine, Integer.numberOfTrailingZeros(cases));
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Vérifie la légalité d'un coup pour le joueur qui a le trait, sans lever d'exception.
+     */
+    public static boolean estLegal(int etat, int coup) {
+        if (coup < 0 || coup > 0xFF || PlateauCompact.estTerminee(etat)) {
+            return false;
+        }
+        int destination = destination(coup);
+        if (destination >= PlateauCompact.NB_CASES || !PlateauCompact.estLibre(etat, destination)) {
+            return false;
+        }
+        if (estPlacement(coup)) {
+            return !PlateauCompact.estEnDeplacement(etat);
+        }
+        int origine = coup >>> 4;
+        return PlateauCompact.estEnDeplacement(etat)
+            && origine < PlateauCompact.NB_CASES
+            && PlateauCompact.proprietaire(etat, origine) == PlateauCompact.trait(etat)
+            && (Position.masqueVoisines(origine) & (1 << destination)) != 0;
+    }
+
+    /**
+     * Joue un coup supposé légal et retourne l'état suivant, selon les mêmes règles que JeuAraignee :
+     * si le coup aligne 3 pions, l'état est figé (trait et phase inchangés) ; sinon la phase passe
+     * en DEPLACEMENT une fois les 6 pions posés et le trait passe à l'adversaire.
+     */
+    public static int appliquer(int etat, int coup) {
+        int joueur = PlateauCompact.trait(etat);
+        int destination = destination(coup);
+        int suivant = estPlacement(coup)
+            ? PlateauCompact.placer(etat, joueur, destination)
+            : PlateauCompact.deplacer(etat, joueur, coup >>> 4, destination);
+        if (VictoireChecker.aAligneApres(PlateauCompact.masque(suivant, joueur), destination)) {
+            return suivant;
+        }
+        if (Integer.bitCount(PlateauCompact.occupation(suivant)) == 2 * NB_PIONS_PAR_JOUEUR) {
+            suivant |= PlateauCompact.BIT_PHASE;
+        }
+        return PlateauCompact.changerTrait(suivant);
+    }
+
+    public static String toString(int coup) {
+        int destination = destination(coup);
+        if (estPlacement(coup)) {
+            return "placement(" + destination / 3 + ", " + destination % 3 + ")";
+        }
+        int origine = coup >>> 4;
+        return "deplacement(" + origine / 3 + ", " + origine % 3 + " -> " + destination / 3 + ", " + destination % 3 + ")";
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Reçoit les changements fins d'une partie JeuAraignee : une case, le trait ou la phase.
+ * Chaque méthode est appelée dans le thread qui joue, juste après la modification ;
+ * les méthodes ont une implémentation vide, un écouteur ne redéfinit que ce qui l'intéresse.
+ */
+public interface EcouteurPlateau {
+
+    /**
+     * @param indexCase l'index de la case modifiée (voir Position)
+     * @param proprietaire 0 ou 1 selon le joueur qui occupe désormais la case, -1 si elle est libre
+     */
+    default void caseModifiee(int indexCase, int proprietaire) {
+    }
+
+    /**
+     * @param joueur 0 ou 1, le joueur qui a désormais le trait
+     */
+    default void traitModifie(int joueur) {
+    }
+
+    default void phaseModifiee(Phase phase) {
+    }
+}
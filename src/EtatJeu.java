@@ -0,0 +1,237 @@
+/**
+ * État immuable d'une partie du jeu de l'Araignée : la position compacte (voir PlateauCompact),
+ * le dernier coup joué, le nombre de coups, l'issue et la limite de coups, plus le lien vers l'état précédent.
+ *
+ * Chaque transition retourne un nouvel état qui partage tout son historique avec l'ancien :
+ * brancher une variante coûte une seule allocation, sans copier de Plateau, Joueur ni Pion.
+ * Un état peut être partagé librement entre threads. Les règles de nulle sont celles de ReglesNulle,
+ * comme pour JeuAraignee ; la fenêtre de répétition est recopiée de l'historique dans un tampon par thread.
+ *
+ * Tout état remonte à la position initiale par des coups légaux, avec l'issue que donnent les règles.
+ * jouer le garantit par construction ; creer, pour un état assemblé ailleurs, le vérifie. L'égalité et le hash
+ * ne portent que sur la position, le nombre de coups, l'issue et la limite : l'historique n'y entre pas.
+ */
+public final class EtatJeu {
+
+    public static final int LIMITE_COUPS_PAR_DEFAUT = ReglesNulle.LIMITE_COUPS_PAR_DEFAUT;
+
+    private static final int[] AUCUN_ETAT = new int[0];
+    /** Fenêtre de répétition de chaque thread, remplie depuis l'historique à chaque coup de déplacement. */
+    private static final ThreadLocal<int[]> FENETRE_DU_THREAD =
+        ThreadLocal.withInitial(() -> new int[ReglesNulle.FENETRE_REPETITION]);
+
+    public static final EtatJeu INITIAL = initial(LIMITE_COUPS_PAR_DEFAUT);
+
+    private final int etat;
+    private final int dernierCoup;
+    private final int nbCoupsJoues;
+    private final Issue issue;
+    private final int limiteCoups;
+    private final EtatJeu precedent;
+
+    /**
+     * Sans vérification : réservé à initial et jouer, qui appliquent les règles, et à creer, qui les vérifie.
+     */
+    private EtatJeu(int etat, int dernierCoup, int nbCoupsJoues, Issue issue, int limiteCoups, EtatJeu precedent) {
+        this.etat = etat;
+        this.dernierCoup = dernierCoup;
+        this.nbCoupsJoues = nbCoupsJoues;
+        this.issue = issue;
+        this.limiteCoups = limiteCoups;
+        this.precedent = precedent;
+    }
+
+    /**
+     * Assemble un état à partir de ses composants, par exemple pour le relire d'une sauvegarde.
+     *
+     * @throws IllegalArgumentException si l'état n'est ni la position initiale, ni le résultat d'un coup légal
+     *         joué depuis son précédent (même limite, un coup de plus), ou si son issue n'est pas celle des règles
+     */
+    public static EtatJeu creer(int etat, int dernierCoup, int nbCoupsJoues, Issue issue, int limiteCoups,
+                                EtatJeu precedent) {
+        if (issue == null) {
+            throw new IllegalArgumentException("L'issue ne peut pas être null");
+        }
+        ReglesNulle.verifierLimite(limiteCoups);
+        if (precedent == null) {
+            if (etat != PlateauCompact.ETAT_INITIAL || dernierCoup != Coup.AUCUN || nbCoupsJoues != 0
+                    || issue != Issue.EN_COURS) {
+                throw new IllegalArgumentException("Un état sans précédent doit être la position initiale");
+            }
+        } else {
+            if (precedent.estTerminee()) {
+                throw new IllegalArgumentException("L'état précédent termine la partie");
+            }
+            if (limiteCoups != precedent.limiteCoups || nbCoupsJoues != precedent.nbCoupsJoues + 1) {
+                throw new IllegalArgumentException("L'état ne prolonge pas son précédent d'un coup");
+            }
+            if (!Coup.estLegal(precedent.etat, dernierCoup) || etat != Coup.appliquer(precedent.etat, dernierCoup)) {
+                throw new IllegalArgumentException("La position ne résulte pas du coup " + Coup.toString(dernierCoup));
+            }
+            if (issue != precedent.issueApres(etat)) {
+                throw new IllegalArgumentException("Issue " + issue + " contraire aux règles");
+            }
+        }
+        return new EtatJeu(etat, dernierCoup, nbCoupsJoues, issue, limiteCoups, precedent);
+    }
+
+    /**
+     * @return la position initiale d'une partie déclarée nulle à partir de limiteCoups coups
+     * @throws IllegalArgumentException si la limite n'est pas strictement positive
+     */
+    public static EtatJeu initial(int limiteCoups) {
+        ReglesNulle.verifierLimite(limiteCoups);
+        return new EtatJeu(PlateauCompact.ETAT_INITIAL, Coup.AUCUN, 0, Issue.EN_COURS, limiteCoups, null);
+    }
+
+    public int etat() {
+        return etat;
+    }
+
+    /**
+     * @return le dernier coup joué, Coup.AUCUN pour la position initiale
+     */
+    public int dernierCoup() {
+        return dernierCoup;
+    }
+
+    public int nbCoupsJoues() {
+        return nbCoupsJoues;
+    }
+
+    public Issue issue() {
+        return issue;
+    }
+
+    public int limiteCoups() {
+        return limiteCoups;
+    }
+
+    /**
+     * @return l'état avant le dernier coup, null pour la position initiale
+     */
+    public EtatJeu precedent() {
+        return precedent;
+    }
+
+    public int trait() {
+        return PlateauCompact.trait(etat);
+    }
+
+    public Phase phase() {
+        return PlateauCompact.phase(etat);
+    }
+
+    public boolean estTerminee() {
+        return issue != Issue.EN_COURS;
+    }
+
+    /**
+     * @return 0 ou 1 selon le joueur qui occupe la case, -1 si elle est libre
+     */
+    public int proprietaire(Position position) {
+        return PlateauCompact.proprietaire(etat, position.getIndex());
+    }
+
+    /**
+     * Remplit le tampon avec les coups légaux du joueur qui a le trait, codés selon Coup.
+     *
+     * @return le nombre de coups écrits (0 si la partie est terminée)
+     */
+    public int genererCoups(int[] tampon) {
+        if (estTerminee()) {
+            return 0;
+        }
+        return Coup.generer(etat, tampon);
+    }
+
+    public boolean estLegal(int coup) {
+        return !estTerminee() && Coup.estLegal(etat, coup);
+    }
+
+    /**
+     * Joue un coup codé selon Coup.
+     *
+     * @return le nouvel état ; celui-ci est inchangé
+     * @throws IllegalArgumentException si la partie est terminée ou si le coup est illégal
+     */
+    public EtatJeu jouer(int coup) {
+        if (estTerminee()) {
+            throw new IllegalArgumentException("La partie est terminée");
+        }
+        if (!Coup.estLegal(etat, coup)) {
+            throw new IllegalArgumentException("Coup illégal : " + Coup.toString(coup));
+        }
+        int suivant = Coup.appliquer(etat, coup);
+        return new EtatJeu(suivant, coup, nbCoupsJoues + 1, issueApres(suivant), limiteCoups, this);
+    }
+
+    public EtatJeu placer(Position position) {
+        return jouer(Coup.placement(position.getIndex()));
+    }
+
+    public EtatJeu deplacer(Position origine, Position destination) {
+        return jouer(Coup.deplacement(origine.getIndex(), destination.getIndex()));
+    }
+
+    /**
+     * @return l'état avant le dernier coup
+     * @throws IllegalStateException si aucun coup n'a été joué
+     */
+    public EtatJeu annuler() {
+        if (precedent == null) {
+            throw new IllegalStateException("Aucun coup à annuler");
+        }
+        return precedent;
+    }
+
+    /**
+     * Issue de la position suivante, atteinte depuis cet état par un coup de plus.
+     * La fenêtre de répétition n'est recopiée de l'historique qu'en phase de déplacement, et seulement
+     * si le coup ne termine pas déjà la partie.
+     */
+    private Issue issueApres(int suivant) {
+        int nbCoups = nbCoupsJoues + 1;
+        if (PlateauCompact.estTerminee(suivant) || !PlateauCompact.estEnDeplacement(suivant)
+                || nbCoups >= limiteCoups) {
+            return ReglesNulle.issue(suivant, nbCoups, limiteCoups, AUCUN_ETAT, nbCoups);
+        }
+        int premierRang = Math.max(0, nbCoups - ReglesNulle.FENETRE_REPETITION);
+        int[] etatsAvantCoup = FENETRE_DU_THREAD.get();
+        // L'état qui compte k coups est celui d'avant le coup de rang k
+        for (EtatJeu e = this; e != null && e.nbCoupsJoues >= premierRang; e = e.precedent) {
+            etatsAvantCoup[e.nbCoupsJoues - premierRang] = e.etat;
+        }
+        return ReglesNulle.issue(suivant, nbCoups, limiteCoups, etatsAvantCoup, premierRang);
+    }
+
+    /**
+     * Hash de la position invariant par symétrie (voir Symetries).
+     */
+    public long hashCanonique() {
+        return Symetries.hashCanonique(etat);
+    }
+
+    @Override
+    public boolean equals(Object autre) {
+        if (this == autre) {
+            return true;
+        }
+        if (!(autre instanceof EtatJeu)) {
+            return false;
+        }
+        EtatJeu etatJeu = (EtatJeu) autre;
+        return etat == etatJeu.etat && nbCoupsJoues == etatJeu.nbCoupsJoues && issue == etatJeu.issue
+            && limiteCoups == etatJeu.limiteCoups;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((etat * 31 + nbCoupsJoues) * 31 + issue.ordinal()) * 31 + limiteCoups;
+    }
+
+    @Override
+    public String toString() {
+        return PlateauCompact.toString(etat) + " coups=" + nbCoupsJoues + " " + issue;
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de latences à précision relative bornée, dans l'esprit de HdrHistogram :
+ * chaque puissance de 2 est découpée en 16 sous-intervalles, soit une erreur relative inférieure à 6,25 %
+ * sur toute la plage des long. Taille fixe (moins de 8 Ko), enregistrement en temps constant,
+ * sans verrou ni allocation, utilisable par plusieurs threads à la fois.
+ */
+public final class HistogrammeLatence {
+
+    private static final int BITS_SOUS_INTERVALLES = 4;
+    private static final int NB_SOUS_INTERVALLES = 1 << BITS_SOUS_INTERVALLES;
+    private static final int NB_INTERVALLES = (64 - BITS_SOUS_INTERVALLES + 1) * NB_SOUS_INTERVALLES;
+
+    private final AtomicLongArray compteurs = new AtomicLongArray(NB_INTERVALLES);
+
+    /**
+     * @param valeur une durée en nanosecondes (les valeurs négatives comptent pour 0)
+     */
+    public void enregistrer(long valeur) {
+        compteurs.incrementAndGet(intervalle(Math.max(0, valeur)));
+    }
+
+    /**
+     * Les valeurs sous 16 ont chacune leur intervalle ; au-delà, l'intervalle est repéré par la position
+     * du bit de poids fort et les 4 bits qui le suivent.
+     */
+    private static int intervalle(long valeur) {
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur | 1);
+        if (exposant < BITS_SOUS_INTERVALLES) {
+            return (int) valeur;
+        }
+        int decalage = exposant - BITS_SOUS_INTERVALLES;
+        int sousIntervalle = (int) (valeur >>> decalage) & (NB_SOUS_INTERVALLES - 1);
+        return (decalage + 1) * NB_SOUS_INTERVALLES + sousIntervalle;
+    }
+
+    /**
+     * @return la plus grande valeur de l'intervalle
+     */
+    private static long borneSuperieure(int intervalle) {
+        if (intervalle < NB_SOUS_INTERVALLES) {
+            return intervalle;
+        }
+        int decalage = intervalle / NB_SOUS_INTERVALLES - 1;
+        long debut = (long) (NB_SOUS_INTERVALLES + intervalle % NB_SOUS_INTERVALLES) << decalage;
+        return debut + (1L << decalage) - 1;
+    }
+
+    public long getNbValeurs() {
+        long total = 0;
+        for (int i = 0; i < NB_INTERVALLES; i++) {
+            total += compteurs.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param quantile entre 0 et 1 (0.99 pour le 99e centile)
+     * @return une borne supérieure de la valeur au quantile demandé, 0 si l'histogramme est vide
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Le quantile doit être entre 0 et 1 : " + quantile);
+        }
+        long[] copie = new long[NB_INTERVALLES];
+        long total = 0;
+        for (int i = 0; i < NB_INTERVALLES; i++) {
+            copie[i] = compteurs.get(i);
+            total += copie[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumul = 0;
+        for (int i = 0; i < NB_INTERVALLES; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return borneSuperieure(i);
+            }
+        }
+        return borneSuperieure(NB_INTERVALLES - 1);
+    }
+
+    public void reinitialiser() {
+        for (int i = 0; i < NB_INTERVALLES; i++) {
+            compteurs.set(i, 0);
+        }
+    }
+}
@@ -1,28 +1,121 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Interface graphique du jeu de l'Araignée.
  * Gère l'affichage et les interactions utilisateur (clics sur les cases).
  * Délègue toute la logique métier à JeuAraignee.
+ *
+ * La grille (voir VueGrille) et le bandeau du tour sont abonnés à la partie en cours :
+ * un coup ne redessine que les cases qu'il modifie. La case « Indices » teinte les coups jouables
+ * du joueur humain, analysés à chaque clic par JeuAraignee.analyserCoups.
+ *
+ * Si la propriété système araignee.journal désigne un fichier, les parties y sont journalisées
+ * (voir JournalPartie) et la partie interrompue est reprise au lancement suivant.
  */
 public class InterfaceUtilisateur extends JFrame {
     
-    private JButton[][] boutonsCases;
+    private static final long DUREE_RECHERCHE_MS = 20;
+    private static final String PROPRIETE_JOURNAL = "araignee.journal";
+    
+    private static final Color[] COULEURS_JOUEURS = { Color.RED, Color.BLUE };
+    
+    private VueGrille vueGrille;
     private JTextField champNomRouge;
     private JTextField champNomBleu;
+    private JCheckBox caseOrdinateurRouge;
+    private JCheckBox caseOrdinateurBleu;
+    private JCheckBox caseIndices;
     private JLabel labelTour;
     private JeuAraignee jeu;
     private Position positionSelectionnee;
+    private final AnalyseCoups analyse = new AnalyseCoups();
+    private final MoteurRecherche moteur = new MoteurRecherche(DUREE_RECHERCHE_MS);
+    private final TachesArrierePlan tachesArrierePlan = new TachesArrierePlan();
+    private final JournalPartie journal = ouvrirJournal();
+    private final EcouteurPlateau ecouteurTour = new EcouteurPlateau() {
+        @Override
+        public void traitModifie(int joueur) {
+            rafraichirLabelTour();
+        }
+        
+        @Override
+        public void phaseModifiee(Phase phase) {
+            rafraichirLabelTour();
+        }
+    };
     
     public InterfaceUtilisateur() {
         creerInterface();
-        demarrerNouvellePartie();
+        if (journal != null && journal.aPartieEnCours()) {
+            reprendrePartieJournalisee();
+        } else {
+            demarrerNouvellePartie();
+        }
+    }
+    
+    private static JournalPartie ouvrirJournal() {
+        String chemin = System.getProperty(PROPRIETE_JOURNAL);
+        if (chemin == null) {
+            return null;
+        }
+        try {
+            return JournalPartie.ouvrir(Paths.get(chemin));
+        } catch (IOException e) {
+            System.err.println("Journal désactivé : " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void reprendrePartieJournalisee() {
+        try {
+            suivrePartie(journal.reprendrePartie(champNomRouge.getText().trim(), champNomBleu.getText().trim()));
+        } catch (IOException e) {
+            afficherErreur("Impossible de reprendre la partie : " + e.getMessage());
+            demarrerNouvellePartie();
+        }
+    }
+    
+    /**
+     * Remplace la partie affichée : les écouteurs passent de l'ancienne à la nouvelle,
+     * et seules les cases qui diffèrent sont redessinées.
+     */
+    private void suivrePartie(JeuAraignee nouvellePartie) {
+        if (jeu != null) {
+            jeu.retirerEcouteur(vueGrille);
+            jeu.retirerEcouteur(ecouteurTour);
+        }
+        jeu = nouvellePartie;
+        jeu.ajouterEcouteur(vueGrille);
+        jeu.ajouterEcouteur(ecouteurTour);
+        vueGrille.afficher(jeu.getEtatCompact());
+        rafraichirLabelTour();
+        rafraichirIndices();
+    }
+    
+    private void fermerJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Fermeture du journal : " + e.getMessage());
+        }
     }
     
     private void creerInterface() {
         setTitle("Jeu de l'Araignée");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        if (journal != null) {
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    fermerJournal();
+                }
+            });
+        }
         setLayout(new BorderLayout(10, 10));
         
         add(creerPanneauNoms(), BorderLayout.NORTH);
@@ -47,12 +140,16 @@ public class InterfaceUtilisateur extends JFrame {
         zoneRouge.add(new JLabel("Joueur Rouge:"));
         champNomRouge = new JTextField("Joueur 1", 10);
         zoneRouge.add(champNomRouge);
+        caseOrdinateurRouge = creerCaseOrdinateur();
+        zoneRouge.add(caseOrdinateurRouge);
         
         JPanel zoneBleu = new JPanel(new FlowLayout());
         zoneBleu.setBackground(new Color(200, 230, 255));
         zoneBleu.add(new JLabel("Joueur Bleu:"));
         champNomBleu = new JTextField("Joueur 2", 10);
         zoneBleu.add(champNomBleu);
+        caseOrdinateurBleu = creerCaseOrdinateur();
+        zoneBleu.add(caseOrdinateurBleu);
         
         panneau.add(zoneRouge);
         panneau.add(zoneBleu);
@@ -60,6 +157,13 @@ public class InterfaceUtilisateur extends JFrame {
         return panneau;
     }
     
+    private JCheckBox creerCaseOrdinateur() {
+        JCheckBox caseOrdinateur = new JCheckBox("Ordinateur");
+        caseOrdinateur.setOpaque(false);
+        caseOrdinateur.addActionListener(e -> programmerCoupOrdinateur());
+        return caseOrdinateur;
+    }
+    
     private JLabel creerLabelTour() {
         labelTour = new JLabel("", SwingConstants.CENTER);
         labelTour.setFont(new Font("Arial", Font.BOLD, 16));
@@ -69,29 +173,9 @@ public class InterfaceUtilisateur extends JFrame {
     }
     
     private JPanel creerGrille() {
-        JPanel panneauGrille = new JPanel(new GridLayout(3, 3, 5, 5));
-        panneauGrille.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        
-        boutonsCases = new JButton[3][3];
-        
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                JButton bouton = new JButton();
-                bouton.setPreferredSize(new Dimension(120, 120));
-                bouton.setFont(new Font("Arial", Font.BOLD, 60));
-                bouton.setBackground(Color.WHITE);
-                bouton.setFocusPainted(false);
-                
-                final int x = i;
-                final int y = j;
-                
-                bouton.addActionListener(e -> gererClicCase(x, y));
-                
-                boutonsCases[i][j] = bouton;
-                panneauGrille.add(bouton);
-            }
-        }
-        
+        JPanel panneauGrille = new JPanel(new BorderLayout());
+        vueGrille = new VueGrille(this::gererClicCase);
+        panneauGrille.add(vueGrille, BorderLayout.CENTER);
         return panneauGrille;
     }
     
@@ -102,12 +186,19 @@ public class InterfaceUtilisateur extends JFrame {
         boutonRecommencer.setFont(new Font("Arial", Font.BOLD, 16));
         boutonRecommencer.addActionListener(e -> recommencer());
         
+        caseIndices = new JCheckBox("Indices");
+        caseIndices.addActionListener(e -> rafraichirIndices());
+        
         panneau.add(boutonRecommencer);
+        panneau.add(caseIndices);
         return panneau;
     }
     
-    private void gererClicCase(int x, int y) {
-        Position position = new Position(x, y);
+    private void gererClicCase(int indexCase) {
+        if (estTourOrdinateur() || tachesArrierePlan.estOccupe()) {
+            return;
+        }
+        Position position = Position.of(indexCase);
         
         try {
             if (jeu.getPhaseActuelle() == Phase.PLACEMENT) {
@@ -121,11 +212,13 @@ public class InterfaceUtilisateur extends JFrame {
     }
     
     private void gererClicPlacement(Position position) {
-        boolean victoire = jeu.placerPion(position);
-        rafraichirAffichage();
+        jeu.placerPion(position);
+        rafraichirIndices();
         
-        if (victoire) {
-            afficherVictoire();
+        if (jeu.estPartieTerminee()) {
+            afficherFinPartie();
+        } else {
+            programmerCoupOrdinateur();
         }
     }
     
@@ -137,35 +230,33 @@ public class InterfaceUtilisateur extends JFrame {
     private void gererClicDeplacement(Position position) {
         Pion pionClique = jeu.getPlateau().obtenirPion(position);
         
-        if (pionClique != null && pionClique.appartientA(jeu.getJoueurActuel())) {
+        if (pionClique != null && pionClique.appartientA(jeu.getTrait())) {
             if (position.equals(positionSelectionnee)) {
                 // Désélection : clic sur le pion déjà sélectionné
-                surlignerCase(position.getX(), position.getY(), Color.WHITE);
                 positionSelectionnee = null;
-            } else if (positionSelectionnee != null) {
-                // Changement de sélection : passer d'un pion à un autre
-                surlignerCase(positionSelectionnee.getX(), positionSelectionnee.getY(), Color.WHITE);
-                positionSelectionnee = position;
-                surlignerCase(position.getX(), position.getY(), Color.YELLOW);
+                vueGrille.selectionner(-1);
             } else {
-                // Première sélection
+                // Première sélection, ou passage d'un pion à un autre
                 positionSelectionnee = position;
-                surlignerCase(position.getX(), position.getY(), Color.YELLOW);
+                vueGrille.selectionner(position.getIndex());
             }
+            rafraichirIndices();
         } else {
             // Tentative de déplacement vers case vide ou pion adverse
             if (positionSelectionnee == null) {
                 afficherErreur("Sélectionnez d'abord un de vos pions.");
             } else {
                 try {
-                    boolean victoire = jeu.deplacerPion(positionSelectionnee, position);
+                    jeu.deplacerPion(positionSelectionnee, position);
                     
-                    surlignerCase(positionSelectionnee.getX(), positionSelectionnee.getY(), Color.WHITE);
                     positionSelectionnee = null;
-                    rafraichirAffichage();
+                    vueGrille.selectionner(-1);
+                    rafraichirIndices();
                     
-                    if (victoire) {
-                        afficherVictoire();
+                    if (jeu.estPartieTerminee()) {
+                        afficherFinPartie();
+                    } else {
+                        programmerCoupOrdinateur();
                     }
                 } catch (IllegalArgumentException e) {
                     afficherErreur(e.getMessage());
@@ -175,16 +266,12 @@ public class InterfaceUtilisateur extends JFrame {
     }
     
     private void recommencer() {
+        tachesArrierePlan.annulerTout();
         positionSelectionnee = null;
-        
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                boutonsCases[i][j].setBackground(Color.WHITE);
-            }
-        }
+        vueGrille.selectionner(-1);
         
         demarrerNouvellePartie();
-        rafraichirAffichage();
+        programmerCoupOrdinateur();
     }
     
     private void demarrerNouvellePartie() {
@@ -194,36 +281,81 @@ public class InterfaceUtilisateur extends JFrame {
         if (nomRouge.isEmpty()) nomRouge = "Joueur 1";
         if (nomBleu.isEmpty()) nomBleu = "Joueur 2";
         
-        jeu = new JeuAraignee(nomRouge, nomBleu);
+        JeuAraignee nouvellePartie = new JeuAraignee(nomRouge, nomBleu);
+        if (journal != null) {
+            journal.terminerPartie();
+            nouvellePartie.setJournal(journal);
+        }
+        suivrePartie(nouvellePartie);
     }
     
-    private void rafraichirAffichage() {
-        rafraichirGrille();
-        rafraichirLabelTour();
+    private boolean estTourOrdinateur() {
+        if (jeu == null || jeu.estPartieTerminee()) {
+            return false;
+        }
+        return jeu.getTrait() == Joueur.ID_ROUGE ? caseOrdinateurRouge.isSelected() : caseOrdinateurBleu.isSelected();
     }
     
-    private void rafraichirGrille() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                Position pos = new Position(i, j);
-                Pion pion = jeu.getPlateau().obtenirPion(pos);
-                
-                if (pion == null) {
-                    boutonsCases[i][j].setText("");
-                    boutonsCases[i][j].setBackground(Color.WHITE);
-                    boutonsCases[i][j].setForeground(Color.BLACK);
-                } else {
-                    boutonsCases[i][j].setText("●");
-                    boutonsCases[i][j].setForeground(
-                        pion.getProprietaire().getCouleur().equalsIgnoreCase("Rouge") 
-                            ? Color.RED 
-                            : Color.BLUE
-                    );
-                }
-            }
+    /**
+     * Si c'est au tour d'un joueur contrôlé par l'ordinateur, lance sa recherche en arrière-plan.
+     * Le coup est joué sur l'EDT une fois trouvé, ce qui enchaîne aussi les parties ordinateur contre ordinateur.
+     * Le moteur n'est utilisé que par le thread de TachesArrierePlan.
+     */
+    private void programmerCoupOrdinateur() {
+        if (!estTourOrdinateur() || tachesArrierePlan.estOccupe()) {
+            rafraichirIndices();
+            return;
+        }
+        if (positionSelectionnee != null) {
+            positionSelectionnee = null;
+            vueGrille.selectionner(-1);
+        }
+        rafraichirIndices();
+        JeuAraignee jeuCible = jeu;
+        int etat = jeu.getEtatCompact();
+        tachesArrierePlan.soumettre(
+            () -> moteur.chercherCoup(etat),
+            coup -> jouerCoupOrdinateur(jeuCible, etat, coup),
+            e -> afficherErreur("La recherche de l'ordinateur a échoué : " + e));
+    }
+    
+    private void jouerCoupOrdinateur(JeuAraignee jeuCible, int etat, int coup) {
+        // La partie a pu changer pendant la recherche (nouvelle partie, case décochée)
+        if (jeuCible != jeu || jeu.getEtatCompact() != etat || !estTourOrdinateur()) {
+            programmerCoupOrdinateur();
+            return;
+        }
+        if (coup == Coup.AUCUN || !jeu.jouerCoup(coup)) {
+            return;
+        }
+        rafraichirIndices();
+        
+        if (jeu.estPartieTerminee()) {
+            afficherFinPartie();
+        } else {
+            programmerCoupOrdinateur();
         }
     }
     
+    /**
+     * Teinte les coups jouables du joueur humain : les placements, les déplacements du pion sélectionné,
+     * ou à défaut les pions qui peuvent bouger. Rien n'est affiché pendant le tour de l'ordinateur.
+     */
+    private void rafraichirIndices() {
+        if (!caseIndices.isSelected() || jeu.estPartieTerminee() || estTourOrdinateur()) {
+            vueGrille.afficherIndices(0, 0, 0);
+            return;
+        }
+        jeu.analyserCoups(analyse, null);
+        if (jeu.getPhaseActuelle() == Phase.DEPLACEMENT && positionSelectionnee == null) {
+            vueGrille.afficherIndices(analyse.masqueOrigines(), analyse.masqueOriginesGagnantes(), 0);
+            return;
+        }
+        int origine = positionSelectionnee == null ? -1 : positionSelectionnee.getIndex();
+        vueGrille.afficherIndices(analyse.masqueDestinations(origine),
+            analyse.masqueDestinationsGagnantes(origine), analyse.masqueDestinationsRisquees(origine));
+    }
+    
     private void rafraichirLabelTour() {
         Joueur joueurActuel = jeu.getJoueurActuel();
         Phase phase = jeu.getPhaseActuelle();
@@ -238,24 +370,20 @@ public class InterfaceUtilisateur extends JFrame {
         }
         
         labelTour.setText(message);
-        labelTour.setForeground(
-            joueurActuel.getCouleur().equalsIgnoreCase("Rouge") 
-                ? Color.RED 
-                : Color.BLUE
-        );
-    }
-    
-    private void surlignerCase(int x, int y, Color couleur) {
-        boutonsCases[x][y].setBackground(couleur);
+        labelTour.setForeground(COULEURS_JOUEURS[jeu.getTrait()]);
     }
     
     private void afficherErreur(String message) {
         JOptionPane.showMessageDialog(this, message, "Erreur", JOptionPane.ERROR_MESSAGE);
     }
     
-    private void afficherVictoire() {
-        Joueur gagnant = jeu.getJoueurActuel();
-        String message = String.format("Victoire de %s !", gagnant.getNom());
+    private void afficherFinPartie() {
+        String message;
+        if (jeu.getIssue() == Issue.NUL) {
+            message = "Match nul : position répétée trois fois, limite de coups atteinte ou joueur bloqué.";
+        } else {
+            message = String.format("Victoire de %s !", jeu.getJoueurActuel().getNom());
+        }
         
         JOptionPane.showMessageDialog(this, message, "Partie terminée", JOptionPane.INFORMATION_MESSAGE);
         
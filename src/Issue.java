@@ -0,0 +1,8 @@
+/**
+ * Issue d'une partie de JeuAraignee.
+ * NUL est déclaré sur triple répétition de position en phase de déplacement, à la limite de coups,
+ * ou quand le joueur qui a le trait est bloqué (aucun déplacement possible).
+ */
+public enum Issue {
+    EN_COURS, VICTOIRE, NUL
+}
@@ -1,31 +1,70 @@
+import java.util.Arrays;
+
 /**
  * Gère la logique du jeu de l'Araignée.
  * Responsable des règles, de la validation des coups, et de la détection de victoire.
  * Le jeu se déroule en deux phases : PLACEMENT puis DEPLACEMENT.
+ * La partie est déclarée nulle si une position se répète trois fois en phase de déplacement,
+ * si la limite de coups est atteinte, ou si le joueur qui a le trait ne peut plus bouger (voir Issue) :
+ * toute partie se termine. Ces règles de nulle sont celles de ReglesNulle, partagées avec EtatJeu.
+ *
+ * EtatJeu est la version immuable de l'état de partie ; JeuAraignee y ajoute les objets Plateau, Joueur
+ * et Pion attendus par l'interface, l'annulation et le journal. getEtat et depuis font le lien entre
+ * les deux représentations.
+ *
+ * Une partie se réutilise par reinitialiser() : une fois les tableaux d'historique à leur taille,
+ * jouer, vérifier la victoire et recommencer n'allouent plus rien (en passant par jouerCoup,
+ * un coup illégal est refusé sans exception).
+ *
+ * Les écouteurs (voir EcouteurPlateau) sont prévenus de chaque case, trait ou phase modifié,
+ * ce qui permet à une vue de ne redessiner que ce qui a changé.
  */
 public class JeuAraignee {
     
+    public static final int LIMITE_COUPS_PAR_DEFAUT = ReglesNulle.LIMITE_COUPS_PAR_DEFAUT;
+    
+    private static final int TAILLE_INITIALE_HISTORIQUE = 32;
+    private static final EcouteurPlateau[] AUCUN_ECOUTEUR = new EcouteurPlateau[0];
+    
     private final Plateau plateau;
-    private final Joueur joueur1;
-    private final Joueur joueur2;
-    private final VictoireChecker victoireChecker;
+    /** Les deux joueurs, indexés par leur identifiant (voir Joueur.getId). */
+    private final Joueur[] joueurs;
     
     private Joueur joueurActuel;
     private Phase phaseActuelle;
-    private boolean partieTerminee;
+    private Issue issue;
+    private int limiteCoups;
+    
+    private int[] historiqueCoups;
+    private int[] historiqueEtats;
+    private int nbCoupsJoues;
+    private int nbCoupsAnnules;
+    
+    /** Dernier état immuable construit par getEtat, et nombre de ses coups encore communs avec la partie. */
+    private EtatJeu instantane;
+    private int nbCoupsInstantane;
+    
+    private JournalPartie journal;
+    private EcouteurPlateau[] ecouteurs = AUCUN_ECOUTEUR;
     
     public JeuAraignee(String nomJoueur1, String nomJoueur2) {
+        this.joueurs = new Joueur[] {
+            new Joueur(nomJoueur1, "Rouge", Joueur.ID_ROUGE),
+            new Joueur(nomJoueur2, "Bleu", Joueur.ID_BLEU)
+        };
         this.plateau = new Plateau();
-        this.joueur1 = new Joueur(nomJoueur1, "Rouge");
-        this.joueur2 = new Joueur(nomJoueur2, "Bleu");
-        this.victoireChecker = new VictoireChecker();
         
-        creerPionsPourJoueur(joueur1);
-        creerPionsPourJoueur(joueur2);
+        for (Joueur joueur : joueurs) {
+            creerPionsPourJoueur(joueur);
+        }
         
-        this.joueurActuel = joueur1;
+        this.joueurActuel = joueurs[Joueur.ID_ROUGE];
         this.phaseActuelle = Phase.PLACEMENT;
-        this.partieTerminee = false;
+        this.issue = Issue.EN_COURS;
+        this.limiteCoups = LIMITE_COUPS_PAR_DEFAUT;
+        this.historiqueCoups = new int[TAILLE_INITIALE_HISTORIQUE];
+        this.historiqueEtats = new int[TAILLE_INITIALE_HISTORIQUE];
+        this.nbCoupsJoues = 0;
     }
     
     private void creerPionsPourJoueur(Joueur joueur) {
@@ -34,6 +73,38 @@ public class JeuAraignee {
         }
     }
     
+    /**
+     * Remet la partie à la position initiale en conservant ses objets (plateau, joueurs, pions, historique),
+     * pour la réutiliser sans allocation. La limite de coups, le journal et les écouteurs sont conservés :
+     * la partie en cours est close dans le journal, et les écouteurs sont prévenus des cases vidées.
+     */
+    public void reinitialiser() {
+        for (int cases = PlateauCompact.occupation(plateau.getEtatCompact()); cases != 0; cases &= cases - 1) {
+            int indexCase = Integer.numberOfTrailingZeros(cases);
+            plateau.retirerPion(Position.of(indexCase));
+            notifierCase(indexCase);
+        }
+        for (Joueur joueur : joueurs) {
+            joueur.reinitialiserPionsPlaces();
+        }
+        issue = Issue.EN_COURS;
+        nbCoupsJoues = 0;
+        nbCoupsAnnules = 0;
+        instantane = null;
+        nbCoupsInstantane = 0;
+        if (phaseActuelle != Phase.PLACEMENT) {
+            phaseActuelle = Phase.PLACEMENT;
+            notifierPhase();
+        }
+        if (joueurActuel.getId() != Joueur.ID_ROUGE) {
+            joueurActuel = joueurs[Joueur.ID_ROUGE];
+            notifierTrait();
+        }
+        if (journal != null) {
+            journal.terminerPartie();
+        }
+    }
+    
     /**
      * Place un pion du joueur actuel sur le plateau durant la phase de placement.
      * Change automatiquement de joueur après le placement.
@@ -46,19 +117,31 @@ public class JeuAraignee {
      */
     public boolean placerPion(Position position) {
         validerCoupPlacement(position);
+        boolean victoire = appliquerPlacement(position);
+        noterNouveauCoup();
+        return victoire;
+    }
+    
+    private boolean appliquerPlacement(Position position) {
+        long debut = Metriques.debutCoup();
+        memoriserCoup(Coup.placement(position.getIndex()));
         
         Pion pionAplacer = joueurActuel.getPions().get(joueurActuel.getNbPionsPlaces());
         plateau.placerPion(pionAplacer, position);
         joueurActuel.incrementerPionsPlaces();
+        notifierCase(position.getIndex());
         
-        if (victoireChecker.aGagne(plateau, joueurActuel)) {
-            partieTerminee = true;
+        if (aGagneApres(position)) {
+            issue = Issue.VICTOIRE;
+            mesurerCoup(debut, true);
             return true;
         }
         
         verifierChangementPhase();
         changerJoueur();
+        verifierNul();
         
+        mesurerCoup(debut, false);
         return false;
     }
     
@@ -76,82 +159,432 @@ public class JeuAraignee {
      */
     public boolean deplacerPion(Position origine, Position destination) {
         validerCoupDeplacement(origine, destination);
+        boolean victoire = appliquerDeplacement(origine, destination);
+        noterNouveauCoup();
+        return victoire;
+    }
+    
+    private boolean appliquerDeplacement(Position origine, Position destination) {
+        long debut = Metriques.debutCoup();
+        memoriserCoup(Coup.deplacement(origine.getIndex(), destination.getIndex()));
         
         Pion pion = plateau.retirerPion(origine);
         plateau.placerPion(pion, destination);
+        notifierCase(origine.getIndex());
+        notifierCase(destination.getIndex());
         
-        if (victoireChecker.aGagne(plateau, joueurActuel)) {
-            partieTerminee = true;
+        if (aGagneApres(destination)) {
+            issue = Issue.VICTOIRE;
+            mesurerCoup(debut, true);
             return true;
         }
         
         changerJoueur();
+        verifierNul();
+        mesurerCoup(debut, false);
         return false;
     }
     
+    /**
+     * Remplit le tampon avec les coups légaux du joueur actuel, codés selon Coup.
+     * Ne lève aucune exception et n'alloue rien : destiné aux IA et aux analyses
+     * qui énumèrent les coups en boucle.
+     * 
+     * @param tampon tableau d'au moins Coup.MAX_COUPS cases
+     * @return le nombre de coups légaux écrits dans le tampon (0 si la partie est terminée)
+     */
+    public int genererCoups(int[] tampon) {
+        if (issue != Issue.EN_COURS) {
+            return 0;
+        }
+        return Coup.generer(getEtatCompact(), tampon);
+    }
+    
+    /**
+     * Joue un coup codé selon Coup, sans exception : un coup illégal est simplement refusé.
+     * La victoire éventuelle se lit ensuite via estPartieTerminee().
+     * 
+     * @param coup le coup à jouer
+     * @return true si le coup était légal et a été joué, false sinon
+     */
+    public boolean jouerCoup(int coup) {
+        if (issue != Issue.EN_COURS || !Coup.estLegal(getEtatCompact(), coup)) {
+            Metriques.refus(Metriques.Refus.COUP_ILLEGAL);
+            return false;
+        }
+        Position destination = Position.of(Coup.destination(coup));
+        if (Coup.estPlacement(coup)) {
+            appliquerPlacement(destination);
+        } else {
+            appliquerDeplacement(Position.of(Coup.origine(coup)), destination);
+        }
+        noterNouveauCoup();
+        return true;
+    }
+    
+    /**
+     * Annule le dernier coup joué (par placerPion, deplacerPion ou jouerCoup).
+     * 
+     * @return true si un coup a été annulé, false si aucun coup n'avait été joué
+     */
+    public boolean annulerCoup() {
+        if (nbCoupsJoues == 0) {
+            return false;
+        }
+        nbCoupsJoues--;
+        nbCoupsInstantane = Math.min(nbCoupsInstantane, nbCoupsJoues);
+        int coup = historiqueCoups[nbCoupsJoues];
+        int etatAvant = historiqueEtats[nbCoupsJoues];
+        
+        Joueur joueurAvant = joueurActuel;
+        Phase phaseAvant = phaseActuelle;
+        joueurActuel = joueurs[PlateauCompact.trait(etatAvant)];
+        phaseActuelle = PlateauCompact.phase(etatAvant);
+        issue = Issue.EN_COURS;
+        
+        Pion pion = plateau.retirerPion(Position.of(Coup.destination(coup)));
+        notifierCase(Coup.destination(coup));
+        if (Coup.estPlacement(coup)) {
+            joueurActuel.decrementerPionsPlaces();
+        } else {
+            plateau.placerPion(pion, Position.of(Coup.origine(coup)));
+            notifierCase(Coup.origine(coup));
+        }
+        if (phaseActuelle != phaseAvant) {
+            notifierPhase();
+        }
+        if (joueurActuel != joueurAvant) {
+            notifierTrait();
+        }
+        nbCoupsAnnules++;
+        if (journal != null) {
+            journal.enregistrerAnnulation();
+        }
+        return true;
+    }
+    
+    /**
+     * Rejoue le dernier coup annulé. Jouer un nouveau coup efface les coups qui pouvaient être rétablis.
+     * 
+     * @return true si un coup a été rétabli, false s'il n'y avait aucun coup annulé
+     *         ou si la partie est terminée (par exemple après avoir abaissé la limite de coups)
+     */
+    public boolean retablirCoup() {
+        if (nbCoupsAnnules == 0 || issue != Issue.EN_COURS) {
+            return false;
+        }
+        int coup = historiqueCoups[nbCoupsJoues];
+        Position destination = Position.of(Coup.destination(coup));
+        if (Coup.estPlacement(coup)) {
+            appliquerPlacement(destination);
+        } else {
+            appliquerDeplacement(Position.of(Coup.origine(coup)), destination);
+        }
+        nbCoupsAnnules--;
+        if (journal != null) {
+            journal.enregistrerRetablissement();
+        }
+        return true;
+    }
+    
+    /**
+     * Retourne une copie immuable de la partie, historique compris (un EtatJeu par coup joué).
+     * Les coups annulés qui pourraient être rétablis n'en font pas partie.
+     * 
+     * Le dernier état retourné est conservé et prolongé à l'appel suivant : seuls les coups joués depuis
+     * (ou depuis la dernière annulation qui l'a raccourci) allouent un EtatJeu chacun. Le coût est donc
+     * amorti sur la partie, mais jouer un coup n'en paie aucun : c'est ici qu'il est payé.
+     */
+    public EtatJeu getEtat() {
+        EtatJeu etat = instantane != null ? instantane : EtatJeu.initial(limiteCoups);
+        while (etat.nbCoupsJoues() > nbCoupsInstantane) {
+            etat = etat.precedent();
+        }
+        for (int i = etat.nbCoupsJoues(); i < nbCoupsJoues; i++) {
+            etat = etat.jouer(historiqueCoups[i]);
+        }
+        instantane = etat;
+        nbCoupsInstantane = nbCoupsJoues;
+        return etat;
+    }
+    
+    /**
+     * Crée une partie mutable qui reprend un état immuable, en rejouant son historique.
+     * 
+     * @throws IllegalArgumentException si l'historique de l'état contient un coup illégal
+     */
+    public static JeuAraignee depuis(EtatJeu etat, String nomJoueur1, String nomJoueur2) {
+        int[] coups = new int[etat.nbCoupsJoues()];
+        for (EtatJeu e = etat; e.precedent() != null; e = e.precedent()) {
+            coups[e.nbCoupsJoues() - 1] = e.dernierCoup();
+        }
+        JeuAraignee jeu = new JeuAraignee(nomJoueur1, nomJoueur2);
+        jeu.setLimiteCoups(etat.limiteCoups());
+        for (int coup : coups) {
+            if (!jeu.jouerCoup(coup)) {
+                throw new IllegalArgumentException("Coup illégal dans l'historique : " + Coup.toString(coup));
+            }
+        }
+        return jeu;
+    }
+    
+    /**
+     * Attache un journal qui enregistrera chaque coup joué, annulé ou rétabli à partir de maintenant,
+     * ainsi que la limite de coups, pour que la partie soit rejouée avec ses propres règles.
+     * 
+     * @param journal le journal, ou null pour ne plus rien enregistrer
+     */
+    public void setJournal(JournalPartie journal) {
+        this.journal = journal;
+        if (journal != null) {
+            journal.enregistrerLimite(limiteCoups);
+        }
+    }
+    
+    /**
+     * Abonne un écouteur aux changements de cases, de trait et de phase.
+     * Sans écouteur, jouer un coup ne coûte aucune notification.
+     * 
+     * @throws IllegalArgumentException si l'écouteur est null
+     */
+    public void ajouterEcouteur(EcouteurPlateau ecouteur) {
+        if (ecouteur == null) {
+            throw new IllegalArgumentException("L'écouteur ne peut pas être null");
+        }
+        ecouteurs = Arrays.copyOf(ecouteurs, ecouteurs.length + 1);
+        ecouteurs[ecouteurs.length - 1] = ecouteur;
+    }
+    
+    /**
+     * Désabonne un écouteur ; sans effet s'il n'était pas abonné.
+     */
+    public void retirerEcouteur(EcouteurPlateau ecouteur) {
+        for (int i = 0; i < ecouteurs.length; i++) {
+            if (ecouteurs[i] == ecouteur) {
+                EcouteurPlateau[] restants = new EcouteurPlateau[ecouteurs.length - 1];
+                System.arraycopy(ecouteurs, 0, restants, 0, i);
+                System.arraycopy(ecouteurs, i + 1, restants, i, restants.length - i);
+                ecouteurs = restants.length == 0 ? AUCUN_ECOUTEUR : restants;
+                return;
+            }
+        }
+    }
+    
+    private void notifierCase(int indexCase) {
+        if (ecouteurs.length == 0) {
+            return;
+        }
+        int proprietaire = PlateauCompact.proprietaire(plateau.getEtatCompact(), indexCase);
+        for (EcouteurPlateau ecouteur : ecouteurs) {
+            ecouteur.caseModifiee(indexCase, proprietaire);
+        }
+    }
+    
+    private void notifierTrait() {
+        for (EcouteurPlateau ecouteur : ecouteurs) {
+            ecouteur.traitModifie(getTrait());
+        }
+    }
+    
+    private void notifierPhase() {
+        for (EcouteurPlateau ecouteur : ecouteurs) {
+            ecouteur.phaseModifiee(phaseActuelle);
+        }
+    }
+    
+    /**
+     * Retourne un coup parfait pour le joueur actuel, lu dans un solveur déjà calculé (O(1)).
+     * 
+     * @return le coup codé selon Coup, ou Coup.AUCUN si la partie est terminée
+     */
+    public int meilleurCoup(Solveur solveur) {
+        if (issue != Issue.EN_COURS) {
+            return Coup.AUCUN;
+        }
+        return solveur.getMeilleurCoup(getEtatCompact());
+    }
+    
+    /**
+     * Analyse d'un seul appel tous les coups légaux du joueur actuel (voir AnalyseCoups),
+     * sans modifier la partie.
+     * 
+     * @param analyse le tampon à remplir, réutilisable d'un appel à l'autre
+     * @param oracle solveur qui donne la valeur théorique de chaque coup, ou null
+     * @return l'analyse remplie, vide si la partie est terminée
+     */
+    public AnalyseCoups analyserCoups(AnalyseCoups analyse, Solveur oracle) {
+        if (analyse == null) {
+            throw new IllegalArgumentException("L'analyse ne peut pas être null");
+        }
+        analyse.analyser(getEtatCompact(), issue == Issue.EN_COURS, nbCoupsJoues, limiteCoups, historiqueEtats, oracle);
+        return analyse;
+    }
+    
+    public AnalyseCoups analyserCoups() {
+        return analyserCoups(new AnalyseCoups(), null);
+    }
+    
+    /**
+     * Retourne l'issue théorique de la position actuelle pour le joueur actuel, lue dans une table de finales.
+     */
+    public Resultat resultatTheorique(TableFinale table) {
+        return table.getResultat(getEtatCompact());
+    }
+    
+    public int getNbCoupsJoues() {
+        return nbCoupsJoues;
+    }
+    
+    /**
+     * @param rang le rang du coup dans la partie, de 0 à getNbCoupsJoues() - 1
+     * @return le coup joué à ce rang, codé selon Coup (les coups annulés n'en font plus partie)
+     * @throws IllegalArgumentException si aucun coup de ce rang n'a été joué
+     */
+    public int getCoupJoue(int rang) {
+        if (rang < 0 || rang >= nbCoupsJoues) {
+            throw new IllegalArgumentException("Aucun coup de rang " + rang + " sur " + nbCoupsJoues + " joués");
+        }
+        return historiqueCoups[rang];
+    }
+    
+    private void noterNouveauCoup() {
+        nbCoupsAnnules = 0;
+        if (journal != null) {
+            journal.enregistrerCoup(historiqueCoups[nbCoupsJoues - 1]);
+        }
+    }
+    
+    private void memoriserCoup(int coup) {
+        if (nbCoupsJoues == historiqueCoups.length) {
+            historiqueCoups = Arrays.copyOf(historiqueCoups, nbCoupsJoues * 2);
+            historiqueEtats = Arrays.copyOf(historiqueEtats, nbCoupsJoues * 2);
+        }
+        historiqueCoups[nbCoupsJoues] = coup;
+        historiqueEtats[nbCoupsJoues] = getEtatCompact();
+        nbCoupsJoues++;
+    }
+    
+    /**
+     * Seuls la ligne et la colonne de la case jouée peuvent avoir été complétées par ce coup.
+     * Seule vérification comptée dans Metriques : les IA et le solveur vérifient sans passer par ici.
+     */
+    private boolean aGagneApres(Position caseJouee) {
+        Metriques.verificationVictoire();
+        return VictoireChecker.aAligneApres(plateau.masqueDe(joueurActuel.getId()), caseJouee.getIndex());
+    }
+    
+    /**
+     * Les positions passées sont celles de l'historique d'annulation (voir ReglesNulle).
+     */
+    private void verifierNul() {
+        if (ReglesNulle.estNulle(getEtatCompact(), nbCoupsJoues, limiteCoups, historiqueEtats, 0)) {
+            issue = Issue.NUL;
+        }
+    }
+    
     private void changerJoueur() {
-        joueurActuel = (joueurActuel == joueur1) ? joueur2 : joueur1;
+        joueurActuel = joueurs[1 - joueurActuel.getId()];
+        notifierTrait();
     }
     
     private void verifierChangementPhase() {
         if (phaseActuelle == Phase.PLACEMENT && 
-            joueur1.estTousPlaces() && 
-            joueur2.estTousPlaces()) {
+            joueurs[Joueur.ID_ROUGE].estTousPlaces() && 
+            joueurs[Joueur.ID_BLEU].estTousPlaces()) {
             phaseActuelle = Phase.DEPLACEMENT;
+            notifierPhase();
         }
     }
     
     private void validerCoupPlacement(Position position) {
         if (position == null) {
-            throw new IllegalArgumentException("La position ne peut pas être null");
+            throw refus(Metriques.Refus.POSITION_NULLE, "La position ne peut pas être null");
         }
-        if (partieTerminee) {
-            throw new IllegalArgumentException("La partie est terminée");
+        if (issue != Issue.EN_COURS) {
+            throw refus(Metriques.Refus.PARTIE_TERMINEE, "La partie est terminée");
         }
         if (phaseActuelle != Phase.PLACEMENT) {
-            throw new IllegalArgumentException("Nous sommes en phase de déplacement, vous ne pouvez plus placer de pions");
+            throw refus(Metriques.Refus.MAUVAISE_PHASE, "Nous sommes en phase de déplacement, vous ne pouvez plus placer de pions");
         }
         if (joueurActuel.estTousPlaces()) {
-            throw new IllegalArgumentException("Vous avez déjà placé tous vos pions");
+            throw refus(Metriques.Refus.TOUS_PIONS_PLACES, "Vous avez déjà placé tous vos pions");
         }
         if (!plateau.estLibre(position)) {
-            throw new IllegalArgumentException("La case " + position + " est déjà occupée");
+            throw refus(Metriques.Refus.CASE_OCCUPEE, "La case " + position + " est déjà occupée");
         }
     }
     
     private void validerCoupDeplacement(Position origine, Position destination) {
         if (origine == null || destination == null) {
-            throw new IllegalArgumentException("Les positions ne peuvent pas être null");
+            throw refus(Metriques.Refus.POSITION_NULLE, "Les positions ne peuvent pas être null");
         }
-        if (partieTerminee) {
-            throw new IllegalArgumentException("La partie est terminée");
+        if (issue != Issue.EN_COURS) {
+            throw refus(Metriques.Refus.PARTIE_TERMINEE, "La partie est terminée");
         }
         if (phaseActuelle != Phase.DEPLACEMENT) {
-            throw new IllegalArgumentException("Nous sommes en phase de placement, vous devez d'abord placer vos pions");
+            throw refus(Metriques.Refus.MAUVAISE_PHASE, "Nous sommes en phase de placement, vous devez d'abord placer vos pions");
         }
         
         Pion pion = plateau.obtenirPion(origine);
         if (pion == null) {
-            throw new IllegalArgumentException("Aucun pion à la position " + origine);
+            throw refus(Metriques.Refus.CASE_VIDE, "Aucun pion à la position " + origine);
         }
-        if (!pion.appartientA(joueurActuel)) {
-            throw new IllegalArgumentException("Ce pion ne vous appartient pas");
+        if (!pion.appartientA(joueurActuel.getId())) {
+            throw refus(Metriques.Refus.PION_ADVERSE, "Ce pion ne vous appartient pas");
         }
         if (!plateau.estLibre(destination)) {
-            throw new IllegalArgumentException("La destination " + destination + " est déjà occupée");
+            throw refus(Metriques.Refus.CASE_OCCUPEE, "La destination " + destination + " est déjà occupée");
         }
         if (!origine.estAdjacente(destination)) {
-            throw new IllegalArgumentException("Le déplacement doit se faire vers une case adjacente (haut, bas, gauche, droite)");
+            throw refus(Metriques.Refus.NON_ADJACENT, "Le déplacement doit se faire vers une case adjacente (haut, bas, gauche, droite)");
         }
         if (origine.equals(destination)) {
-            throw new IllegalArgumentException("Vous devez déplacer le pion vers une autre case");
+            throw refus(Metriques.Refus.SUR_PLACE, "Vous devez déplacer le pion vers une autre case");
+        }
+    }
+    
+    private void mesurerCoup(long debut, boolean victoire) {
+        if (Metriques.ACTIVES) {
+            Metriques.finCoup(debut, historiqueCoups[nbCoupsJoues - 1], getEtatCompact(), victoire);
         }
     }
     
+    /**
+     * Compte le refus dans les métriques et construit l'exception à lever.
+     */
+    private static IllegalArgumentException refus(Metriques.Refus regle, String message) {
+        Metriques.refus(regle);
+        return new IllegalArgumentException(message);
+    }
+    
     public Plateau getPlateau() {
         return plateau;
     }
     
+    /**
+     * Retourne l'état complet de la partie sous forme compacte :
+     * occupation du plateau, joueur qui a le trait et phase (voir PlateauCompact).
+     */
+    public int getEtatCompact() {
+        int etat = PlateauCompact.avecTrait(plateau.getEtatCompact(), getTrait());
+        return PlateauCompact.avecPhase(etat, phaseActuelle);
+    }
+    
+    /**
+     * Retourne le hash de la position, identique pour toutes ses images par symétrie (voir Symetries).
+     * Maintenu de façon incrémentale par le plateau.
+     */
+    public long getHashCanonique() {
+        return plateau.getHashCanonique(getTrait(), phaseActuelle);
+    }
+    
+    /**
+     * @return 0 si le joueur actuel est le premier joueur (Rouge), 1 sinon
+     */
+    public int getTrait() {
+        return joueurActuel.getId();
+    }
+    
     public Joueur getJoueurActuel() {
         return joueurActuel;
     }
@@ -160,7 +593,44 @@ public class JeuAraignee {
         return phaseActuelle;
     }
     
+    /**
+     * @return true si la partie est gagnée ou nulle
+     */
     public boolean estPartieTerminee() {
-        return partieTerminee;
+        return issue != Issue.EN_COURS;
+    }
+    
+    public Issue getIssue() {
+        return issue;
+    }
+    
+    public int getLimiteCoups() {
+        return limiteCoups;
+    }
+    
+    /**
+     * Fixe le nombre de coups au-delà duquel la partie est déclarée nulle.
+     * Une limite égale au nombre de coups déjà joués termine la partie en cours.
+     * 
+     * @throws IllegalArgumentException si la limite n'est pas strictement positive
+     *         ou si elle est inférieure au nombre de coups déjà joués
+     */
+    public void setLimiteCoups(int limiteCoups) {
+        ReglesNulle.verifierLimite(limiteCoups);
+        if (limiteCoups < nbCoupsJoues) {
+            throw new IllegalArgumentException("La limite de coups ne peut pas être inférieure aux "
+                + nbCoupsJoues + " coups déjà joués");
+        }
+        if (limiteCoups != this.limiteCoups) {
+            this.limiteCoups = limiteCoups;
+            instantane = null;
+            nbCoupsInstantane = 0;
+            if (journal != null) {
+                journal.enregistrerLimite(limiteCoups);
+            }
+        }
+        if (issue == Issue.EN_COURS) {
+            verifierNul();
+        }
     }
 }
\ No newline at end of file
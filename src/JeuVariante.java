@@ -0,0 +1,398 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Partie d'une variante du jeu de l'Araignée (voir Variante) : plateau jusqu'à 8×8,
+ * nombre de pions et longueur d'alignement paramétrables.
+ *
+ * Mêmes règles que JeuAraignee : placement puis déplacement orthogonal vers une case libre,
+ * victoire dès qu'un alignement est formé (le trait reste alors au gagnant), nulle à la limite de coups,
+ * quand le joueur au trait est bloqué ou sur triple répétition en phase de déplacement. L'état tient dans deux long, un par joueur :
+ * jouer, vérifier la victoire et annuler se font par masques, sans objet Pion ni Position,
+ * et coûtent le même prix sur 3×3 que sur 8×8.
+ *
+ * Les coups sont des int : origine * 64 + destination pour un déplacement,
+ * PLACEMENT + destination pour un placement.
+ */
+public class JeuVariante {
+
+    public static final int PLACEMENT = 1 << 12;
+    public static final int LIMITE_COUPS_PAR_DEFAUT = ReglesNulle.LIMITE_COUPS_PAR_DEFAUT;
+
+    private static final int TAILLE_INITIALE_HISTORIQUE = 32;
+    private static final int BIT_TRAIT = 1;
+    private static final int BIT_DEPLACEMENT = 2;
+
+    private final Variante variante;
+    private final long[] masques = new long[2];
+    private int trait;
+    private Phase phase;
+    private Issue issue;
+    private int limiteCoups;
+
+    private int[] historiqueCoups;
+    /** Masques des deux joueurs avant chaque coup, aux index 2i et 2i + 1. */
+    private long[] historiqueMasques;
+    /** Trait (bit 0) et phase (bit 1) avant chaque coup. */
+    private byte[] historiqueInfos;
+    private int nbCoupsJoues;
+
+    public JeuVariante(Variante variante) {
+        if (variante == null) {
+            throw new IllegalArgumentException("La variante ne peut pas être null");
+        }
+        this.variante = variante;
+        this.phase = Phase.PLACEMENT;
+        this.issue = Issue.EN_COURS;
+        this.limiteCoups = LIMITE_COUPS_PAR_DEFAUT;
+        this.historiqueCoups = new int[TAILLE_INITIALE_HISTORIQUE];
+        this.historiqueMasques = new long[2 * TAILLE_INITIALE_HISTORIQUE];
+        this.historiqueInfos = new byte[TAILLE_INITIALE_HISTORIQUE];
+    }
+
+    public static int placement(int destination) {
+        return PLACEMENT | destination;
+    }
+
+    public static int deplacement(int origine, int destination) {
+        return origine << 6 | destination;
+    }
+
+    public static boolean estPlacement(int coup) {
+        return (coup & PLACEMENT) != 0;
+    }
+
+    public static int origine(int coup) {
+        return (coup >>> 6) & 63;
+    }
+
+    public static int destination(int coup) {
+        return coup & 63;
+    }
+
+    /**
+     * Place un pion du joueur actuel en (x, y).
+     *
+     * @return true si ce placement fait gagner le joueur
+     * @throws IllegalArgumentException si la position est hors du plateau ou occupée,
+     *         si la partie est terminée ou si on n'est pas en phase de placement
+     */
+    public boolean placerPion(int x, int y) {
+        int destination = variante.index(x, y);
+        if (issue != Issue.EN_COURS) {
+            throw new IllegalArgumentException("La partie est terminée");
+        }
+        if (phase != Phase.PLACEMENT) {
+            throw new IllegalArgumentException("Nous sommes en phase de déplacement, vous ne pouvez plus placer de pions");
+        }
+        if (!estLibre(destination)) {
+            throw new IllegalArgumentException("La case (" + x + ", " + y + ") est déjà occupée");
+        }
+        return appliquer(placement(destination));
+    }
+
+    /**
+     * Déplace un pion du joueur actuel de (origineX, origineY) vers la case adjacente (destinationX, destinationY).
+     *
+     * @return true si ce déplacement fait gagner le joueur
+     * @throws IllegalArgumentException si une position est hors du plateau, si le pion n'appartient pas
+     *         au joueur actuel, si la destination est occupée ou non adjacente, ou si la partie est terminée
+     */
+    public boolean deplacerPion(int origineX, int origineY, int destinationX, int destinationY) {
+        int origine = variante.index(origineX, origineY);
+        int destination = variante.index(destinationX, destinationY);
+        if (issue != Issue.EN_COURS) {
+            throw new IllegalArgumentException("La partie est terminée");
+        }
+        if (phase != Phase.DEPLACEMENT) {
+            throw new IllegalArgumentException("Nous sommes en phase de placement, vous devez d'abord placer vos pions");
+        }
+        if (getProprietaire(origine) != trait) {
+            throw new IllegalArgumentException(estLibre(origine)
+                ? "Aucun pion à la position (" + origineX + ", " + origineY + ")"
+                : "Ce pion ne vous appartient pas");
+        }
+        if (!estLibre(destination)) {
+            throw new IllegalArgumentException("La destination (" + destinationX + ", " + destinationY
+                + ") est déjà occupée");
+        }
+        if ((variante.masqueVoisines(origine) & (1L << destination)) == 0) {
+            throw new IllegalArgumentException("Le déplacement doit se faire vers une case adjacente (haut, bas, gauche, droite)");
+        }
+        return appliquer(deplacement(origine, destination));
+    }
+
+    /**
+     * Remplit le tampon avec les coups légaux du joueur actuel, sans allocation.
+     *
+     * @param tampon tableau d'au moins variante.getMaxCoups() cases
+     * @return le nombre de coups écrits (0 si la partie est terminée)
+     */
+    public int genererCoups(int[] tampon) {
+        if (issue != Issue.EN_COURS) {
+            return 0;
+        }
+        long libres = ~(masques[0] | masques[1]) & variante.getMasqueCases();
+        int nb = 0;
+        if (phase == Phase.PLACEMENT) {
+            for (long cases = libres; cases != 0; cases &= cases - 1) {
+                tampon[nb++] = placement(Long.numberOfTrailingZeros(cases));
+            }
+            return nb;
+        }
+        for (long pions = masques[trait]; pions != 0; pions &= pions - 1) {
+            int origine = Long.numberOfTrailingZeros(pions);
+            for (long cases = variante.masqueVoisines(origine) & libres; cases != 0; cases &= cases - 1) {
+                tampon[nb++] = deplacement(origine, Long.numberOfTrailingZeros(cases));
+            }
+        }
+        return nb;
+    }
+
+    public boolean estLegal(int coup) {
+        if (issue != Issue.EN_COURS || coup < 0) {
+            return false;
+        }
+        int destination = destination(coup);
+        if (destination >= variante.getNbCases() || !estLibre(destination)) {
+            return false;
+        }
+        if (estPlacement(coup)) {
+            return phase == Phase.PLACEMENT && coup == placement(destination);
+        }
+        int origine = origine(coup);
+        return phase == Phase.DEPLACEMENT && coup < PLACEMENT && origine < variante.getNbCases()
+            && getProprietaire(origine) == trait
+            && (variante.masqueVoisines(origine) & (1L << destination)) != 0;
+    }
+
+    /**
+     * Joue un coup sans exception : un coup illégal est simplement refusé.
+     *
+     * @return true si le coup était légal et a été joué
+     */
+    public boolean jouerCoup(int coup) {
+        if (!estLegal(coup)) {
+            return false;
+        }
+        appliquer(coup);
+        return true;
+    }
+
+    private boolean appliquer(int coup) {
+        memoriser(coup);
+        int destination = destination(coup);
+        long masque = masques[trait];
+        if (!estPlacement(coup)) {
+            masque &= ~(1L << origine(coup));
+        }
+        masque |= 1L << destination;
+        masques[trait] = masque;
+
+        Metriques.verificationVictoire();
+        if (variante.aAligneApres(masque, destination)) {
+            issue = Issue.VICTOIRE;
+            return true;
+        }
+        if (phase == Phase.PLACEMENT && Long.bitCount(masques[0] | masques[1]) == 2 * variante.getNbPions()) {
+            phase = Phase.DEPLACEMENT;
+        }
+        trait ^= 1;
+        verifierNul();
+        return false;
+    }
+
+    private void memoriser(int coup) {
+        if (nbCoupsJoues == historiqueCoups.length) {
+            historiqueCoups = Arrays.copyOf(historiqueCoups, nbCoupsJoues * 2);
+            historiqueMasques = Arrays.copyOf(historiqueMasques, nbCoupsJoues * 4);
+            historiqueInfos = Arrays.copyOf(historiqueInfos, nbCoupsJoues * 2);
+        }
+        historiqueCoups[nbCoupsJoues] = coup;
+        historiqueMasques[2 * nbCoupsJoues] = masques[0];
+        historiqueMasques[2 * nbCoupsJoues + 1] = masques[1];
+        historiqueInfos[nbCoupsJoues] = (byte) (trait | (phase == Phase.DEPLACEMENT ? BIT_DEPLACEMENT : 0));
+        nbCoupsJoues++;
+    }
+
+    /**
+     * Comme ReglesNulle.estNulle : limite de coups, joueur au trait bloqué, puis recherche de la position
+     * actuelle un demi-coup sur deux dans la fenêtre de répétition.
+     */
+    private void verifierNul() {
+        if (nbCoupsJoues >= limiteCoups || estBloque()) {
+            issue = Issue.NUL;
+            return;
+        }
+        if (phase != Phase.DEPLACEMENT) {
+            return;
+        }
+        int limite = Math.max(0, nbCoupsJoues - ReglesNulle.FENETRE_REPETITION);
+        int nbOccurrences = 0;
+        for (int i = nbCoupsJoues - 2; i >= limite; i -= 2) {
+            if ((historiqueInfos[i] & BIT_DEPLACEMENT) == 0) {
+                return;
+            }
+            if (historiqueMasques[2 * i] == masques[0] && historiqueMasques[2 * i + 1] == masques[1]
+                && ++nbOccurrences == 2) {
+                issue = Issue.NUL;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Indique si, en phase de déplacement, aucun pion du joueur au trait n'a de case voisine libre.
+     */
+    private boolean estBloque() {
+        if (phase != Phase.DEPLACEMENT) {
+            return false;
+        }
+        long libres = ~(masques[0] | masques[1]) & variante.getMasqueCases();
+        for (long pions = masques[trait]; pions != 0; pions &= pions - 1) {
+            if ((variante.masqueVoisines(Long.numberOfTrailingZeros(pions)) & libres) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Annule le dernier coup joué.
+     *
+     * @return true si un coup a été annulé, false si aucun coup n'avait été joué
+     */
+    public boolean annulerCoup() {
+        if (nbCoupsJoues == 0) {
+            return false;
+        }
+        nbCoupsJoues--;
+        masques[0] = historiqueMasques[2 * nbCoupsJoues];
+        masques[1] = historiqueMasques[2 * nbCoupsJoues + 1];
+        int infos = historiqueInfos[nbCoupsJoues];
+        trait = infos & BIT_TRAIT;
+        phase = (infos & BIT_DEPLACEMENT) != 0 ? Phase.DEPLACEMENT : Phase.PLACEMENT;
+        issue = Issue.EN_COURS;
+        return true;
+    }
+
+    public Variante getVariante() {
+        return variante;
+    }
+
+    /**
+     * @return le masque des cases occupées par le joueur 0 ou 1
+     */
+    public long getMasque(int joueur) {
+        return masques[joueur];
+    }
+
+    public boolean estLibre(int indexCase) {
+        return ((masques[0] | masques[1]) & (1L << indexCase)) == 0;
+    }
+
+    /**
+     * @return 0 ou 1 selon le joueur qui occupe la case, -1 si elle est libre
+     */
+    public int getProprietaire(int indexCase) {
+        long bit = 1L << indexCase;
+        return (masques[0] & bit) != 0 ? 0 : (masques[1] & bit) != 0 ? 1 : -1;
+    }
+
+    public int getProprietaire(int x, int y) {
+        return getProprietaire(variante.index(x, y));
+    }
+
+    /**
+     * @return 0 ou 1, le joueur qui a le trait (le gagnant si la partie est gagnée)
+     */
+    public int getTrait() {
+        return trait;
+    }
+
+    public Phase getPhaseActuelle() {
+        return phase;
+    }
+
+    public Issue getIssue() {
+        return issue;
+    }
+
+    public boolean estPartieTerminee() {
+        return issue != Issue.EN_COURS;
+    }
+
+    public int getNbCoupsJoues() {
+        return nbCoupsJoues;
+    }
+
+    public int getLimiteCoups() {
+        return limiteCoups;
+    }
+
+    /**
+     * Fixe le nombre de coups au-delà duquel la partie est déclarée nulle.
+     *
+     * @throws IllegalArgumentException si la limite n'est pas strictement positive
+     */
+    public void setLimiteCoups(int limiteCoups) {
+        if (limiteCoups < 1) {
+            throw new IllegalArgumentException("La limite de coups doit être strictement positive");
+        }
+        this.limiteCoups = limiteCoups;
+        if (issue == Issue.EN_COURS) {
+            verifierNul();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int taille = variante.getTaille();
+        for (int i = 0; i < variante.getNbCases(); i++) {
+            int proprietaire = getProprietaire(i);
+            sb.append(proprietaire == 0 ? 'R' : proprietaire == 1 ? 'B' : '.');
+            if (i % taille == taille - 1) {
+                sb.append('/');
+            }
+        }
+        sb.append(" trait=").append(trait).append(' ').append(phase).append(' ').append(issue);
+        return sb.toString();
+    }
+
+    /**
+     * Usage : java JeuVariante [durée en ms par variante]
+     * Mesure le nombre de parties aléatoires par seconde pour quelques variantes, du 3×3 classique au 8×8.
+     */
+    public static void main(String[] args) {
+        long dureeMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        Variante[] variantes = {
+            Variante.CLASSIQUE, new Variante(4, 4, 3), new Variante(4, 4, 4),
+            new Variante(5, 5, 4), new Variante(6, 6, 5), new Variante(8, 8, 5)
+        };
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        for (Variante variante : variantes) {
+            int[] coups = new int[variante.getMaxCoups()];
+            long nbParties = 0;
+            long nbCoups = 0;
+            int nbVictoires = 0;
+            long debut = System.nanoTime();
+            long fin = debut + dureeMillis * 1_000_000L;
+            while (System.nanoTime() < fin) {
+                JeuVariante jeu = new JeuVariante(variante);
+                for (int nb = jeu.genererCoups(coups); nb > 0; nb = jeu.genererCoups(coups)) {
+                    jeu.jouerCoup(coups[aleatoire.nextInt(nb)]);
+                }
+                nbParties++;
+                nbCoups += jeu.getNbCoupsJoues();
+                if (jeu.getIssue() == Issue.VICTOIRE) {
+                    nbVictoires++;
+                }
+            }
+            double secondes = (System.nanoTime() - debut) / 1e9;
+            System.out.printf("%-9s : %,.0f parties/s, %,.0f coups/s, %.1f coups par partie, %.0f %% de victoires%n",
+                variante, nbParties / secondes, nbCoups / secondes, (double) nbCoups / nbParties,
+                100.0 * nbVictoires / nbParties);
+        }
+    }
+}
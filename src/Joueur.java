@@ -1,27 +1,77 @@
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Joueur d'une partie. Son identifiant (ID_ROUGE ou ID_BLEU) est celui de son masque dans l'état compact
+ * (voir PlateauCompact) : il sert aux tests d'appartenance, au hash et à l'indexation des tableaux par joueur.
+ * Deux joueurs sont égaux s'ils ont le même identifiant, le même nom et la même couleur.
+ */
 public class Joueur {
 
+    public static final int ID_ROUGE = 0;
+    public static final int ID_BLEU = 1;
+
     private static final int MAX_PIONS = 3;
+    private final int id;
     private final String nom;
     private final String couleur;
     private final List<Pion> pions;
     private int nbPionsPlaces;
 
+    /**
+     * Ancien constructeur, sans identifiant : il est déduit de la couleur, « Rouge » pour ID_ROUGE
+     * et « Bleu » pour ID_BLEU, sans tenir compte de la casse.
+     *
+     * @throws IllegalArgumentException si le nom ou la couleur est null, ou si la couleur n'est ni Rouge ni Bleu
+     * @deprecated utiliser Joueur(String, String, int), qui accepte toute couleur
+     */
+    @Deprecated
     public Joueur(String nom, String couleur) {
+        this(nom, couleur, idParDefaut(couleur));
+    }
+
+    /**
+     * @param id ID_ROUGE (le joueur qui commence) ou ID_BLEU
+     * @throws IllegalArgumentException si le nom ou la couleur est null, ou si l'identifiant n'est pas 0 ou 1
+     */
+    public Joueur(String nom, String couleur, int id) {
+        if (id != ID_ROUGE && id != ID_BLEU) {
+            throw new IllegalArgumentException("L'identifiant du joueur doit être 0 ou 1 : " + id);
+        }
         if (nom == null) {
             throw new IllegalArgumentException("Le nom du joueur ne peut pas être null");
         }
         if (couleur == null) {
             throw new IllegalArgumentException("La couleur du joueur ne peut pas être null");
         }
+        this.id = id;
         this.nom = nom;
         this.couleur = couleur;
         this.pions = new ArrayList<>();
         this.nbPionsPlaces = 0;
     }
 
+    private static int idParDefaut(String couleur) {
+        if (couleur == null) {
+            throw new IllegalArgumentException("La couleur du joueur ne peut pas être null");
+        }
+        if ("Rouge".equalsIgnoreCase(couleur)) {
+            return ID_ROUGE;
+        }
+        if ("Bleu".equalsIgnoreCase(couleur)) {
+            return ID_BLEU;
+        }
+        throw new IllegalArgumentException(
+            "Sans identifiant, la couleur du joueur doit être Rouge ou Bleu : " + couleur);
+    }
+
+    /**
+     * @return 0 pour Rouge, 1 pour Bleu
+     */
+    public int getId() {
+        return id;
+    }
+
     public String getNom() {
         return nom;
     }
@@ -62,6 +112,19 @@ public class Joueur {
         }
     }
 
+    public void decrementerPionsPlaces() {
+        if (nbPionsPlaces > 0) {
+            nbPionsPlaces--;
+        }
+    }
+
+    /**
+     * Remet le compteur de pions placés à 0, pour réutiliser le joueur dans une nouvelle partie.
+     */
+    public void reinitialiserPionsPlaces() {
+        nbPionsPlaces = 0;
+    }
+
     public boolean estTousPlaces() {
         return nbPionsPlaces == MAX_PIONS;
     }
@@ -71,37 +134,16 @@ public class Joueur {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Joueur other = (Joueur) obj;
-        if (nom == null) {
-            if (other.nom != null) return false;
-        } else if (!nom.equals(other.nom)) {
-            return false;
-        }
-        if (couleur == null) {
-            if (other.couleur != null) return false;
-        } else if (!couleur.equals(other.couleur)) {
-            return false;
-        }
-        if (pions == null) {
-            if (other.pions != null) return false;
-        } else if (!pions.equals(other.pions)) {
-            return false;
-        }
-        return nbPionsPlaces == other.nbPionsPlaces;
+        return id == other.id && nom.equals(other.nom) && couleur.equals(other.couleur);
     }
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((nom == null) ? 0 : nom.hashCode());
-        result = prime * result + ((couleur == null) ? 0 : couleur.hashCode());
-        result = prime * result + ((pions == null) ? 0 : pions.hashCode());
-        result = prime * result + nbPionsPlaces;
-        return result;
+        return id;
     }
 
     @Override
     public String toString() {
-        return "Joueur [nom=" + nom + ", couleur=" + couleur + ", pions=" + pions + ", nbPionsPlaces=" + nbPionsPlaces + "]";
+        return "Joueur [id=" + id + ", nom=" + nom + ", couleur=" + couleur + ", nbPionsPlaces=" + nbPionsPlaces + "]";
     }
-}
\ No newline at end of file
+}
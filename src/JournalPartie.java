@@ -0,0 +1,474 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Journal de parties en ajout seul : chaque coup joué, annulé ou rétabli est écrit à la suite du fichier,
+ * ce qui permet de reconstruire n'importe quelle partie par rejeu, y compris après un arrêt brutal.
+ *
+ * Format binaire :
+ * - en-tête de 8 octets : magique "ARAJ", version (short), réservé (short)
+ * - puis un octet par enregistrement : le code du coup (voir Coup), ANNULATION, RETABLISSEMENT,
+ *   ou FIN_PARTIE qui sépare deux parties
+ * - sauf LIMITE, suivi de la limite de coups sur TAILLE_LIMITE octets de 7 bits (poids fort d'abord) :
+ *   chaque partie commence par un LIMITE, puis en compte un de plus à chaque changement de limite.
+ *   Ces octets restent sous 0x80, ils ne peuvent donc pas être pris pour un FIN_PARTIE.
+ *
+ * Les enregistrements sont regroupés dans un tampon et écrits par lots ; la politique de synchronisation
+ * décide quand ils sont forcés sur le disque. Un journal n'est pas thread-safe : il est alimenté par
+ * une seule partie à la fois, depuis le thread qui la joue.
+ */
+public class JournalPartie implements Closeable {
+
+    /**
+     * Moment où les enregistrements sont forcés sur le disque (fsync).
+     */
+    public enum PolitiqueSynchro {
+        /** Écriture par lots, le système décide du moment de l'écriture physique (perte possible du dernier lot). */
+        AUCUNE,
+        /** Chaque lot écrit est forcé sur le disque. */
+        PAR_LOT,
+        /** Chaque enregistrement est écrit et forcé immédiatement (le plus sûr, le plus lent). */
+        CHAQUE_COUP
+    }
+
+    /**
+     * Reçoit les enregistrements de chaque partie lors d'un parcours du journal.
+     */
+    @FunctionalInterface
+    public interface LecteurPartie {
+        /**
+         * @param enregistrements les enregistrements de la partie, sans le FIN_PARTIE final ;
+         *        le tampon n'est valable que pendant l'appel
+         */
+        void lire(ByteBuffer enregistrements);
+    }
+
+    public static final byte ANNULATION = (byte) 0xFD;
+    public static final byte RETABLISSEMENT = (byte) 0xFC;
+    public static final byte FIN_PARTIE = (byte) 0xFF;
+    public static final byte LIMITE = (byte) 0xFE;
+    /** Octets de la limite de coups qui suivent LIMITE. */
+    public static final int TAILLE_LIMITE = 5;
+
+    public static final int TAILLE_LOT_PAR_DEFAUT = 4096;
+
+    private static final int MAGIQUE = 0x4152414A;
+    private static final short VERSION = 2;
+    private static final int TAILLE_EN_TETE = 8;
+    private static final long TAILLE_FENETRE = 1L << 30;
+
+    private final FileChannel canal;
+    private final PolitiqueSynchro politique;
+    private final ByteBuffer tampon;
+    /** Position dans le fichier du premier enregistrement de la partie en cours, si elle est ouverte. */
+    private long debutPartieEnCours;
+    private boolean partieOuverte;
+    /** Limite de coups de la partie en cours, écrite en tête de la suivante. */
+    private int limiteCoups;
+
+    private JournalPartie(FileChannel canal, PolitiqueSynchro politique, int tailleLot,
+                          long debutPartieEnCours, boolean partieOuverte, int limiteCoups) {
+        this.canal = canal;
+        this.politique = politique;
+        this.tampon = ByteBuffer.allocateDirect(tailleLot);
+        this.debutPartieEnCours = debutPartieEnCours;
+        this.partieOuverte = partieOuverte;
+        this.limiteCoups = limiteCoups;
+    }
+
+    /**
+     * Ouvre un journal en ajout, en le créant s'il n'existe pas.
+     *
+     * Un journal existant est d'abord réparé : les enregistrements de la dernière partie sont rejoués
+     * et tout ce qui suit le premier enregistrement invalide (écriture interrompue) est tronqué.
+     * Une dernière partie gagnée ou nulle mais jamais close (arrêt avant terminerPartie) est close ;
+     * sinon, la dernière partie inachevée peut être reprise via reprendrePartie.
+     *
+     * @param fichier le chemin du journal
+     * @param politique la politique de synchronisation sur disque
+     * @param tailleLot le nombre d'enregistrements regroupés avant une écriture
+     * @throws IOException si le fichier ne peut pas être ouvert ou n'est pas un journal
+     */
+    public static JournalPartie ouvrir(Path fichier, PolitiqueSynchro politique, int tailleLot) throws IOException {
+        if (fichier == null || politique == null) {
+            throw new IllegalArgumentException("Le fichier et la politique ne peuvent pas être null");
+        }
+        if (tailleLot < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être positive : " + tailleLot);
+        }
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() < TAILLE_EN_TETE) {
+                ecrireEnTete(canal);
+            } else {
+                verifierEnTete(canal, fichier);
+            }
+            long debut = debutDernierePartie(canal);
+            JeuAraignee derniere = new JeuAraignee("Rouge", "Bleu");
+            long finValide = debut + longueurValide(canal, debut, derniere);
+            if (finValide < canal.size()) {
+                canal.truncate(finValide);
+            }
+            canal.position(finValide);
+            JournalPartie journal = new JournalPartie(canal, politique, tailleLot, debut, finValide > debut,
+                derniere.getLimiteCoups());
+            if (derniere.estPartieTerminee()) {
+                journal.terminerPartie();
+            }
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public static JournalPartie ouvrir(Path fichier) throws IOException {
+        return ouvrir(fichier, PolitiqueSynchro.PAR_LOT, TAILLE_LOT_PAR_DEFAUT);
+    }
+
+    private static void ecrireEnTete(FileChannel canal) throws IOException {
+        ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE).order(ByteOrder.BIG_ENDIAN);
+        enTete.putInt(MAGIQUE);
+        enTete.putShort(VERSION);
+        enTete.putShort((short) 0);
+        enTete.flip();
+        canal.truncate(0);
+        while (enTete.hasRemaining()) {
+            canal.write(enTete, enTete.position());
+        }
+        canal.force(true);
+    }
+
+    private static void verifierEnTete(FileChannel canal, Path fichier) throws IOException {
+        ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE).order(ByteOrder.BIG_ENDIAN);
+        while (enTete.hasRemaining() && canal.read(enTete, enTete.position()) >= 0) {
+            // lecture de l'en-tête complet
+        }
+        enTete.flip();
+        if (enTete.getInt() != MAGIQUE) {
+            throw new IOException("Le fichier " + fichier + " n'est pas un journal de parties");
+        }
+        short version = enTete.getShort();
+        if (version != VERSION) {
+            throw new IOException("Version de journal non supportée : " + version);
+        }
+    }
+
+    /**
+     * Retrouve le début de la dernière partie : juste après le dernier FIN_PARTIE, ou après l'en-tête.
+     * Aucun code de coup ne vaut 0xFF, la recherche à rebours est donc sans ambiguïté.
+     */
+    private static long debutDernierePartie(FileChannel canal) throws IOException {
+        long taille = canal.size();
+        ByteBuffer bloc = ByteBuffer.allocate(4096);
+        long fin = taille;
+        while (fin > TAILLE_EN_TETE) {
+            long debut = Math.max(TAILLE_EN_TETE, fin - bloc.capacity());
+            bloc.clear().limit((int) (fin - debut));
+            while (bloc.hasRemaining() && canal.read(bloc, debut + bloc.position()) >= 0) {
+                // lecture du bloc complet
+            }
+            for (int i = bloc.position() - 1; i >= 0; i--) {
+                if (bloc.get(i) == FIN_PARTIE) {
+                    return debut + i + 1;
+                }
+            }
+            fin = debut;
+        }
+        return TAILLE_EN_TETE;
+    }
+
+    private static int longueurValide(FileChannel canal, long debut, JeuAraignee jeu) throws IOException {
+        ByteBuffer enregistrements = lire(canal, debut);
+        rejouer(enregistrements, jeu);
+        return enregistrements.position();
+    }
+
+    private static ByteBuffer lire(FileChannel canal, long debut) throws IOException {
+        ByteBuffer enregistrements = ByteBuffer.allocate((int) (canal.size() - debut));
+        while (enregistrements.hasRemaining()
+                && canal.read(enregistrements, debut + enregistrements.position()) >= 0) {
+            // lecture de la partie complète
+        }
+        return enregistrements.flip();
+    }
+
+    /**
+     * Rejoue des enregistrements sur une partie, jusqu'à la fin du tampon ou au premier enregistrement invalide.
+     * Le tampon est laissé positionné sur l'enregistrement invalide, ou à sa fin.
+     *
+     * @return true si tous les enregistrements ont été rejoués
+     */
+    public static boolean rejouer(ByteBuffer enregistrements, JeuAraignee jeu) {
+        while (enregistrements.hasRemaining()) {
+            int position = enregistrements.position();
+            byte enregistrement = enregistrements.get(position);
+            int taille = 1;
+            boolean valide;
+            if (enregistrement == ANNULATION) {
+                valide = jeu.annulerCoup();
+            } else if (enregistrement == RETABLISSEMENT) {
+                valide = jeu.retablirCoup();
+            } else if (enregistrement == LIMITE) {
+                taille += TAILLE_LIMITE;
+                valide = appliquerLimite(enregistrements, position, enregistrements.limit(), jeu);
+            } else {
+                valide = jeu.jouerCoup(enregistrement & 0xFF);
+            }
+            if (!valide) {
+                return false;
+            }
+            enregistrements.position(position + taille);
+        }
+        return true;
+    }
+
+    /**
+     * Applique à la partie la limite de coups d'un enregistrement LIMITE, lu par accès absolus.
+     *
+     * @param index l'index de l'octet LIMITE
+     * @param fin la fin des enregistrements lisibles
+     * @return false si la limite est tronquée par la fin des enregistrements ou refusée par la partie
+     */
+    static boolean appliquerLimite(ByteBuffer enregistrements, int index, int fin, JeuAraignee jeu) {
+        if (fin - index - 1 < TAILLE_LIMITE) {
+            return false;
+        }
+        long limite = 0;
+        for (int i = 1; i <= TAILLE_LIMITE; i++) {
+            int octet = enregistrements.get(index + i);
+            if ((octet & 0x80) != 0) {
+                return false;
+            }
+            limite = limite << 7 | octet;
+        }
+        if (limite > Integer.MAX_VALUE) {
+            return false;
+        }
+        try {
+            jeu.setLimiteCoups((int) limite);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indique si la dernière partie du journal a été commencée sans être terminée : ni close,
+     * ni gagnée ou nulle.
+     */
+    public boolean aPartieEnCours() {
+        return partieOuverte;
+    }
+
+    /**
+     * Reconstruit la dernière partie non terminée du journal, puis y attache le journal :
+     * les coups suivants la prolongent. Sans partie en cours, une nouvelle partie est créée.
+     */
+    public JeuAraignee reprendrePartie(String nomJoueur1, String nomJoueur2) throws IOException {
+        JeuAraignee jeu = new JeuAraignee(nomJoueur1, nomJoueur2);
+        if (partieOuverte) {
+            ecrireTampon(false);
+            rejouer(lire(canal, debutPartieEnCours), jeu);
+        }
+        jeu.setJournal(this);
+        return jeu;
+    }
+
+    /**
+     * Note la limite de coups de la partie : écrite tout de suite si une partie est ouverte,
+     * sinon en tête de la prochaine partie. Sans effet si la limite ne change pas.
+     */
+    public void enregistrerLimite(int limiteCoups) {
+        ReglesNulle.verifierLimite(limiteCoups);
+        if (limiteCoups == this.limiteCoups) {
+            return;
+        }
+        this.limiteCoups = limiteCoups;
+        if (partieOuverte) {
+            try {
+                ajouterLimite();
+                if (politique == PolitiqueSynchro.CHAQUE_COUP) {
+                    ecrireTampon(true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void enregistrerCoup(int coup) {
+        enregistrer((byte) coup);
+    }
+
+    public void enregistrerAnnulation() {
+        enregistrer(ANNULATION);
+    }
+
+    public void enregistrerRetablissement() {
+        enregistrer(RETABLISSEMENT);
+    }
+
+    /**
+     * Clôt la partie en cours. Sans effet si aucun coup n'a été enregistré depuis la dernière clôture.
+     */
+    public void terminerPartie() {
+        if (!partieOuverte) {
+            return;
+        }
+        enregistrer(FIN_PARTIE);
+        partieOuverte = false;
+        try {
+            ecrireTampon(politique != PolitiqueSynchro.AUCUNE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void enregistrer(byte enregistrement) {
+        try {
+            if (!partieOuverte) {
+                // Premier enregistrement d'une nouvelle partie : elle commence après tout ce qui est écrit ou en attente
+                debutPartieEnCours = canal.position() + tampon.position();
+                partieOuverte = true;
+                ajouterLimite();
+            }
+            ajouter(enregistrement);
+            if (politique == PolitiqueSynchro.CHAQUE_COUP) {
+                ecrireTampon(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ajouterLimite() throws IOException {
+        ajouter(LIMITE);
+        for (int i = TAILLE_LIMITE - 1; i >= 0; i--) {
+            ajouter((byte) ((long) limiteCoups >>> (7 * i) & 0x7F));
+        }
+    }
+
+    private void ajouter(byte octet) throws IOException {
+        tampon.put(octet);
+        if (!tampon.hasRemaining()) {
+            ecrireTampon(politique == PolitiqueSynchro.PAR_LOT);
+        }
+    }
+
+    private void ecrireTampon(boolean forcer) throws IOException {
+        tampon.flip();
+        while (tampon.hasRemaining()) {
+            canal.write(tampon);
+        }
+        tampon.clear();
+        if (forcer) {
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Écrit les enregistrements en attente et les force sur le disque, quelle que soit la politique.
+     */
+    public void synchroniser() throws IOException {
+        ecrireTampon(true);
+    }
+
+    /**
+     * Synchronise puis ferme le journal. Une partie non terminée pourra être reprise à la prochaine ouverture.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            synchroniser();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Parcourt séquentiellement toutes les parties d'un journal par projection mémoire, sans le modifier.
+     * Une dernière partie non terminée est transmise comme les autres.
+     *
+     * @return le nombre de parties lues
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un journal
+     */
+    public static long parcourir(Path fichier, LecteurPartie lecteur) throws IOException {
+        if (fichier == null || lecteur == null) {
+            throw new IllegalArgumentException("Le fichier et le lecteur ne peuvent pas être null");
+        }
+        long[] nbParties = new long[1];
+        parcourirFenetres(fichier, fenetre -> {
+            int debutPartie = 0;
+            for (int i = 0; i < fenetre.limit(); i++) {
+                if (fenetre.get(i) == FIN_PARTIE) {
+                    lecteur.lire(fenetre.slice(debutPartie, i - debutPartie));
+                    nbParties[0]++;
+                    debutPartie = i + 1;
+                }
+            }
+            if (debutPartie < fenetre.limit()) {
+                lecteur.lire(fenetre.slice(debutPartie, fenetre.limit() - debutPartie));
+                nbParties[0]++;
+            }
+        });
+        return nbParties[0];
+    }
+
+    /**
+     * Projette le journal en mémoire par fenêtres d'au plus 1 Go, ce qui autorise des journaux de toute taille.
+     * Chaque fenêtre ne contient que des parties entières séparées par FIN_PARTIE ; seule la dernière fenêtre
+     * peut se terminer par une partie non terminée.
+     */
+    static void parcourirFenetres(Path fichier, Consumer<ByteBuffer> lecteur) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            verifierEnTete(canal, fichier);
+            long taille = canal.size();
+            long debutFenetre = TAILLE_EN_TETE;
+            while (debutFenetre < taille) {
+                long tailleFenetre = Math.min(TAILLE_FENETRE, taille - debutFenetre);
+                MappedByteBuffer fenetre = canal.map(FileChannel.MapMode.READ_ONLY, debutFenetre, tailleFenetre);
+                if (debutFenetre + tailleFenetre == taille) {
+                    lecteur.accept(fenetre);
+                    return;
+                }
+                int finParties = fenetre.limit();
+                while (finParties > 0 && fenetre.get(finParties - 1) != FIN_PARTIE) {
+                    finParties--;
+                }
+                if (finParties == 0) {
+                    throw new IOException("Partie de plus de " + TAILLE_FENETRE + " enregistrements dans " + fichier);
+                }
+                // La partie coupée par la fin de la fenêtre est relue entière dans la suivante
+                lecteur.accept(fenetre.slice(0, finParties));
+                debutFenetre += finParties;
+            }
+        }
+    }
+
+    /**
+     * Usage : java JournalPartie fichier
+     * Affiche le nombre de parties et d'enregistrements d'un journal.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage : java JournalPartie fichier");
+            return;
+        }
+        long[] nbEnregistrements = new long[1];
+        long debut = System.nanoTime();
+        long nbParties = parcourir(Paths.get(args[0]), enregistrements -> nbEnregistrements[0] += enregistrements.remaining());
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.out.printf("%d parties, %d enregistrements lus en %.3f s%n", nbParties, nbEnregistrements[0], secondes);
+    }
+}
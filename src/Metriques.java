@@ -0,0 +1,189 @@
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques du moteur de jeu : coups appliqués, coups refusés par règle, vérifications de victoire
+ * et latence des coups, plus un événement JFR par coup.
+ *
+ * Les métriques sont activées au lancement par la propriété système araignee.metriques=true.
+ * ACTIVES est une constante : désactivées, les appels sont supprimés par le compilateur JIT et ne coûtent rien.
+ * Activées, les compteurs sont des LongAdder (répartis entre threads, sans contention) et la latence
+ * n'est mesurée qu'un coup sur 64, compté par thread, pour que l'appel à System.nanoTime reste amorti.
+ * Les vérifications de victoire comptées sont celles des coups joués par JeuAraignee et JeuVariante,
+ * pas celles des IA et du solveur.
+ *
+ * Le rapport texte est disponible par rapport(), ou par HTTP via exposer(port).
+ */
+public final class Metriques {
+
+    public static final boolean ACTIVES = Boolean.getBoolean("araignee.metriques");
+
+    /** Un coup sur ECHANTILLONNAGE_LATENCE joués par un même thread est chronométré. */
+    public static final int ECHANTILLONNAGE_LATENCE = 64;
+
+    /**
+     * Règles de validation de JeuAraignee qui peuvent refuser un coup.
+     */
+    public enum Refus {
+        POSITION_NULLE, PARTIE_TERMINEE, MAUVAISE_PHASE, TOUS_PIONS_PLACES, CASE_OCCUPEE,
+        CASE_VIDE, PION_ADVERSE, NON_ADJACENT, SUR_PLACE, COUP_ILLEGAL
+    }
+
+    private static final LongAdder COUPS_APPLIQUES = new LongAdder();
+    private static final LongAdder VICTOIRES = new LongAdder();
+    private static final LongAdder VERIFICATIONS_VICTOIRE = new LongAdder();
+    private static final LongAdder[] REFUS = new LongAdder[Refus.values().length];
+    private static final HistogrammeLatence LATENCES = new HistogrammeLatence();
+    /**
+     * Coups joués par chaque thread, pour l'échantillonnage de la latence. Le rang du coup dans la partie
+     * ne convient pas : les parties dépassent rarement 64 coups, et seul le premier placement serait chronométré.
+     */
+    private static final ThreadLocal<int[]> COUPS_DU_THREAD = ThreadLocal.withInitial(() -> new int[1]);
+
+    static {
+        for (int i = 0; i < REFUS.length; i++) {
+            REFUS[i] = new LongAdder();
+        }
+    }
+
+    private Metriques() {
+    }
+
+    /**
+     * Événement JFR émis à chaque coup appliqué par JeuAraignee (catégorie Araignée).
+     */
+    @Name("araignee.Coup")
+    @Label("Coup joué")
+    @Category("Araignée")
+    static final class EvenementCoup extends Event {
+        @Label("Coup")
+        int coup;
+        @Label("État après le coup")
+        int etat;
+        @Label("Victoire")
+        boolean victoire;
+    }
+
+    /**
+     * @return l'instant de début si ce coup doit être chronométré, 0 sinon
+     */
+    static long debutCoup() {
+        if (!ACTIVES) {
+            return 0;
+        }
+        int[] compteur = COUPS_DU_THREAD.get();
+        if ((compteur[0]++ & (ECHANTILLONNAGE_LATENCE - 1)) != 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    static void finCoup(long debut, int coup, int etat, boolean victoire) {
+        if (!ACTIVES) {
+            return;
+        }
+        if (debut != 0) {
+            LATENCES.enregistrer(System.nanoTime() - debut);
+        }
+        COUPS_APPLIQUES.increment();
+        if (victoire) {
+            VICTOIRES.increment();
+        }
+        EvenementCoup evenement = new EvenementCoup();
+        if (evenement.shouldCommit()) {
+            evenement.coup = coup;
+            evenement.etat = etat;
+            evenement.victoire = victoire;
+            evenement.commit();
+        }
+    }
+
+    static void refus(Refus regle) {
+        if (ACTIVES) {
+            REFUS[regle.ordinal()].increment();
+        }
+    }
+
+    static void verificationVictoire() {
+        if (ACTIVES) {
+            VERIFICATIONS_VICTOIRE.increment();
+        }
+    }
+
+    public static long getCoupsAppliques() {
+        return COUPS_APPLIQUES.sum();
+    }
+
+    public static long getRefus(Refus regle) {
+        return REFUS[regle.ordinal()].sum();
+    }
+
+    public static long getVerificationsVictoire() {
+        return VERIFICATIONS_VICTOIRE.sum();
+    }
+
+    public static HistogrammeLatence getLatences() {
+        return LATENCES;
+    }
+
+    public static void reinitialiser() {
+        COUPS_APPLIQUES.reset();
+        VICTOIRES.reset();
+        VERIFICATIONS_VICTOIRE.reset();
+        for (LongAdder refus : REFUS) {
+            refus.reset();
+        }
+        LATENCES.reinitialiser();
+    }
+
+    /**
+     * Rapport texte, une métrique par ligne au format « nom{étiquette} valeur ».
+     */
+    public static String rapport() {
+        StringBuilder texte = new StringBuilder();
+        texte.append("araignee_metriques_actives ").append(ACTIVES ? 1 : 0).append('\n');
+        texte.append("araignee_coups_appliques ").append(COUPS_APPLIQUES.sum()).append('\n');
+        texte.append("araignee_victoires ").append(VICTOIRES.sum()).append('\n');
+        texte.append("araignee_verifications_victoire ").append(VERIFICATIONS_VICTOIRE.sum()).append('\n');
+        for (Refus regle : Refus.values()) {
+            texte.append("araignee_coups_refuses{regle=\"").append(regle).append("\"} ")
+                .append(REFUS[regle.ordinal()].sum()).append('\n');
+        }
+        texte.append("araignee_latence_coup_ns_echantillons ").append(LATENCES.getNbValeurs()).append('\n');
+        for (double quantile : new double[] { 0.5, 0.9, 0.99, 0.999, 1.0 }) {
+            texte.append("araignee_latence_coup_ns{quantile=\"").append(quantile).append("\"} ")
+                .append(LATENCES.percentile(quantile)).append('\n');
+        }
+        return texte.toString();
+    }
+
+    /**
+     * Démarre un petit serveur HTTP qui renvoie rapport() en texte brut sur /metriques.
+     *
+     * @param port le port d'écoute (0 pour un port libre)
+     * @return le serveur démarré, à arrêter par stop(0)
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public static HttpServer exposer(int port) throws IOException {
+        HttpServer serveur = HttpServer.create(new InetSocketAddress(port), 0);
+        serveur.createContext("/metriques", echange -> {
+            byte[] corps = rapport().getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            echange.sendResponseHeaders(200, corps.length);
+            try (OutputStream sortie = echange.getResponseBody()) {
+                sortie.write(corps);
+            }
+        });
+        serveur.start();
+        return serveur;
+    }
+}
@@ -0,0 +1,312 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Recherche arborescente Monte-Carlo (UCT) avec parties aléatoires jouées en parallèle.
+ *
+ * Tous les threads partagent le même arbre (parallélisme d'arbre). Aucun verrou :
+ * - les compteurs de visites et de points d'un nœud sont mis à jour par opérations atomiques ;
+ * - les fils d'un nœud sont créés tous ensemble puis publiés par compare-and-set ;
+ * - une visite est comptée dès la descente, sans point (perte virtuelle), ce qui écarte les autres
+ *   threads du chemin en cours tant que la partie aléatoire n'est pas terminée.
+ *
+ * L'arbre est construit sur l'état compact (voir PlateauCompact et Coup), qui suit les règles de JeuAraignee.
+ * Une partie aléatoire qui dépasse LIMITE_PARTIE coups compte nulle, de même qu'une position où le joueur
+ * qui a le trait est bloqué (comme pour JeuAraignee et le Solveur).
+ * Un moteur ne mène qu'une réflexion à la fois.
+ */
+public class MoteurMonteCarlo {
+
+    public static final int LIMITE_PARTIE = 200;
+
+    /** Constante d'exploration d'UCT, pour des valeurs de nœud entre 0 et 1. */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final int nbThreads;
+    private final ExecutorService executeur;
+    private final SplittableRandom graines;
+
+    private long nbParties;
+    private long dureeNanos;
+
+    /**
+     * @param nbThreads nombre de threads qui jouent les parties aléatoires
+     * @param graine graine des générateurs aléatoires (chaque thread en dérive le sien)
+     */
+    public MoteurMonteCarlo(int nbThreads, long graine) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Il faut au moins un thread");
+        }
+        this.nbThreads = nbThreads;
+        this.graines = new SplittableRandom(graine);
+        // Avec un seul thread, la réflexion se fait dans le thread appelant
+        this.executeur = nbThreads == 1 ? null : Executors.newFixedThreadPool(nbThreads, tache -> {
+            Thread thread = new Thread(tache, "araignee-montecarlo");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Réfléchit sur la position de la partie pendant la durée donnée.
+     *
+     * @return le coup le plus visité, codé selon Coup, ou Coup.AUCUN si la partie est terminée
+     */
+    public int reflechir(JeuAraignee jeu, long dureeMillis) {
+        if (jeu.estPartieTerminee()) {
+            return Coup.AUCUN;
+        }
+        return reflechir(jeu.getEtatCompact(), dureeMillis);
+    }
+
+    /**
+     * Réfléchit sur un état compact pendant la durée donnée, en parallèle sur tous les threads du moteur.
+     *
+     * @return le coup le plus visité, codé selon Coup, ou Coup.AUCUN si la position est terminale
+     */
+    public int reflechir(int etat, long dureeMillis) {
+        if (dureeMillis <= 0) {
+            throw new IllegalArgumentException("La durée de réflexion doit être strictement positive");
+        }
+        Noeud racine = new Noeud(etat, Coup.AUCUN, -1, null);
+        if (racine.developper().length == 0) {
+            return Coup.AUCUN;
+        }
+
+        long debut = System.nanoTime();
+        long fin = debut + dureeMillis * 1_000_000L;
+        if (executeur == null) {
+            nbParties = explorer(racine, fin, graines.split());
+            dureeNanos = System.nanoTime() - debut;
+            return racine.plusVisite().coup;
+        }
+        List<Callable<Long>> taches = new ArrayList<>(nbThreads);
+        for (int t = 0; t < nbThreads; t++) {
+            SplittableRandom aleatoire = graines.split();
+            taches.add(() -> explorer(racine, fin, aleatoire));
+        }
+        long total = 0;
+        try {
+            for (Future<Long> resultat : executeur.invokeAll(taches)) {
+                total += resultat.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un thread de recherche", e.getCause());
+        }
+        nbParties = total;
+        dureeNanos = System.nanoTime() - debut;
+        return racine.plusVisite().coup;
+    }
+
+    /**
+     * Boucle d'un thread : sélection, développement, partie aléatoire, rétropropagation, jusqu'à l'échéance.
+     *
+     * @return le nombre de parties aléatoires jouées
+     */
+    private static long explorer(Noeud racine, long fin, SplittableRandom aleatoire) {
+        int[] coups = new int[Coup.MAX_COUPS];
+        long nb = 0;
+        while (System.nanoTime() < fin && !Thread.currentThread().isInterrupted()) {
+            Noeud noeud = racine;
+            noeud.ajouterVisite();
+            boolean sansCoup = false;
+            while (true) {
+                Noeud[] enfants = noeud.enfants;
+                if (enfants == null) {
+                    // Un nœud n'est développé qu'à sa deuxième visite, pour limiter la taille de l'arbre
+                    if (noeud.visites < 2) {
+                        break;
+                    }
+                    enfants = noeud.developper();
+                }
+                if (enfants.length == 0) {
+                    sansCoup = true;
+                    break;
+                }
+                noeud = choisirEnfant(noeud, enfants);
+                noeud.ajouterVisite();
+            }
+
+            // Une position gagnée ou bloquée a une issue connue : elle est comptée sans partie aléatoire
+            int gagnant = sansCoup ? issueSansCoup(noeud.etat) : jouerPartieAleatoire(noeud.etat, coups, aleatoire);
+            for (Noeud n = noeud; n.joueur >= 0; n = n.parent) {
+                n.ajouterDemiPoints(gagnant < 0 ? 1 : gagnant == n.joueur ? 2 : 0);
+            }
+            nb++;
+        }
+        return nb;
+    }
+
+    private static Noeud choisirEnfant(Noeud parent, Noeud[] enfants) {
+        double logVisites = Math.log(Math.max(1, parent.visites));
+        Noeud meilleur = enfants[0];
+        double meilleureValeur = Double.NEGATIVE_INFINITY;
+        for (Noeud enfant : enfants) {
+            int visites = enfant.visites;
+            if (visites == 0) {
+                return enfant;
+            }
+            double valeur = enfant.demiPoints / (2.0 * visites) + EXPLORATION * Math.sqrt(logVisites / visites);
+            if (valeur > meilleureValeur) {
+                meilleureValeur = valeur;
+                meilleur = enfant;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * @return le joueur gagnant (0 ou 1), ou -1 si la partie est nulle (joueur bloqué ou limite de coups)
+     */
+    private static int jouerPartieAleatoire(int etat, int[] coups, SplittableRandom aleatoire) {
+        for (int n = 0; n < LIMITE_PARTIE; n++) {
+            int nb = Coup.generer(etat, coups);
+            if (nb == 0) {
+                return issueSansCoup(etat);
+            }
+            etat = Coup.appliquer(etat, coups[aleatoire.nextInt(nb)]);
+        }
+        return -1;
+    }
+
+    /**
+     * Issue d'une position sans coup légal : après un coup gagnant, le trait reste au vainqueur
+     * (voir Coup.appliquer) ; sinon le joueur qui a le trait est bloqué et la partie est nulle.
+     *
+     * @return le joueur gagnant (0 ou 1), ou -1 pour une nulle
+     */
+    private static int issueSansCoup(int etat) {
+        return PlateauCompact.estTerminee(etat) ? PlateauCompact.trait(etat) : -1;
+    }
+
+    /**
+     * @return le nombre de parties aléatoires de la dernière réflexion
+     */
+    public long getNbParties() {
+        return nbParties;
+    }
+
+    public double getPartiesParSeconde() {
+        return dureeNanos == 0 ? 0 : nbParties * 1e9 / dureeNanos;
+    }
+
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
+    public void arreter() {
+        if (executeur != null) {
+            executeur.shutdownNow();
+        }
+    }
+
+    /**
+     * Nœud de l'arbre. Ses points sont comptés du point de vue du joueur qui a joué le coup qui y mène,
+     * en demi-points (victoire 2, nulle 1, défaite 0).
+     */
+    private static final class Noeud {
+
+        private static final Noeud[] AUCUN_ENFANT = new Noeud[0];
+        private static final AtomicIntegerFieldUpdater<Noeud> VISITES =
+            AtomicIntegerFieldUpdater.newUpdater(Noeud.class, "visites");
+        private static final AtomicIntegerFieldUpdater<Noeud> DEMI_POINTS =
+            AtomicIntegerFieldUpdater.newUpdater(Noeud.class, "demiPoints");
+        private static final AtomicReferenceFieldUpdater<Noeud, Noeud[]> ENFANTS =
+            AtomicReferenceFieldUpdater.newUpdater(Noeud.class, Noeud[].class, "enfants");
+
+        final int etat;
+        final int coup;
+        /** Joueur qui a joué le coup menant à ce nœud, -1 pour la racine. */
+        final int joueur;
+        final Noeud parent;
+        volatile int visites;
+        volatile int demiPoints;
+        volatile Noeud[] enfants;
+
+        Noeud(int etat, int coup, int joueur, Noeud parent) {
+            this.etat = etat;
+            this.coup = coup;
+            this.joueur = joueur;
+            this.parent = parent;
+        }
+
+        void ajouterVisite() {
+            VISITES.incrementAndGet(this);
+        }
+
+        void ajouterDemiPoints(int demiPointsPartie) {
+            if (demiPointsPartie != 0) {
+                DEMI_POINTS.addAndGet(this, demiPointsPartie);
+            }
+        }
+
+        /**
+         * Crée les fils du nœud s'ils n'existent pas encore. Si deux threads les créent en même temps,
+         * un seul tableau est publié et tous deux l'utilisent.
+         */
+        Noeud[] developper() {
+            Noeud[] existants = enfants;
+            if (existants != null) {
+                return existants;
+            }
+            int[] coups = new int[Coup.MAX_COUPS];
+            int nb = Coup.generer(etat, coups);
+            Noeud[] nouveaux = nb == 0 ? AUCUN_ENFANT : new Noeud[nb];
+            int trait = PlateauCompact.trait(etat);
+            for (int i = 0; i < nb; i++) {
+                nouveaux[i] = new Noeud(Coup.appliquer(etat, coups[i]), coups[i], trait, this);
+            }
+            return ENFANTS.compareAndSet(this, null, nouveaux) ? nouveaux : enfants;
+        }
+
+        Noeud plusVisite() {
+            Noeud meilleur = enfants[0];
+            for (Noeud enfant : enfants) {
+                if (enfant.visites > meilleur.visites) {
+                    meilleur = enfant;
+                }
+            }
+            return meilleur;
+        }
+    }
+
+    /**
+     * Usage : java MoteurMonteCarlo [durée en ms] [threads max]
+     * Mesure le nombre de parties aléatoires par seconde depuis la position initiale, de 1 thread
+     * jusqu'au nombre maximal en doublant à chaque palier.
+     */
+    public static void main(String[] args) {
+        long dureeMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int nbThreadsMax = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double reference = 0;
+        for (int palier = 1; ; palier *= 2) {
+            int nbThreads = Math.min(palier, nbThreadsMax);
+            MoteurMonteCarlo moteur = new MoteurMonteCarlo(nbThreads, 42);
+            try {
+                moteur.reflechir(PlateauCompact.ETAT_INITIAL, Math.min(dureeMillis, 200));
+                int coup = moteur.reflechir(PlateauCompact.ETAT_INITIAL, dureeMillis);
+                double debit = moteur.getPartiesParSeconde();
+                if (nbThreads == 1) {
+                    reference = debit;
+                }
+                System.out.printf("%2d threads : %,.0f parties/s (x%.2f), coup choisi %s%n",
+                    nbThreads, debit, debit / reference, Coup.toString(coup));
+            } finally {
+                moteur.arreter();
+            }
+            if (nbThreads == nbThreadsMax) {
+                break;
+            }
+        }
+    }
+}
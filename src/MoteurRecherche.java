@@ -0,0 +1,287 @@
+/**
+ * Recherche du meilleur coup pour le joueur qui a le trait, par negamax avec élagage alpha-beta.
+ *
+ * - approfondissement itératif sous un budget de temps : le coup renvoyé est celui de la dernière
+ *   profondeur entièrement explorée ;
+ * - table de transposition indexée par le hash de Zobrist de la position ;
+ * - tri des coups : coup de la table, puis coups gagnants, puis coups qui bloquent un alignement adverse ;
+ * - une position qui se répète sur le chemin de recherche (va-et-vient en DEPLACEMENT) vaut nulle.
+ *
+ * La recherche travaille sur l'état compact (voir PlateauCompact et Coup), qui suit exactement
+ * les règles de JeuAraignee, y compris le passage de PLACEMENT à DEPLACEMENT.
+ * Une instance n'est pas thread-safe : utiliser une instance par thread.
+ */
+public class MoteurRecherche {
+
+    public static final int VICTOIRE = 10_000;
+
+    private static final int PROFONDEUR_MAX = 64;
+    private static final int SEUIL_VICTOIRE = VICTOIRE - PROFONDEUR_MAX - 1;
+    private static final int BITS_TABLE = 16;
+    private static final int MASQUE_TABLE = (1 << BITS_TABLE) - 1;
+    private static final int INTERVALLE_VERIFICATION = 1024;
+
+    private static final int EXACT = 0;
+    private static final int BORNE_INF = 1;
+    private static final int BORNE_SUP = 2;
+
+    private final long dureeMaxNanos;
+    private final int profondeurMax;
+    private final long[] clesTable;
+    private final long[] entreesTable;
+    private final int[][] tampons;
+    private final int[][] priorites;
+    private final long[] hashesChemin;
+
+    private long echeance;
+    private boolean interrompu;
+    private long noeuds;
+    private int profondeurAtteinte;
+    private int dernierScore;
+
+    /**
+     * @param dureeMaxMillis budget de temps par recherche, en millisecondes
+     */
+    public MoteurRecherche(long dureeMaxMillis) {
+        this(dureeMaxMillis, PROFONDEUR_MAX);
+    }
+
+    /**
+     * @param dureeMaxMillis budget de temps par recherche, en millisecondes
+     * @param profondeurMax profondeur maximale de l'approfondissement itératif (1 à 64)
+     */
+    public MoteurRecherche(long dureeMaxMillis, int profondeurMax) {
+        if (dureeMaxMillis <= 0) {
+            throw new IllegalArgumentException("Le budget de temps doit être strictement positif");
+        }
+        if (profondeurMax < 1 || profondeurMax > PROFONDEUR_MAX) {
+            throw new IllegalArgumentException("La profondeur maximale doit être entre 1 et " + PROFONDEUR_MAX);
+        }
+        this.dureeMaxNanos = dureeMaxMillis * 1_000_000L;
+        this.profondeurMax = profondeurMax;
+        this.clesTable = new long[1 << BITS_TABLE];
+        this.entreesTable = new long[1 << BITS_TABLE];
+        this.tampons = new int[PROFONDEUR_MAX + 1][Coup.MAX_COUPS];
+        this.priorites = new int[PROFONDEUR_MAX + 1][Coup.MAX_COUPS];
+        this.hashesChemin = new long[PROFONDEUR_MAX + 2];
+    }
+
+    /**
+     * Cherche le meilleur coup du joueur qui a le trait dans le budget de temps.
+     * La recherche s'arrête aussi, avec le meilleur coup connu, si le thread appelant est interrompu.
+     *
+     * @param etat l'état compact de la partie
+     * @return le coup choisi (codé selon Coup), ou Coup.AUCUN si aucun coup n'est possible
+     */
+    public int chercherCoup(int etat) {
+        int[] coupsRacine = tampons[0];
+        int nb = Coup.generer(etat, coupsRacine);
+        if (nb == 0) {
+            return Coup.AUCUN;
+        }
+        echeance = System.nanoTime() + dureeMaxNanos;
+        interrompu = false;
+        noeuds = 0;
+        profondeurAtteinte = 0;
+
+        long hash = Zobrist.hash(etat);
+        int meilleurCoup = coupsRacine[0];
+        for (int profondeur = 1; profondeur <= profondeurMax; profondeur++) {
+            int score = negamax(etat, hash, profondeur, 0, -VICTOIRE - 1, VICTOIRE + 1);
+            if (interrompu) {
+                break;
+            }
+            int coupRacine = coupTable(hash);
+            if (coupRacine != Coup.AUCUN) {
+                meilleurCoup = coupRacine;
+            }
+            dernierScore = score;
+            profondeurAtteinte = profondeur;
+            if (Math.abs(score) >= SEUIL_VICTOIRE) {
+                break;
+            }
+        }
+        return meilleurCoup;
+    }
+
+    private int negamax(int etat, long hash, int profondeur, int ply, int alpha, int beta) {
+        if ((++noeuds & (INTERVALLE_VERIFICATION - 1)) == 0
+                && (System.nanoTime() > echeance || Thread.currentThread().isInterrupted())) {
+            interrompu = true;
+        }
+        if (interrompu) {
+            return 0;
+        }
+        if (ply > 0 && PlateauCompact.estEnDeplacement(etat)) {
+            for (int i = ply - 2; i >= 0; i -= 2) {
+                if (hashesChemin[i] == hash) {
+                    return 0;
+                }
+            }
+        }
+        hashesChemin[ply] = hash;
+        if (profondeur == 0) {
+            return evaluer(etat);
+        }
+
+        int indexTable = (int) hash & MASQUE_TABLE;
+        int coupTable = Coup.AUCUN;
+        if (clesTable[indexTable] == hash) {
+            long entree = entreesTable[indexTable];
+            coupTable = (int) (entree & 0xFF);
+            if (ply > 0 && ((entree >>> 8) & 0xFF) >= profondeur) {
+                int score = scoreDepuisTable((int) (entree >> 32), ply);
+                int type = (int) ((entree >>> 16) & 3);
+                if (type == EXACT) {
+                    return score;
+                } else if (type == BORNE_INF) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int[] coups = tampons[ply];
+        int nb = Coup.generer(etat, coups);
+        if (nb == 0) {
+            return 0;
+        }
+        ordonner(etat, coups, priorites[ply], nb, coupTable);
+
+        int alphaInitial = alpha;
+        int meilleurScore = -VICTOIRE - 1;
+        int meilleurCoup = coups[0];
+        for (int i = 0; i < nb; i++) {
+            int coup = coups[i];
+            int suivant = Coup.appliquer(etat, coup);
+            int score;
+            if (PlateauCompact.estTerminee(suivant)) {
+                score = VICTOIRE - ply - 1;
+            } else {
+                score = -negamax(suivant, Zobrist.apresCoup(hash, etat, suivant, coup), profondeur - 1, ply + 1, -beta, -alpha);
+            }
+            if (interrompu) {
+                return 0;
+            }
+            if (score > meilleurScore) {
+                meilleurScore = score;
+                meilleurCoup = coup;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int type = meilleurScore <= alphaInitial ? BORNE_SUP : meilleurScore >= beta ? BORNE_INF : EXACT;
+        clesTable[indexTable] = hash;
+        entreesTable[indexTable] = ((long) scoreVersTable(meilleurScore, ply) << 32)
+            | ((long) type << 16) | ((long) profondeur << 8) | meilleurCoup;
+        return meilleurScore;
+    }
+
+    /**
+     * Trie les coups par priorité décroissante : coup de la table, victoire immédiate,
+     * blocage d'un alignement adverse, puis les autres.
+     */
+    private static void ordonner(int etat, int[] coups, int[] priorites, int nb, int coupTable) {
+        int joueur = PlateauCompact.trait(etat);
+        int adversaire = PlateauCompact.masque(etat, 1 - joueur);
+        for (int i = 0; i < nb; i++) {
+            int coup = coups[i];
+            int destination = Coup.destination(coup);
+            int priorite = 0;
+            if (coup == coupTable) {
+                priorite += 1000;
+            }
+            int apres = PlateauCompact.masque(Coup.appliquer(etat, coup), joueur);
+            if (VictoireChecker.aAligneApres(apres, destination)) {
+                priorite += 500;
+            }
+            if (VictoireChecker.aAligne(adversaire | (1 << destination))) {
+                priorite += 100;
+            }
+            priorites[i] = priorite;
+        }
+        for (int i = 1; i < nb; i++) {
+            int coup = coups[i];
+            int priorite = priorites[i];
+            int j = i - 1;
+            while (j >= 0 && priorites[j] < priorite) {
+                coups[j + 1] = coups[j];
+                priorites[j + 1] = priorites[j];
+                j--;
+            }
+            coups[j + 1] = coup;
+            priorites[j + 1] = priorite;
+        }
+    }
+
+    /**
+     * Évaluation statique du point de vue du joueur qui a le trait :
+     * chaque alignement encore libre de pions adverses rapporte selon le nombre de pions déjà posés.
+     */
+    static int evaluer(int etat) {
+        int joueur = PlateauCompact.trait(etat);
+        int moi = PlateauCompact.masque(etat, joueur);
+        int lui = PlateauCompact.masque(etat, 1 - joueur);
+        int score = 0;
+        for (int i = 0; i < VictoireChecker.NB_ALIGNEMENTS; i++) {
+            int alignement = VictoireChecker.masqueAlignement(i);
+            int a = Integer.bitCount(moi & alignement);
+            int b = Integer.bitCount(lui & alignement);
+            if (b == 0) {
+                score += a * a;
+            } else if (a == 0) {
+                score -= b * b;
+            }
+        }
+        return score;
+    }
+
+    private int coupTable(long hash) {
+        int indexTable = (int) hash & MASQUE_TABLE;
+        return clesTable[indexTable] == hash ? (int) (entreesTable[indexTable] & 0xFF) : Coup.AUCUN;
+    }
+
+    private static int scoreVersTable(int score, int ply) {
+        if (score >= SEUIL_VICTOIRE) {
+            return score + ply;
+        }
+        if (score <= -SEUIL_VICTOIRE) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreDepuisTable(int score, int ply) {
+        if (score >= SEUIL_VICTOIRE) {
+            return score - ply;
+        }
+        if (score <= -SEUIL_VICTOIRE) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /** Nombre de positions visitées par la dernière recherche. */
+    public long getNoeuds() {
+        return noeuds;
+    }
+
+    /** Dernière profondeur entièrement explorée par la dernière recherche. */
+    public int getProfondeurAtteinte() {
+        return profondeurAtteinte;
+    }
+
+    /** Score de la dernière profondeur entièrement explorée, du point de vue du joueur qui avait le trait. */
+    public int getDernierScore() {
+        return dernierScore;
+    }
+}
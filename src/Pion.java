@@ -39,7 +39,14 @@ public class Pion {
     }
 
     public boolean appartientA(Joueur joueur) {
-        return joueur != null && proprietaire.equals(joueur);
+        return joueur != null && proprietaire.getId() == joueur.getId();
+    }
+
+    /**
+     * @param idJoueur l'identifiant du joueur (voir Joueur.getId)
+     */
+    public boolean appartientA(int idJoueur) {
+        return proprietaire.getId() == idJoueur;
     }
 
     @Override
@@ -47,14 +54,14 @@ public class Pion {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Pion pion = (Pion) obj;
-        return proprietaire.equals(pion.proprietaire) && 
+        return proprietaire.getId() == pion.proprietaire.getId() && 
                ((position == null && pion.position == null) || 
                 (position != null && position.equals(pion.position)));
     }
 
     @Override
     public int hashCode() {
-        int result = proprietaire.hashCode();
+        int result = proprietaire.getId();
         result = 31 * result + (position != null ? position.hashCode() : 0);
         return result;
     }
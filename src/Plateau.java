@@ -1,51 +1,124 @@
+/**
+ * Plateau 3×3 du jeu de l'Araignée.
+ * L'occupation des cases est stockée dans un état compact (voir PlateauCompact) ;
+ * les pions sont conservés à côté pour que l'API objet reste utilisable par le contrôleur et la vue.
+ *
+ * Le plateau maintient aussi, pion par pion, les hashes de Zobrist de ses 16 images par symétrie
+ * (voir Symetries), d'où un hash canonique disponible en O(1) sans recalcul.
+ */
 public class Plateau {
 
-    private final Pion[][] grille;
+    private final Pion[] pions;
+    private int etat;
+    private final long[] hashesImages = new long[Symetries.NB_TRANSFORMATIONS];
 
+    /**
+     * Crée un plateau vide. Les pions sont rangés dans le masque de l'état compact
+     * de l'identifiant de leur propriétaire (voir Joueur.getId).
+     */
     public Plateau() {
-        this.grille = new Pion[3][3];
+        this.pions = new Pion[PlateauCompact.NB_CASES];
+        this.etat = PlateauCompact.ETAT_INITIAL;
     }
-    
+
     public boolean estLibre(Position position) {
         validerPosition(position);
-        return grille[position.getX()][position.getY()] == null;
+        return estLibre(position.getIndex());
+    }
+
+    public boolean estLibre(int indexCase) {
+        return PlateauCompact.estLibre(etat, indexCase);
     }
-    
+
     public void placerPion(Pion pion, Position position) {
         if (pion == null) {
             throw new IllegalArgumentException("Le pion ne peut pas être null");
         }
         validerPosition(position);
-        
+
         if (!estLibre(position)) {
             throw new IllegalArgumentException("La case " + position + " n'est pas libre");
         }
-        
-        grille[position.getX()][position.getY()] = pion;
+
+        int indexCase = position.getIndex();
+        pions[indexCase] = pion;
+        int joueur = pion.getProprietaire().getId();
+        etat = PlateauCompact.placer(etat, joueur, indexCase);
+        basculerHashes(joueur, indexCase);
         pion.setPosition(position);
     }
-    
+
     public Pion retirerPion(Position position) {
         validerPosition(position);
-        
-        Pion pion = grille[position.getX()][position.getY()];
-        
+
+        int indexCase = position.getIndex();
+        Pion pion = pions[indexCase];
+
         if (pion != null) {
-            grille[position.getX()][position.getY()] = null;
+            pions[indexCase] = null;
+            basculerHashes(PlateauCompact.proprietaire(etat, indexCase), indexCase);
+            etat = PlateauCompact.retirer(etat, indexCase);
             pion.retirerDuPlateau();
         }
-        
+
         return pion;
     }
-    
+
     public Pion obtenirPion(Position position) {
         validerPosition(position);
-        return grille[position.getX()][position.getY()];
+        return pions[position.getIndex()];
+    }
+
+    /**
+     * Retourne l'occupation du plateau sous forme compacte (masques des deux joueurs).
+     * Les bits de trait et de phase sont à 0 : ils relèvent de JeuAraignee.
+     */
+    public int getEtatCompact() {
+        return etat;
+    }
+
+    /**
+     * Retourne le hash de la position invariant par symétrie, égal à Symetries.hashCanonique
+     * de l'état complet (occupation, trait et phase fournis par l'appelant).
+     *
+     * @param trait le joueur qui a le trait (0 ou 1)
+     * @param phase la phase de la partie
+     */
+    public long getHashCanonique(int trait, Phase phase) {
+        long clePhase = phase == Phase.DEPLACEMENT ? Zobrist.clePhase() : 0;
+        long minimum = Long.MAX_VALUE;
+        for (int t = 0; t < Symetries.NB_TRANSFORMATIONS; t++) {
+            int traitImage = Symetries.echangeCouleurs(t) ? 1 - trait : trait;
+            long hash = hashesImages[t] ^ clePhase ^ (traitImage == 1 ? Zobrist.cleTrait() : 0);
+            minimum = Math.min(minimum, hash);
+        }
+        return minimum;
+    }
+
+    private void basculerHashes(int joueur, int indexCase) {
+        long[] cles = Symetries.clesPionImages(joueur, indexCase);
+        for (int t = 0; t < cles.length; t++) {
+            hashesImages[t] ^= cles[t];
+        }
+    }
+
+    /**
+     * Retourne le masque des cases occupées par un joueur, 0 pour null.
+     */
+    public int masqueDe(Joueur joueur) {
+        return joueur == null ? 0 : masqueDe(joueur.getId());
     }
-    
+
+    /**
+     * @param idJoueur l'identifiant du joueur (voir Joueur.getId)
+     */
+    public int masqueDe(int idJoueur) {
+        return PlateauCompact.masque(etat, idJoueur);
+    }
+
     private void validerPosition(Position position) {
         if (position == null) {
             throw new IllegalArgumentException("La position ne peut pas être null");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+/**
+ * Représentation compacte du plateau 3×3 du jeu de l'Araignée, entièrement codée dans un int.
+ *
+ * Disposition des bits :
+ * - bits 0 à 8   : cases occupées par le joueur 0 (Rouge), case d'index x * 3 + y
+ * - bits 9 à 17  : cases occupées par le joueur 1 (Bleu)
+ * - bit 18       : joueur qui a le trait (0 ou 1)
+ * - bit 19       : phase (0 = PLACEMENT, 1 = DEPLACEMENT)
+ *
+ * Toutes les méthodes sont statiques, sans allocation et sans validation :
+ * c'est à l'appelant (Plateau, JeuAraignee) de vérifier la légalité des coups.
+ */
+public final class PlateauCompact {
+
+    public static final int NB_CASES = 9;
+    public static final int MASQUE_CASES = 0x1FF;
+    public static final int DECALAGE_JOUEUR2 = 9;
+    public static final int BIT_TRAIT = 1 << 18;
+    public static final int BIT_PHASE = 1 << 19;
+
+    /** État initial : plateau vide, trait au joueur 0, phase de placement. */
+    public static final int ETAT_INITIAL = 0;
+
+    /** Nombre d'index distincts de indexParfait : 3^9 contenus de plateau × 2 traits. */
+    public static final int NB_INDEX = 19683 * 2;
+
+    /** Contribution d'un masque de 9 bits à l'écriture en base 3 du plateau (1 par case occupée). */
+    private static final int[] TERNAIRE = new int[1 << NB_CASES];
+
+    static {
+        for (int masque = 1; masque < TERNAIRE.length; masque++) {
+            int bas = Integer.numberOfTrailingZeros(masque);
+            int puissance = 1;
+            for (int i = 0; i < bas; i++) {
+                puissance *= 3;
+            }
+            TERNAIRE[masque] = TERNAIRE[masque & (masque - 1)] + puissance;
+        }
+    }
+
+    private PlateauCompact() {
+    }
+
+    public static int index(int x, int y) {
+        return x * 3 + y;
+    }
+
+    public static int masque(int etat, int joueur) {
+        return (etat >>> (joueur * DECALAGE_JOUEUR2)) & MASQUE_CASES;
+    }
+
+    public static int occupation(int etat) {
+        return (etat | (etat >>> DECALAGE_JOUEUR2)) & MASQUE_CASES;
+    }
+
+    public static boolean estLibre(int etat, int indexCase) {
+        return (occupation(etat) & (1 << indexCase)) == 0;
+    }
+
+    /**
+     * @return 0 ou 1 selon le joueur qui occupe la case, -1 si elle est libre
+     */
+    public static int proprietaire(int etat, int indexCase) {
+        if ((etat & (1 << indexCase)) != 0) {
+            return 0;
+        }
+        if ((etat & (1 << (indexCase + DECALAGE_JOUEUR2))) != 0) {
+            return 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne le masque des cases libres adjacentes à une case : les destinations possibles d'un pion.
+     */
+    public static int destinations(int etat, int origine) {
+        return Position.masqueVoisines(origine) & ~occupation(etat);
+    }
+
+    public static int nbPions(int etat, int joueur) {
+        return Integer.bitCount(masque(etat, joueur));
+    }
+
+    public static int placer(int etat, int joueur, int indexCase) {
+        return etat | (1 << (indexCase + joueur * DECALAGE_JOUEUR2));
+    }
+
+    public static int retirer(int etat, int indexCase) {
+        return etat & ~((1 << indexCase) | (1 << (indexCase + DECALAGE_JOUEUR2)));
+    }
+
+    public static int deplacer(int etat, int joueur, int origine, int destination) {
+        int decalage = joueur * DECALAGE_JOUEUR2;
+        return (etat & ~(1 << (origine + decalage))) | (1 << (destination + decalage));
+    }
+
+    /**
+     * Une partie est terminée quand le joueur qui a le trait possède un alignement :
+     * après un coup gagnant, le trait reste au gagnant (comme dans JeuAraignee).
+     */
+    public static boolean estTerminee(int etat) {
+        return VictoireChecker.aAligne(masque(etat, trait(etat)));
+    }
+
+    /**
+     * Un joueur est bloqué quand, en phase de déplacement, aucun de ses pions n'a de case voisine libre.
+     * En phase de placement, il reste toujours une case libre.
+     */
+    public static boolean estBloque(int etat) {
+        if (!estEnDeplacement(etat)) {
+            return false;
+        }
+        int libres = ~occupation(etat) & MASQUE_CASES;
+        for (int pions = masque(etat, trait(etat)); pions != 0; pions &= pions - 1) {
+            if ((Position.masqueVoisines(Integer.numberOfTrailingZeros(pions)) & libres) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int trait(int etat) {
+        return (etat & BIT_TRAIT) != 0 ? 1 : 0;
+    }
+
+    public static int avecTrait(int etat, int joueur) {
+        return joueur == 0 ? etat & ~BIT_TRAIT : etat | BIT_TRAIT;
+    }
+
+    public static int changerTrait(int etat) {
+        return etat ^ BIT_TRAIT;
+    }
+
+    public static Phase phase(int etat) {
+        return (etat & BIT_PHASE) != 0 ? Phase.DEPLACEMENT : Phase.PLACEMENT;
+    }
+
+    public static boolean estEnDeplacement(int etat) {
+        return (etat & BIT_PHASE) != 0;
+    }
+
+    public static int avecPhase(int etat, Phase phase) {
+        return phase == Phase.DEPLACEMENT ? etat | BIT_PHASE : etat & ~BIT_PHASE;
+    }
+
+    public static int creer(int masqueJoueur1, int masqueJoueur2, int trait, Phase phase) {
+        int etat = (masqueJoueur1 & MASQUE_CASES) | ((masqueJoueur2 & MASQUE_CASES) << DECALAGE_JOUEUR2);
+        return avecPhase(avecTrait(etat, trait), phase);
+    }
+
+    /**
+     * Hachage parfait de l'état vers 0..NB_INDEX-1 : chaque case vaut 0 (libre), 1 (joueur 0) ou 2 (joueur 1),
+     * le plateau est lu en base 3 puis combiné avec le trait.
+     * La phase n'est pas codée : elle se déduit du nombre de pions posés.
+     */
+    public static int indexParfait(int etat) {
+        return (TERNAIRE[masque(etat, 0)] + 2 * TERNAIRE[masque(etat, 1)]) * 2 + trait(etat);
+    }
+
+    /**
+     * Inverse de indexParfait. La phase est DEPLACEMENT dès que les 6 pions sont posés.
+     */
+    public static int etatDepuisIndex(int index) {
+        int masqueJoueur1 = 0;
+        int masqueJoueur2 = 0;
+        int plateau = index >> 1;
+        for (int i = 0; i < NB_CASES; i++) {
+            int chiffre = plateau % 3;
+            if (chiffre == 1) {
+                masqueJoueur1 |= 1 << i;
+            } else if (chiffre == 2) {
+                masqueJoueur2 |= 1 << i;
+            }
+            plateau /= 3;
+        }
+        Phase phase = Integer.bitCount(masqueJoueur1 | masqueJoueur2) == 6 ? Phase.DEPLACEMENT : Phase.PLACEMENT;
+        return creer(masqueJoueur1, masqueJoueur2, index & 1, phase);
+    }
+
+    public static String toString(int etat) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NB_CASES; i++) {
+            int proprietaire = proprietaire(etat, i);
+            sb.append(proprietaire == 0 ? 'R' : proprietaire == 1 ? 'B' : '.');
+            if (i % 3 == 2) {
+                sb.append('/');
+            }
+        }
+        sb.append(" trait=").append(trait(etat)).append(' ').append(phase(etat));
+        return sb.toString();
+    }
+}
@@ -1,30 +1,103 @@
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Case du plateau 3×3, identifiée par ses coordonnées (x, y) ou par son index x * 3 + y (0..8).
+ * Les 9 positions possibles sont précalculées : Position.of renvoie toujours la même instance.
+ */
 public class Position {
+
+    private static final Position[] CACHE = new Position[9];
+    private static final int[] MASQUES_VOISINES = new int[9];
+    private static final List<List<Position>> VOISINES = new ArrayList<>(9);
+
+    static {
+        for (int index = 0; index < 9; index++) {
+            CACHE[index] = new Position(index / 3, index % 3);
+        }
+        for (int index = 0; index < 9; index++) {
+            List<Position> voisines = new ArrayList<>(4);
+            for (int autre = 0; autre < 9; autre++) {
+                int deltaX = Math.abs(index / 3 - autre / 3);
+                int deltaY = Math.abs(index % 3 - autre % 3);
+                if (deltaX + deltaY == 1) {
+                    MASQUES_VOISINES[index] |= 1 << autre;
+                    voisines.add(CACHE[autre]);
+                }
+            }
+            VOISINES.add(Collections.unmodifiableList(voisines));
+        }
+    }
+
     private final int x;
     private final int y;
-    
+    private final int index;
+
     public Position(int x, int y) {
         if (x < 0 || x > 2 || y < 0 || y > 2) {
             throw new IllegalArgumentException("Position invalide. Les coordonnées doivent être entre 0 et 2.");
         }
         this.x = x;
         this.y = y;
+        this.index = x * 3 + y;
+    }
+
+    /**
+     * Retourne l'instance partagée de la position (x, y).
+     *
+     * @throws IllegalArgumentException si les coordonnées ne sont pas entre 0 et 2
+     */
+    public static Position of(int x, int y) {
+        if (x < 0 || x > 2 || y < 0 || y > 2) {
+            throw new IllegalArgumentException("Position invalide. Les coordonnées doivent être entre 0 et 2.");
+        }
+        return CACHE[x * 3 + y];
     }
-    
+
+    /**
+     * Retourne l'instance partagée de la position d'index donné.
+     *
+     * @throws IllegalArgumentException si l'index n'est pas entre 0 et 8
+     */
+    public static Position of(int index) {
+        if (index < 0 || index > 8) {
+            throw new IllegalArgumentException("Index de position invalide. Il doit être entre 0 et 8.");
+        }
+        return CACHE[index];
+    }
+
+    /**
+     * Retourne le masque (9 bits) des cases adjacentes à la case d'index donné.
+     */
+    public static int masqueVoisines(int index) {
+        return MASQUES_VOISINES[index];
+    }
+
     public int getX() {
         return x;
     }
-    
+
     public int getY() {
         return y;
     }
-    
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Retourne les positions adjacentes (haut, bas, gauche, droite), sous forme de liste non modifiable partagée.
+     */
+    public List<Position> getVoisines() {
+        return VOISINES.get(index);
+    }
+
     /**
      * Vérifie si cette position est adjacente à une autre.
      * Deux positions sont adjacentes si elles diffèrent d'exactement 1 case
      * horizontalement OU verticalement (les diagonales ne sont PAS adjacentes).
-     * 
+     *
      * @param autre l'autre position à comparer
      * @return true si les positions sont adjacentes, false sinon
      */
@@ -32,26 +105,24 @@ public class Position {
         if (autre == null) {
             return false;
         }
-        int deltaX = Math.abs(this.x - autre.x);
-        int deltaY = Math.abs(this.y - autre.y);
-        return (deltaX == 1 && deltaY == 0) || (deltaX == 0 && deltaY == 1);
+        return (MASQUES_VOISINES[index] & (1 << autre.index)) != 0;
     }
-    
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Position position = (Position) obj;
-        return x == position.x && y == position.y;
+        return index == position.index;
     }
-    
+
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return index;
     }
-    
+
     @Override
     public String toString() {
         return "Position(" + x + ", " + y + ")";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Protocole binaire compact pour les coups, les positions et les messages du ServeurJeu.
+ *
+ * - un coup tient sur 1 octet (codage de Coup : case de destination, ou paire origine/destination) ;
+ * - une position tient sur 3 octets : l'état compact de PlateauCompact (masques, trait et phase, 20 bits) ;
+ * - un identifiant de partie est un entier variable (7 bits par octet, 1 octet sous 128).
+ *
+ * Tout se lit et s'écrit directement dans un ByteBuffer fourni par l'appelant, sans tableau intermédiaire.
+ *
+ * Messages (type sur 1 octet, suivi de sa charge) :
+ * - client : NOUVELLE | COUP id coup | ETAT id | FERMER id
+ * - serveur : PARTIE id | OK id etat | FIN id etat | ETAT_PARTIE id etat | FERMEE id | ERREUR id code
+ */
+public final class ProtocoleBinaire {
+
+    public static final byte NOUVELLE = 0x01;
+    public static final byte COUP = 0x02;
+    public static final byte ETAT = 0x03;
+    public static final byte FERMER = 0x04;
+
+    public static final byte PARTIE = (byte) 0x81;
+    public static final byte OK = (byte) 0x82;
+    public static final byte FIN = (byte) 0x83;
+    public static final byte ETAT_PARTIE = (byte) 0x84;
+    public static final byte FERMEE = (byte) 0x85;
+    public static final byte ERREUR = (byte) 0xFF;
+
+    public static final byte ERREUR_PARTIE_INCONNUE = 1;
+    public static final byte ERREUR_COUP_ILLEGAL = 2;
+    public static final byte ERREUR_MESSAGE_INCONNU = 3;
+
+    public static final int TAILLE_ETAT = 3;
+
+    /** Retourné par tailleMessage quand le message n'est pas encore entièrement reçu. */
+    public static final int INCOMPLET = -1;
+    /** Retourné par tailleMessage quand le type de message est inconnu. */
+    public static final int INVALIDE = -2;
+
+    private static final int TAILLE_MAX_IDENTIFIANT = 5;
+
+    private ProtocoleBinaire() {
+    }
+
+    // Éléments de base
+
+    public static void ecrireCoup(ByteBuffer tampon, int coup) {
+        tampon.put((byte) coup);
+    }
+
+    public static int lireCoup(ByteBuffer tampon) {
+        return tampon.get() & 0xFF;
+    }
+
+    public static void ecrireEtat(ByteBuffer tampon, int etat) {
+        tampon.put((byte) (etat >>> 16));
+        tampon.put((byte) (etat >>> 8));
+        tampon.put((byte) etat);
+    }
+
+    public static int lireEtat(ByteBuffer tampon) {
+        return (tampon.get() & 0xFF) << 16 | (tampon.get() & 0xFF) << 8 | (tampon.get() & 0xFF);
+    }
+
+    public static void ecrireIdentifiant(ByteBuffer tampon, int identifiant) {
+        while ((identifiant & ~0x7F) != 0) {
+            tampon.put((byte) ((identifiant & 0x7F) | 0x80));
+            identifiant >>>= 7;
+        }
+        tampon.put((byte) identifiant);
+    }
+
+    public static int lireIdentifiant(ByteBuffer tampon) {
+        int identifiant = 0;
+        for (int decalage = 0; ; decalage += 7) {
+            byte octet = tampon.get();
+            identifiant |= (octet & 0x7F) << decalage;
+            if (octet >= 0) {
+                return identifiant;
+            }
+        }
+    }
+
+    // Messages
+
+    public static void ecrireNouvelle(ByteBuffer tampon) {
+        tampon.put(NOUVELLE);
+    }
+
+    public static void ecrireCoup(ByteBuffer tampon, int identifiant, int coup) {
+        tampon.put(COUP);
+        ecrireIdentifiant(tampon, identifiant);
+        ecrireCoup(tampon, coup);
+    }
+
+    /**
+     * Écrit un message composé d'un type et d'un identifiant de partie : ETAT, FERMER, PARTIE ou FERMEE.
+     */
+    public static void ecrireMessage(ByteBuffer tampon, byte type, int identifiant) {
+        tampon.put(type);
+        ecrireIdentifiant(tampon, identifiant);
+    }
+
+    /**
+     * Écrit un message portant une position : OK, FIN ou ETAT_PARTIE.
+     */
+    public static void ecrireMessage(ByteBuffer tampon, byte type, int identifiant, int etat) {
+        tampon.put(type);
+        ecrireIdentifiant(tampon, identifiant);
+        ecrireEtat(tampon, etat);
+    }
+
+    public static void ecrireErreur(ByteBuffer tampon, int identifiant, byte code) {
+        tampon.put(ERREUR);
+        ecrireIdentifiant(tampon, identifiant);
+        tampon.put(code);
+    }
+
+    /**
+     * Calcule la taille du message qui commence à la position du tampon, sans la modifier.
+     *
+     * @return la taille en octets, INCOMPLET s'il manque des octets, INVALIDE si le type est inconnu
+     */
+    public static int tailleMessage(ByteBuffer tampon) {
+        int debut = tampon.position();
+        int fin = tampon.limit();
+        if (debut >= fin) {
+            return INCOMPLET;
+        }
+        byte type = tampon.get(debut);
+        int apresType = debut + 1;
+        switch (type) {
+            case NOUVELLE:
+                return 1;
+            case COUP:
+                return tailleAvecIdentifiant(tampon, apresType, fin, 1);
+            case ETAT:
+            case FERMER:
+            case PARTIE:
+            case FERMEE:
+                return tailleAvecIdentifiant(tampon, apresType, fin, 0);
+            case OK:
+            case FIN:
+            case ETAT_PARTIE:
+                return tailleAvecIdentifiant(tampon, apresType, fin, TAILLE_ETAT);
+            case ERREUR:
+                return tailleAvecIdentifiant(tampon, apresType, fin, 1);
+            default:
+                return INVALIDE;
+        }
+    }
+
+    private static int tailleAvecIdentifiant(ByteBuffer tampon, int debutIdentifiant, int fin, int tailleSuite) {
+        for (int i = debutIdentifiant; i < fin; i++) {
+            if (i - debutIdentifiant >= TAILLE_MAX_IDENTIFIANT) {
+                return INVALIDE;
+            }
+            if (tampon.get(i) >= 0) {
+                int taille = i + 1 + tailleSuite - tampon.position();
+                return i + 1 + tailleSuite <= fin ? taille : INCOMPLET;
+            }
+        }
+        return INCOMPLET;
+    }
+}
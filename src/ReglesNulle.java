@@ -0,0 +1,74 @@
+/**
+ * Règles de la partie nulle, communes à JeuAraignee, EtatJeu et Simulation. Après un coup qui ne gagne pas,
+ * la partie est nulle :
+ * - si la limite de coups est atteinte ;
+ * - si le joueur qui a le trait est bloqué (voir PlateauCompact.estBloque) ;
+ * - si la position, en phase de déplacement, est déjà apparue deux fois dans les FENETRE_REPETITION
+ *   derniers demi-coups, avec le même joueur au trait.
+ *
+ * Les positions passées sont lues dans un tableau d'états compacts indexé par rang de coup : l'état avant
+ * chaque coup, comme l'historique d'annulation de JeuAraignee. L'état compact sert de hash exact,
+ * et la vérification n'alloue rien.
+ */
+public final class ReglesNulle {
+
+    public static final int LIMITE_COUPS_PAR_DEFAUT = 200;
+    /** Nombre de demi-coups en arrière dans lesquels une répétition de position est recherchée. */
+    public static final int FENETRE_REPETITION = 64;
+
+    private ReglesNulle() {
+    }
+
+    /**
+     * Indique si la position atteinte par un coup non gagnant termine la partie sur une nulle.
+     *
+     * @param etat l'état compact atteint
+     * @param nbCoupsJoues le nombre de coups joués pour l'atteindre
+     * @param limiteCoups le nombre de coups à partir duquel la partie est nulle
+     * @param etatsAvantCoup l'état avant chaque coup : etatsAvantCoup[rang - premierRang] pour le coup de ce rang,
+     *        au moins pour les rangs de la fenêtre de répétition
+     * @param premierRang le rang du coup qui correspond au premier état du tableau
+     */
+    public static boolean estNulle(int etat, int nbCoupsJoues, int limiteCoups, int[] etatsAvantCoup, int premierRang) {
+        if (nbCoupsJoues >= limiteCoups || PlateauCompact.estBloque(etat)) {
+            return true;
+        }
+        if (!PlateauCompact.estEnDeplacement(etat)) {
+            return false;
+        }
+        int limite = Math.max(premierRang, nbCoupsJoues - FENETRE_REPETITION);
+        int nbOccurrences = 0;
+        // Seuls les états où le même joueur avait le trait, un demi-coup sur deux, peuvent être identiques
+        for (int rang = nbCoupsJoues - 2; rang >= limite; rang -= 2) {
+            int etatPasse = etatsAvantCoup[rang - premierRang];
+            if (!PlateauCompact.estEnDeplacement(etatPasse)) {
+                return false;
+            }
+            if (etatPasse == etat && ++nbOccurrences == 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Issue de la position atteinte par un coup, gagnant ou non.
+     *
+     * @see #estNulle(int, int, int, int[], int)
+     */
+    public static Issue issue(int etat, int nbCoupsJoues, int limiteCoups, int[] etatsAvantCoup, int premierRang) {
+        if (PlateauCompact.estTerminee(etat)) {
+            return Issue.VICTOIRE;
+        }
+        return estNulle(etat, nbCoupsJoues, limiteCoups, etatsAvantCoup, premierRang) ? Issue.NUL : Issue.EN_COURS;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la limite de coups n'est pas strictement positive
+     */
+    static void verifierLimite(int limiteCoups) {
+        if (limiteCoups < 1) {
+            throw new IllegalArgumentException("La limite de coups doit être strictement positive");
+        }
+    }
+}
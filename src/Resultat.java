@@ -0,0 +1,6 @@
+/**
+ * Valeur théorique d'une position, du point de vue du joueur qui a le trait.
+ */
+public enum Resultat {
+    GAIN, PERTE, NUL, INCONNU
+}
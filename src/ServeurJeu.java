@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Serveur TCP hébergeant de nombreuses parties de JeuAraignee simultanées.
+ *
+ * Un thread accepte les connexions et les répartit à tour de rôle entre quelques boucles d'événements
+ * (une par cœur par défaut). Chaque connexion et les parties qu'elle a créées appartiennent à une seule
+ * boucle : elles ne sont jamais touchées par un autre thread, d'où l'absence de verrou.
+ *
+ * Protocole texte, une commande par ligne (voir ConnexionClient) :
+ * - NOUVELLE                 -> PARTIE id
+ * - COUP id code             -> OK id etat | FIN id etat | ERREUR id message
+ * - ETAT id                  -> ETAT id etat
+ * - FERMER id                -> FERMEE id
+ * où code est un coup codé selon Coup et etat l'état compact de la partie (voir PlateauCompact).
+ *
+ * Une connexion dont le premier octet n'est pas une lettre parle le protocole binaire de
+ * ProtocoleBinaire : mêmes commandes, avec des coups sur 1 octet et des positions sur 3 octets.
+ */
+public class ServeurJeu implements AutoCloseable {
+
+    public static final int PORT_PAR_DEFAUT = 7777;
+    public static final int PORT_METRIQUES_PAR_DEFAUT = 9090;
+
+    private final ServerSocketChannel canalServeur;
+    private final BoucleEvenements[] boucles;
+    private final Thread threadAcceptation;
+    private volatile boolean actif;
+
+    /**
+     * Démarre le serveur.
+     *
+     * @param port le port d'écoute (0 pour un port libre choisi par le système)
+     * @param nbBoucles le nombre de boucles d'événements
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public ServeurJeu(int port, int nbBoucles) throws IOException {
+        if (nbBoucles < 1) {
+            throw new IllegalArgumentException("Il faut au moins une boucle d'événements");
+        }
+        this.canalServeur = ServerSocketChannel.open();
+        this.canalServeur.bind(new InetSocketAddress(port), 1024);
+        this.boucles = new BoucleEvenements[nbBoucles];
+        for (int i = 0; i < nbBoucles; i++) {
+            boucles[i] = new BoucleEvenements("araignee-boucle-" + i);
+            boucles[i].demarrer();
+        }
+        this.actif = true;
+        this.threadAcceptation = new Thread(this::accepter, "araignee-acceptation");
+        this.threadAcceptation.start();
+    }
+
+    private void accepter() {
+        int suivante = 0;
+        while (actif) {
+            try {
+                SocketChannel canal = canalServeur.accept();
+                canal.socket().setTcpNoDelay(true);
+                boucles[suivante].confier(canal);
+                suivante = (suivante + 1) % boucles.length;
+            } catch (IOException e) {
+                if (actif) {
+                    System.err.println("Connexion non acceptée : " + e);
+                }
+            }
+        }
+    }
+
+    public int getPort() {
+        return canalServeur.socket().getLocalPort();
+    }
+
+    /**
+     * @return le nombre de parties ouvertes sur l'ensemble des connexions (valeur indicative)
+     */
+    public int getNbParties() {
+        int total = 0;
+        for (BoucleEvenements boucle : boucles) {
+            total += boucle.getNbParties();
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        actif = false;
+        canalServeur.close();
+        for (BoucleEvenements boucle : boucles) {
+            boucle.arreter();
+        }
+    }
+
+    /**
+     * Usage : java ServeurJeu [port] [boucles]
+     * Avec -Daraignee.metriques=true, les métriques sont servies en HTTP sur le port araignee.metriques.port.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PORT_PAR_DEFAUT;
+        int nbBoucles = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ServeurJeu serveur = new ServeurJeu(port, nbBoucles);
+        System.out.println("Serveur du jeu de l'Araignée en écoute sur le port " + serveur.getPort());
+        if (Metriques.ACTIVES) {
+            int portMetriques = Integer.getInteger("araignee.metriques.port", PORT_METRIQUES_PAR_DEFAUT);
+            Metriques.exposer(portMetriques);
+            System.out.println("Métriques sur http://localhost:" + portMetriques + "/metriques");
+        }
+    }
+}
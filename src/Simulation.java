@@ -0,0 +1,209 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Simulation sans interface de parties entre deux stratégies, répartie sur plusieurs threads.
+ *
+ * Chaque thread possède ses propres stratégies, son tampon de coups et ses compteurs :
+ * aucun état mutable n'est partagé pendant les parties, les résultats sont fusionnés à la fin.
+ * Les parties se jouent sur un JeuAraignee par thread, remis à zéro par reinitialiser entre deux parties
+ * (sans allocation une fois son historique à sa taille) : la simulation applique exactement les règles du jeu,
+ * nulles comprises, et sert de test de non-régression quand elles changent.
+ */
+public class Simulation {
+
+    public static final int LIMITE_COUPS_PAR_DEFAUT = ReglesNulle.LIMITE_COUPS_PAR_DEFAUT;
+
+    private final LongFunction<Strategie> fabriqueRouge;
+    private final LongFunction<Strategie> fabriqueBleu;
+    private final int nbThreads;
+    private final int limiteCoups;
+    private final long graine;
+
+    /**
+     * @param fabriqueRouge crée la stratégie de Rouge (qui joue en premier) à partir d'une graine
+     * @param fabriqueBleu crée la stratégie de Bleu à partir d'une graine
+     * @param nbThreads nombre de threads de simulation
+     * @param limiteCoups nombre de coups au-delà duquel une partie est déclarée nulle
+     * @param graine graine de base des stratégies (chaque thread en dérive la sienne)
+     */
+    public Simulation(LongFunction<Strategie> fabriqueRouge, LongFunction<Strategie> fabriqueBleu,
+                      int nbThreads, int limiteCoups, long graine) {
+        if (fabriqueRouge == null || fabriqueBleu == null) {
+            throw new IllegalArgumentException("Les stratégies ne peuvent pas être null");
+        }
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Il faut au moins un thread");
+        }
+        ReglesNulle.verifierLimite(limiteCoups);
+        this.fabriqueRouge = fabriqueRouge;
+        this.fabriqueBleu = fabriqueBleu;
+        this.nbThreads = nbThreads;
+        this.limiteCoups = limiteCoups;
+        this.graine = graine;
+    }
+
+    /**
+     * Joue nbParties parties réparties entre les threads et retourne les statistiques fusionnées.
+     */
+    public Statistiques lancer(long nbParties) throws InterruptedException {
+        ExecutorService executeur = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Callable<Statistiques>> lots = new ArrayList<>(nbThreads);
+            for (int t = 0; t < nbThreads; t++) {
+                long part = nbParties / nbThreads + (t < nbParties % nbThreads ? 1 : 0);
+                long graineThread = graine + 0x9E3779B97F4A7C15L * (t + 1);
+                lots.add(() -> jouerLot(part, graineThread));
+            }
+            long debut = System.nanoTime();
+            Statistiques total = new Statistiques(limiteCoups);
+            for (Future<Statistiques> lot : executeur.invokeAll(lots)) {
+                total.fusionner(lot.get());
+            }
+            total.dureeNanos = System.nanoTime() - debut;
+            total.nbThreads = nbThreads;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un thread de simulation", e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    private Statistiques jouerLot(long nbParties, long graineThread) {
+        Strategie rouge = fabriqueRouge.apply(graineThread);
+        Strategie bleu = fabriqueBleu.apply(graineThread ^ 0x5DEECE66DL);
+        Statistiques statistiques = new Statistiques(limiteCoups);
+        int[] coups = new int[Coup.MAX_COUPS];
+        JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+        jeu.setLimiteCoups(limiteCoups);
+        for (long partie = 0; partie < nbParties; partie++) {
+            jeu.reinitialiser();
+            for (int nb = jeu.genererCoups(coups); nb > 0; nb = jeu.genererCoups(coups)) {
+                int etat = jeu.getEtatCompact();
+                Strategie strategie = PlateauCompact.trait(etat) == 0 ? rouge : bleu;
+                if (!jeu.jouerCoup(strategie.choisirCoup(etat, coups, nb))) {
+                    throw new IllegalStateException("Coup illégal de " + strategie.getNom());
+                }
+            }
+            statistiques.enregistrer(jeu.getIssue(), jeu.getTrait(), jeu.getNbCoupsJoues());
+        }
+        return statistiques;
+    }
+
+    /**
+     * Résultats agrégés d'une simulation.
+     */
+    public static class Statistiques {
+
+        private final long[] longueurs;
+        private long victoiresRouge;
+        private long victoiresBleu;
+        private long nuls;
+        private long totalCoups;
+        private long dureeNanos;
+        private int nbThreads;
+
+        Statistiques(int limiteCoups) {
+            this.longueurs = new long[limiteCoups + 1];
+        }
+
+        /**
+         * @param trait le joueur au trait en fin de partie, c'est-à-dire le gagnant en cas de victoire
+         */
+        void enregistrer(Issue issue, int trait, int nbCoupsJoues) {
+            if (issue != Issue.VICTOIRE) {
+                nuls++;
+            } else if (trait == Joueur.ID_ROUGE) {
+                victoiresRouge++;
+            } else {
+                victoiresBleu++;
+            }
+            totalCoups += nbCoupsJoues;
+            longueurs[nbCoupsJoues]++;
+        }
+
+        void fusionner(Statistiques autre) {
+            victoiresRouge += autre.victoiresRouge;
+            victoiresBleu += autre.victoiresBleu;
+            nuls += autre.nuls;
+            totalCoups += autre.totalCoups;
+            for (int i = 0; i < longueurs.length; i++) {
+                longueurs[i] += autre.longueurs[i];
+            }
+        }
+
+        public long getNbParties() {
+            return victoiresRouge + victoiresBleu + nuls;
+        }
+
+        public long getVictoiresRouge() {
+            return victoiresRouge;
+        }
+
+        public long getVictoiresBleu() {
+            return victoiresBleu;
+        }
+
+        public long getNuls() {
+            return nuls;
+        }
+
+        public double getLongueurMoyenne() {
+            long nbParties = getNbParties();
+            return nbParties == 0 ? 0 : (double) totalCoups / nbParties;
+        }
+
+        /** Histogramme des longueurs de partie : getLongueurs()[n] parties ont duré n coups. */
+        public long[] getLongueurs() {
+            return longueurs.clone();
+        }
+
+        public double getPartiesParSeconde() {
+            return dureeNanos == 0 ? 0 : getNbParties() * 1e9 / dureeNanos;
+        }
+
+        @Override
+        public String toString() {
+            long nbParties = getNbParties();
+            double pourcentage = nbParties == 0 ? 0 : 100.0 / nbParties;
+            return String.format("%d parties en %.2f s sur %d threads%n"
+                    + "  Rouge : %d victoires (%.2f %%)%n"
+                    + "  Bleu  : %d victoires (%.2f %%)%n"
+                    + "  Nuls  : %d (%.2f %%)%n"
+                    + "  Longueur moyenne : %.2f coups%n"
+                    + "  Débit : %.0f parties/s (%.0f parties/s par thread)",
+                nbParties, dureeNanos / 1e9, nbThreads,
+                victoiresRouge, victoiresRouge * pourcentage,
+                victoiresBleu, victoiresBleu * pourcentage,
+                nuls, nuls * pourcentage,
+                getLongueurMoyenne(),
+                getPartiesParSeconde(), getPartiesParSeconde() / Math.max(1, nbThreads));
+        }
+    }
+
+    /**
+     * Usage : java Simulation [parties] [stratégie rouge] [stratégie bleu] [threads] [limite de coups]
+     * Stratégies : aleatoire, glouton, recherche, montecarlo. Par défaut : 1000000 aleatoire aleatoire, un thread par cœur.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long nbParties = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        String nomRouge = args.length > 1 ? args[1] : "aleatoire";
+        String nomBleu = args.length > 2 ? args[2] : "aleatoire";
+        int nbThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int limiteCoups = args.length > 4 ? Integer.parseInt(args[4]) : LIMITE_COUPS_PAR_DEFAUT;
+
+        Simulation simulation = new Simulation(
+            graine -> Strategie.parNom(nomRouge, graine),
+            graine -> Strategie.parNom(nomBleu, graine),
+            nbThreads, limiteCoups, System.nanoTime());
+        System.out.println(nomRouge + " (Rouge) contre " + nomBleu + " (Bleu)");
+        System.out.println(simulation.lancer(nbParties));
+    }
+}
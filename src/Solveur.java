@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+/**
+ * Résolution exhaustive du jeu de l'Araignée par analyse rétrograde.
+ *
+ * Toutes les positions atteignables depuis le plateau vide sont énumérées, puis les valeurs
+ * remontent depuis les positions gagnées : une position est GAIN si un coup mène à une position
+ * perdante pour l'adversaire, PERTE si tous ses coups mènent à des positions gagnantes pour lui.
+ * Les positions jamais résolues (cycles de la phase de DEPLACEMENT, blocages) sont NUL.
+ *
+ * Les résultats sont indexés par PlateauCompact.indexParfait : chaque requête est en O(1).
+ */
+public class Solveur {
+
+    static final byte CODE_INCONNU = 0;
+    static final byte CODE_GAIN = 1;
+    static final byte CODE_PERTE = 2;
+    static final byte CODE_NUL = 3;
+
+    private static final Resultat[] RESULTATS = { Resultat.INCONNU, Resultat.GAIN, Resultat.PERTE, Resultat.NUL };
+
+    private final byte[] resultats;
+    private final short[] distances;
+    private final byte[] meilleursCoups;
+    private final int nbEtatsAtteignables;
+
+    private Solveur(byte[] resultats, short[] distances, byte[] meilleursCoups, int nbEtatsAtteignables) {
+        this.resultats = resultats;
+        this.distances = distances;
+        this.meilleursCoups = meilleursCoups;
+        this.nbEtatsAtteignables = nbEtatsAtteignables;
+    }
+
+    /**
+     * Énumère toutes les positions atteignables et calcule leur valeur, leur distance au résultat
+     * et un coup parfait.
+     */
+    public static Solveur resoudre() {
+        int nbIndex = PlateauCompact.NB_INDEX;
+        int[] etats = new int[nbIndex];
+        boolean[] atteint = new boolean[nbIndex];
+        int[] file = new int[nbIndex];
+        int[] nbSuccesseurs = new int[nbIndex];
+        int[] nbPredecesseurs = new int[nbIndex];
+        int[] tampon = new int[Coup.MAX_COUPS];
+
+        // 1. Parcours en largeur des positions atteignables
+        int debut = 0;
+        int fin = 0;
+        int indexInitial = PlateauCompact.indexParfait(PlateauCompact.ETAT_INITIAL);
+        atteint[indexInitial] = true;
+        etats[indexInitial] = PlateauCompact.ETAT_INITIAL;
+        file[fin++] = indexInitial;
+        int nbArcs = 0;
+        while (debut < fin) {
+            int index = file[debut++];
+            int etat = etats[index];
+            int nb = Coup.generer(etat, tampon);
+            nbSuccesseurs[index] = nb;
+            nbArcs += nb;
+            for (int i = 0; i < nb; i++) {
+                int suivant = Coup.appliquer(etat, tampon[i]);
+                int indexSuivant = PlateauCompact.indexParfait(suivant);
+                nbPredecesseurs[indexSuivant]++;
+                if (!atteint[indexSuivant]) {
+                    atteint[indexSuivant] = true;
+                    etats[indexSuivant] = suivant;
+                    file[fin++] = indexSuivant;
+                }
+            }
+        }
+        int nbEtatsAtteignables = fin;
+
+        // 2. Graphe inverse au format compact : prédécesseurs de chaque position et coup qui y mène
+        int[] debutPredecesseurs = new int[nbIndex + 1];
+        for (int index = 0; index < nbIndex; index++) {
+            debutPredecesseurs[index + 1] = debutPredecesseurs[index] + nbPredecesseurs[index];
+        }
+        int[] predecesseurs = new int[nbArcs];
+        byte[] coupsPredecesseurs = new byte[nbArcs];
+        int[] remplissage = Arrays.copyOf(debutPredecesseurs, nbIndex);
+        for (int n = 0; n < nbEtatsAtteignables; n++) {
+            int index = file[n];
+            int etat = etats[index];
+            int nb = Coup.generer(etat, tampon);
+            for (int i = 0; i < nb; i++) {
+                int indexSuivant = PlateauCompact.indexParfait(Coup.appliquer(etat, tampon[i]));
+                int arc = remplissage[indexSuivant]++;
+                predecesseurs[arc] = index;
+                coupsPredecesseurs[arc] = (byte) tampon[i];
+            }
+        }
+
+        // 3. Analyse rétrograde depuis les positions gagnées
+        byte[] resultats = new byte[nbIndex];
+        short[] distances = new short[nbIndex];
+        byte[] meilleursCoups = new byte[nbIndex];
+        Arrays.fill(meilleursCoups, (byte) Coup.AUCUN);
+        debut = 0;
+        fin = 0;
+        for (int n = 0; n < nbEtatsAtteignables; n++) {
+            int index = file[n];
+            if (PlateauCompact.estTerminee(etats[index])) {
+                resultats[index] = CODE_GAIN;
+                file[fin++] = index;
+            }
+        }
+        // La file est réutilisée : les positions atteignables non résolues n'y sont plus nécessaires
+        int[] aTraiter = file;
+        while (debut < fin) {
+            int index = aTraiter[debut++];
+            int traitFils = PlateauCompact.trait(etats[index]);
+            for (int arc = debutPredecesseurs[index]; arc < debutPredecesseurs[index + 1]; arc++) {
+                int pere = predecesseurs[arc];
+                if (resultats[pere] != CODE_INCONNU) {
+                    continue;
+                }
+                boolean memeTrait = PlateauCompact.trait(etats[pere]) == traitFils;
+                boolean filsGagnantPourPere = (resultats[index] == CODE_GAIN) == memeTrait;
+                if (filsGagnantPourPere) {
+                    resultats[pere] = CODE_GAIN;
+                } else if (--nbSuccesseurs[pere] == 0) {
+                    resultats[pere] = CODE_PERTE;
+                } else {
+                    continue;
+                }
+                distances[pere] = (short) (distances[index] + 1);
+                meilleursCoups[pere] = coupsPredecesseurs[arc];
+                aTraiter[fin++] = pere;
+            }
+        }
+
+        // 4. Les positions restantes sont nulles : on y choisit un coup qui conserve la nulle
+        int nbEtatsNuls = 0;
+        for (int index = 0; index < nbIndex; index++) {
+            if (atteint[index] && resultats[index] == CODE_INCONNU) {
+                resultats[index] = CODE_NUL;
+                nbEtatsNuls++;
+            }
+        }
+        if (nbEtatsNuls > 0) {
+            for (int index = 0; index < nbIndex; index++) {
+                if (resultats[index] == CODE_NUL) {
+                    meilleursCoups[index] = (byte) coupConservantLaNulle(etats[index], resultats, tampon);
+                }
+            }
+        }
+
+        return new Solveur(resultats, distances, meilleursCoups, nbEtatsAtteignables);
+    }
+
+    private static int coupConservantLaNulle(int etat, byte[] resultats, int[] tampon) {
+        int nb = Coup.generer(etat, tampon);
+        for (int i = 0; i < nb; i++) {
+            if (resultats[PlateauCompact.indexParfait(Coup.appliquer(etat, tampon[i]))] == CODE_NUL) {
+                return tampon[i];
+            }
+        }
+        return Coup.AUCUN;
+    }
+
+    /**
+     * @return la valeur de la position pour le joueur qui a le trait, INCONNU si elle n'est pas atteignable
+     */
+    public Resultat getResultat(int etat) {
+        return RESULTATS[resultats[PlateauCompact.indexParfait(etat)]];
+    }
+
+    /**
+     * @return le nombre de demi-coups avant la fin de partie en jeu parfait (0 pour une nulle ou une position finale)
+     */
+    public int getDistance(int etat) {
+        return distances[PlateauCompact.indexParfait(etat)];
+    }
+
+    /**
+     * @return un coup parfait (codé selon Coup) pour le joueur qui a le trait, ou Coup.AUCUN
+     */
+    public int getMeilleurCoup(int etat) {
+        byte coup = meilleursCoups[PlateauCompact.indexParfait(etat)];
+        return coup == Coup.AUCUN ? Coup.AUCUN : coup & 0xFF;
+    }
+
+    public int getNbEtatsAtteignables() {
+        return nbEtatsAtteignables;
+    }
+
+    /** Codes bruts des résultats, indexés par PlateauCompact.indexParfait. */
+    byte[] getCodesResultats() {
+        return resultats;
+    }
+
+    short[] getDistances() {
+        return distances;
+    }
+}
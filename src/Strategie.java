@@ -0,0 +1,41 @@
+/**
+ * Stratégie de jeu automatique : choisit un coup parmi les coups légaux d'une position.
+ * Une instance peut garder un état interne (générateur aléatoire, moteur de recherche) :
+ * elle n'est utilisée que par un seul thread à la fois.
+ */
+public interface Strategie {
+
+    /**
+     * @param etat l'état compact de la partie (voir PlateauCompact)
+     * @param coups les coups légaux du joueur qui a le trait (voir Coup)
+     * @param nbCoups le nombre de coups légaux, au moins 1
+     * @return le coup choisi, parmi les nbCoups premiers éléments de coups
+     */
+    int choisirCoup(int etat, int[] coups, int nbCoups);
+
+    String getNom();
+
+    /**
+     * Crée une stratégie à partir de son nom : "aleatoire", "glouton", "recherche" ou "montecarlo".
+     *
+     * @param graine graine du générateur aléatoire de la stratégie
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    static Strategie parNom(String nom, long graine) {
+        if (nom == null) {
+            throw new IllegalArgumentException("Le nom de la stratégie ne peut pas être null");
+        }
+        switch (nom) {
+            case "aleatoire":
+                return new StrategieAleatoire(graine);
+            case "glouton":
+                return new StrategieGloutonne(graine);
+            case "recherche":
+                return new StrategieRecherche();
+            case "montecarlo":
+                return new StrategieMonteCarlo(graine);
+            default:
+                throw new IllegalArgumentException("Stratégie inconnue : " + nom + " (aleatoire, glouton, recherche, montecarlo)");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+import java.util.SplittableRandom;
+
+/**
+ * Joue un coup légal tiré uniformément au hasard.
+ */
+public class StrategieAleatoire implements Strategie {
+
+    private final SplittableRandom aleatoire;
+
+    public StrategieAleatoire(long graine) {
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    @Override
+    public int choisirCoup(int etat, int[] coups, int nbCoups) {
+        return coups[aleatoire.nextInt(nbCoups)];
+    }
+
+    @Override
+    public String getNom() {
+        return "aleatoire";
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.SplittableRandom;
+
+/**
+ * Joue un coup gagnant s'il en existe un, sinon un coup qui empêche l'adversaire
+ * de gagner au coup suivant, sinon un coup au hasard.
+ */
+public class StrategieGloutonne implements Strategie {
+
+    private final SplittableRandom aleatoire;
+    private final int[] coupsAdverses = new int[Coup.MAX_COUPS];
+    private final int[] coupsSurs = new int[Coup.MAX_COUPS];
+
+    public StrategieGloutonne(long graine) {
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    @Override
+    public int choisirCoup(int etat, int[] coups, int nbCoups) {
+        int nbSurs = 0;
+        for (int i = 0; i < nbCoups; i++) {
+            int suivant = Coup.appliquer(etat, coups[i]);
+            if (PlateauCompact.estTerminee(suivant)) {
+                return coups[i];
+            }
+            if (!adversairePeutGagner(suivant)) {
+                coupsSurs[nbSurs++] = coups[i];
+            }
+        }
+        if (nbSurs > 0) {
+            return coupsSurs[aleatoire.nextInt(nbSurs)];
+        }
+        return coups[aleatoire.nextInt(nbCoups)];
+    }
+
+    private boolean adversairePeutGagner(int etat) {
+        int nb = Coup.generer(etat, coupsAdverses);
+        for (int i = 0; i < nb; i++) {
+            if (PlateauCompact.estTerminee(Coup.appliquer(etat, coupsAdverses[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getNom() {
+        return "glouton";
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Joue le coup le plus visité par un MoteurMonteCarlo mono-thread au budget de temps fixe.
+ */
+public class StrategieMonteCarlo implements Strategie {
+
+    private static final long DUREE_REFLEXION_MS = 20;
+
+    private final MoteurMonteCarlo moteur;
+
+    public StrategieMonteCarlo(long graine) {
+        this.moteur = new MoteurMonteCarlo(1, graine);
+    }
+
+    @Override
+    public int choisirCoup(int etat, int[] coups, int nbCoups) {
+        int coup = moteur.reflechir(etat, DUREE_REFLEXION_MS);
+        return coup == Coup.AUCUN ? coups[0] : coup;
+    }
+
+    @Override
+    public String getNom() {
+        return "montecarlo";
+    }
+}
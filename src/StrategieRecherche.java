@@ -0,0 +1,29 @@
+/**
+ * Joue le coup trouvé par un MoteurRecherche à profondeur limitée.
+ */
+public class StrategieRecherche implements Strategie {
+
+    private static final long DUREE_MAX_MS = 50;
+    private static final int PROFONDEUR_PAR_DEFAUT = 6;
+
+    private final MoteurRecherche moteur;
+
+    public StrategieRecherche() {
+        this(PROFONDEUR_PAR_DEFAUT);
+    }
+
+    public StrategieRecherche(int profondeur) {
+        this.moteur = new MoteurRecherche(DUREE_MAX_MS, profondeur);
+    }
+
+    @Override
+    public int choisirCoup(int etat, int[] coups, int nbCoups) {
+        int coup = moteur.chercherCoup(etat);
+        return coup == Coup.AUCUN ? coups[0] : coup;
+    }
+
+    @Override
+    public String getNom() {
+        return "recherche";
+    }
+}
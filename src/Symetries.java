@@ -0,0 +1,165 @@
+/**
+ * Symétries du jeu de l'Araignée et canonisation des positions.
+ *
+ * Les règles (adjacence orthogonale, victoire par ligne ou colonne) sont invariantes par les 8 symétries
+ * du carré, et par l'échange des couleurs accompagné de l'échange du trait. Une transformation est codée
+ * sur 4 bits : les bits 0 à 2 désignent la symétrie du carré, le bit 3 l'échange des couleurs.
+ *
+ * Le représentant canonique d'une position est le plus petit état compact parmi ses 16 images :
+ * deux positions équivalentes ont le même représentant, ce qui divise par 8 environ la taille
+ * des caches, tables de finales et tables de transposition indexés par position.
+ */
+public final class Symetries {
+
+    public static final int NB_SYMETRIES_CARRE = 8;
+    public static final int NB_TRANSFORMATIONS = 2 * NB_SYMETRIES_CARRE;
+    public static final int IDENTITE = 0;
+    public static final int ECHANGE_COULEURS = NB_SYMETRIES_CARRE;
+
+    /** PERMUTATIONS[s][c] : image de la case c par la symétrie du carré s. */
+    private static final int[][] PERMUTATIONS = new int[NB_SYMETRIES_CARRE][PlateauCompact.NB_CASES];
+    /** IMAGES_MASQUES[s][m] : image du masque de cases m par la symétrie du carré s. */
+    private static final short[][] IMAGES_MASQUES = new short[NB_SYMETRIES_CARRE][1 << PlateauCompact.NB_CASES];
+    private static final int[] INVERSES = new int[NB_SYMETRIES_CARRE];
+    /** CLES_IMAGES[j * 9 + c][t] : clé de Zobrist de l'image par t d'un pion du joueur j en case c. */
+    private static final long[][] CLES_IMAGES = new long[2 * PlateauCompact.NB_CASES][NB_TRANSFORMATIONS];
+
+    static {
+        for (int s = 0; s < NB_SYMETRIES_CARRE; s++) {
+            for (int x = 0; x < 3; x++) {
+                for (int y = 0; y < 3; y++) {
+                    PERMUTATIONS[s][PlateauCompact.index(x, y)] = imageCase(s, x, y);
+                }
+            }
+            for (int masque = 0; masque < IMAGES_MASQUES[s].length; masque++) {
+                int image = 0;
+                for (int pions = masque; pions != 0; pions &= pions - 1) {
+                    image |= 1 << PERMUTATIONS[s][Integer.numberOfTrailingZeros(pions)];
+                }
+                IMAGES_MASQUES[s][masque] = (short) image;
+            }
+        }
+        for (int s = 0; s < NB_SYMETRIES_CARRE; s++) {
+            for (int r = 0; r < NB_SYMETRIES_CARRE; r++) {
+                if (PERMUTATIONS[r][PERMUTATIONS[s][1]] == 1 && PERMUTATIONS[r][PERMUTATIONS[s][3]] == 3) {
+                    INVERSES[s] = r;
+                }
+            }
+        }
+        for (int joueur = 0; joueur < 2; joueur++) {
+            for (int c = 0; c < PlateauCompact.NB_CASES; c++) {
+                for (int t = 0; t < NB_TRANSFORMATIONS; t++) {
+                    int joueurImage = echangeCouleurs(t) ? 1 - joueur : joueur;
+                    CLES_IMAGES[joueur * PlateauCompact.NB_CASES + c][t] =
+                        Zobrist.clePion(joueurImage, transformerCase(c, t));
+                }
+            }
+        }
+    }
+
+    private Symetries() {
+    }
+
+    /**
+     * Rotations d'un quart de tour (1 à 3), puis miroirs horizontal, vertical et selon les deux diagonales.
+     */
+    private static int imageCase(int symetrie, int x, int y) {
+        switch (symetrie) {
+            case 0: return PlateauCompact.index(x, y);
+            case 1: return PlateauCompact.index(y, 2 - x);
+            case 2: return PlateauCompact.index(2 - x, 2 - y);
+            case 3: return PlateauCompact.index(2 - y, x);
+            case 4: return PlateauCompact.index(x, 2 - y);
+            case 5: return PlateauCompact.index(2 - x, y);
+            case 6: return PlateauCompact.index(y, x);
+            default: return PlateauCompact.index(2 - y, 2 - x);
+        }
+    }
+
+    public static boolean echangeCouleurs(int transformation) {
+        return (transformation & ECHANGE_COULEURS) != 0;
+    }
+
+    public static int transformerCase(int indexCase, int transformation) {
+        return PERMUTATIONS[transformation & (NB_SYMETRIES_CARRE - 1)][indexCase];
+    }
+
+    /**
+     * Transforme un coup codé selon Coup (l'échange des couleurs ne change pas les cases jouées).
+     */
+    public static int transformerCoup(int coup, int transformation) {
+        int destination = transformerCase(Coup.destination(coup), transformation);
+        if (Coup.estPlacement(coup)) {
+            return Coup.placement(destination);
+        }
+        return Coup.deplacement(transformerCase(Coup.origine(coup), transformation), destination);
+    }
+
+    /**
+     * Transforme un état compact : cases permutées, et si demandé couleurs et trait échangés. La phase est conservée.
+     */
+    public static int transformer(int etat, int transformation) {
+        short[] images = IMAGES_MASQUES[transformation & (NB_SYMETRIES_CARRE - 1)];
+        int masque0 = images[PlateauCompact.masque(etat, 0)];
+        int masque1 = images[PlateauCompact.masque(etat, 1)];
+        int trait = PlateauCompact.trait(etat);
+        if (echangeCouleurs(transformation)) {
+            return PlateauCompact.creer(masque1, masque0, 1 - trait, PlateauCompact.phase(etat));
+        }
+        return PlateauCompact.creer(masque0, masque1, trait, PlateauCompact.phase(etat));
+    }
+
+    /**
+     * @return la transformation qui annule la transformation donnée
+     */
+    public static int inverse(int transformation) {
+        return INVERSES[transformation & (NB_SYMETRIES_CARRE - 1)] | (transformation & ECHANGE_COULEURS);
+    }
+
+    /**
+     * @return la transformation qui mène l'état à son représentant canonique (la plus petite en cas d'égalité)
+     */
+    public static int transformationCanonique(int etat) {
+        int meilleure = IDENTITE;
+        int minimum = etat;
+        for (int t = 1; t < NB_TRANSFORMATIONS; t++) {
+            int image = transformer(etat, t);
+            if (image < minimum) {
+                minimum = image;
+                meilleure = t;
+            }
+        }
+        return meilleure;
+    }
+
+    /**
+     * @return le représentant canonique de l'état : le même pour toutes les positions équivalentes
+     */
+    public static int canonique(int etat) {
+        int minimum = etat;
+        for (int t = 1; t < NB_TRANSFORMATIONS; t++) {
+            minimum = Math.min(minimum, transformer(etat, t));
+        }
+        return minimum;
+    }
+
+    /**
+     * Hash de Zobrist invariant par symétrie : le plus petit des hashes des 16 images de l'état.
+     * Égal à Plateau.getHashCanonique, qui le maintient de façon incrémentale.
+     */
+    public static long hashCanonique(int etat) {
+        long minimum = Long.MAX_VALUE;
+        for (int t = 0; t < NB_TRANSFORMATIONS; t++) {
+            minimum = Math.min(minimum, Zobrist.hash(transformer(etat, t)));
+        }
+        return minimum;
+    }
+
+    /**
+     * Clés de Zobrist d'un pion vu à travers chacune des 16 transformations : celles des pions images.
+     * Le tableau est partagé et ne doit pas être modifié.
+     */
+    static long[] clesPionImages(int joueur, int indexCase) {
+        return CLES_IMAGES[joueur * PlateauCompact.NB_CASES + indexCase];
+    }
+}
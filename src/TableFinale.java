@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Table de finales persistée : résultat théorique de chaque position, calculé une fois par le Solveur
+ * puis relu par projection mémoire (FileChannel.map), ce qui rend le chargement quasi instantané
+ * et permet à plusieurs JVM d'une même machine de partager les mêmes pages.
+ *
+ * Format binaire (gros-boutiste) :
+ * - en-tête de 16 octets : magique "ARAI", version (short), options (short), nombre d'index (int), réservé (int)
+ * - résultats : 2 bits par index de PlateauCompact.indexParfait (4 index par octet)
+ * - distances (si l'option AVEC_DISTANCES est présente) : 1 octet par index
+ */
+public class TableFinale {
+
+    private static final int MAGIQUE = 0x41524149;
+    private static final short VERSION = 1;
+    private static final short AVEC_DISTANCES = 1;
+    private static final int TAILLE_EN_TETE = 16;
+
+    private static final Resultat[] RESULTATS = { Resultat.INCONNU, Resultat.GAIN, Resultat.PERTE, Resultat.NUL };
+
+    private final ByteBuffer donnees;
+    private final boolean avecDistances;
+    private final int debutDistances;
+
+    private TableFinale(ByteBuffer donnees, boolean avecDistances) {
+        this.donnees = donnees;
+        this.avecDistances = avecDistances;
+        this.debutDistances = TAILLE_EN_TETE + tailleResultats();
+    }
+
+    /**
+     * Écrit la table d'un solveur dans un fichier (créé ou remplacé).
+     *
+     * @param solveur le solveur dont on persiste les résultats
+     * @param fichier le chemin du fichier de table
+     * @param avecDistances true pour ajouter un octet de distance au résultat par position
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void generer(Solveur solveur, Path fichier, boolean avecDistances) throws IOException {
+        if (solveur == null || fichier == null) {
+            throw new IllegalArgumentException("Le solveur et le fichier ne peuvent pas être null");
+        }
+        byte[] codes = solveur.getCodesResultats();
+        short[] distances = solveur.getDistances();
+        int taille = TAILLE_EN_TETE + tailleResultats() + (avecDistances ? PlateauCompact.NB_INDEX : 0);
+
+        ByteBuffer tampon = ByteBuffer.allocate(taille).order(ByteOrder.BIG_ENDIAN);
+        tampon.putInt(MAGIQUE);
+        tampon.putShort(VERSION);
+        tampon.putShort(avecDistances ? AVEC_DISTANCES : 0);
+        tampon.putInt(PlateauCompact.NB_INDEX);
+        tampon.putInt(0);
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index += 4) {
+            int octet = 0;
+            for (int i = 0; i < 4 && index + i < PlateauCompact.NB_INDEX; i++) {
+                octet |= codes[index + i] << (2 * i);
+            }
+            tampon.put((byte) octet);
+        }
+        if (avecDistances) {
+            for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+                tampon.put((byte) Math.min(distances[index], 255));
+            }
+        }
+        tampon.flip();
+
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Projette un fichier de table en mémoire, en lecture seule.
+     *
+     * @throws IOException si le fichier est illisible ou n'est pas une table valide
+     */
+    public static TableFinale charger(Path fichier) throws IOException {
+        if (fichier == null) {
+            throw new IllegalArgumentException("Le fichier ne peut pas être null");
+        }
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            if (taille < TAILLE_EN_TETE + tailleResultats()) {
+                throw new IOException("Fichier de table trop court : " + fichier);
+            }
+            MappedByteBuffer donnees = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+            if (donnees.getInt(0) != MAGIQUE) {
+                throw new IOException("Le fichier n'est pas une table de finales : " + fichier);
+            }
+            if (donnees.getShort(4) != VERSION) {
+                throw new IOException("Version de table non supportée : " + donnees.getShort(4));
+            }
+            if (donnees.getInt(8) != PlateauCompact.NB_INDEX) {
+                throw new IOException("Nombre de positions inattendu : " + donnees.getInt(8));
+            }
+            boolean avecDistances = (donnees.getShort(6) & AVEC_DISTANCES) != 0;
+            if (avecDistances && taille < TAILLE_EN_TETE + tailleResultats() + PlateauCompact.NB_INDEX) {
+                throw new IOException("Distances tronquées dans le fichier : " + fichier);
+            }
+            return new TableFinale(donnees, avecDistances);
+        }
+    }
+
+    /**
+     * @return la valeur de la position pour le joueur qui a le trait, INCONNU si elle n'est pas atteignable
+     */
+    public Resultat getResultat(int etat) {
+        int index = PlateauCompact.indexParfait(etat);
+        int octet = donnees.get(TAILLE_EN_TETE + (index >> 2));
+        return RESULTATS[(octet >> (2 * (index & 3))) & 3];
+    }
+
+    /**
+     * @return la distance au résultat en demi-coups, ou -1 si la table n'a pas été générée avec les distances
+     */
+    public int getDistance(int etat) {
+        if (!avecDistances) {
+            return -1;
+        }
+        return donnees.get(debutDistances + PlateauCompact.indexParfait(etat)) & 0xFF;
+    }
+
+    public boolean aDesDistances() {
+        return avecDistances;
+    }
+
+    private static int tailleResultats() {
+        return (PlateauCompact.NB_INDEX + 3) / 4;
+    }
+
+    /**
+     * Génère la table de finales complète.
+     * Usage : java TableFinale [fichier] (par défaut araignee.tbl)
+     */
+    public static void main(String[] args) throws IOException {
+        Path fichier = Paths.get(args.length > 0 ? args[0] : "araignee.tbl");
+        long debut = System.nanoTime();
+        Solveur solveur = Solveur.resoudre();
+        generer(solveur, fichier, true);
+        System.out.printf("%d positions résolues, table écrite dans %s en %d ms%n",
+            solveur.getNbEtatsAtteignables(), fichier, (System.nanoTime() - debut) / 1_000_000);
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Exécute les calculs longs de l'interface (recherche de l'ordinateur, analyses) hors de l'EDT,
+ * sur un thread dédié, puis publie leur résultat sur l'EDT.
+ *
+ * Les méthodes soumettre et annulerTout doivent être appelées depuis l'EDT : l'annulation
+ * interrompt le calcul en cours et garantit qu'aucun résultat déjà calculé ne sera publié.
+ * L'échec d'un calcul est lui aussi remis sur l'EDT, au traitement d'échec de la tâche.
+ */
+public class TachesArrierePlan {
+
+    private final ExecutorService executeur;
+    private Future<?> tacheEnCours;
+    private int generation;
+
+    public TachesArrierePlan() {
+        this.executeur = Executors.newSingleThreadExecutor(tache -> {
+            Thread thread = new Thread(tache, "araignee-calculs");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lance un calcul en arrière-plan ; un échec est signalé sur la sortie d'erreur.
+     *
+     * @see #soumettre(Callable, Consumer, Consumer)
+     */
+    public <T> void soumettre(Callable<T> calcul, Consumer<T> publication) {
+        soumettre(calcul, publication, e -> System.err.println("Échec du calcul en arrière-plan : " + e));
+    }
+
+    /**
+     * Lance un calcul en arrière-plan. Sa publication, ou son échec, aura lieu sur l'EDT,
+     * sauf si annulerTout est appelé entre-temps.
+     *
+     * @param calcul le calcul à effectuer hors de l'EDT (il doit réagir à l'interruption de son thread)
+     * @param publication le traitement du résultat, exécuté sur l'EDT
+     * @param echec le traitement de l'exception levée par le calcul, exécuté sur l'EDT
+     */
+    public <T> void soumettre(Callable<T> calcul, Consumer<T> publication, Consumer<Exception> echec) {
+        int generationSoumise = generation;
+        tacheEnCours = executeur.submit(() -> {
+            T resultat;
+            try {
+                resultat = calcul.call();
+            } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (generationSoumise == generation) {
+                            tacheEnCours = null;
+                            echec.accept(e);
+                        }
+                    });
+                }
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (generationSoumise == generation) {
+                    tacheEnCours = null;
+                    publication.accept(resultat);
+                }
+            });
+        });
+    }
+
+    /**
+     * @return true si un calcul a été soumis et que son résultat n'a pas encore été publié
+     */
+    public boolean estOccupe() {
+        return tacheEnCours != null;
+    }
+
+    /**
+     * Interrompt le calcul en cours et écarte tous les résultats non encore publiés.
+     */
+    public void annulerTout() {
+        generation++;
+        if (tacheEnCours != null) {
+            tacheEnCours.cancel(true);
+            tacheEnCours = null;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Test de charge du ServeurJeu en boucle locale.
+ *
+ * Ouvre plusieurs connexions, chacune gérant de nombreuses parties ouvertes en même temps,
+ * et joue des coups aléatoires légaux dans ces parties à tour de rôle, en protocole texte ou binaire.
+ * Chaque aller-retour COUP / réponse est chronométré ; le test affiche le débit, les octets échangés
+ * par coup et les percentiles de latence.
+ */
+public class TestChargeServeur {
+
+    private static final int ECHANTILLONS_PAR_CONNEXION = 20_000;
+
+    private final String hote;
+    private final int port;
+    private final int nbConnexions;
+    private final int partiesParConnexion;
+    private final long dureeNanos;
+    private final boolean binaire;
+
+    public TestChargeServeur(String hote, int port, int nbConnexions, int partiesParConnexion, long dureeMillis,
+                             boolean binaire) {
+        this.hote = hote;
+        this.port = port;
+        this.nbConnexions = nbConnexions;
+        this.partiesParConnexion = partiesParConnexion;
+        this.dureeNanos = dureeMillis * 1_000_000L;
+        this.binaire = binaire;
+    }
+
+    public void lancer() throws InterruptedException {
+        List<Client> clients = new ArrayList<>(nbConnexions);
+        for (int i = 0; i < nbConnexions; i++) {
+            Client client = new Client(i);
+            clients.add(client);
+            client.start();
+        }
+        for (Client client : clients) {
+            client.join();
+        }
+
+        long nbCoups = 0;
+        long nbParties = 0;
+        int nbEchecs = 0;
+        int nbEchantillons = 0;
+        long octets = 0;
+        for (Client client : clients) {
+            octets += client.octetsEnvoyes + client.octetsRecus;
+            nbCoups += client.nbCoups;
+            nbParties += client.nbPartiesTerminees;
+            nbEchantillons += client.nbEchantillons;
+            if (client.echec != null) {
+                nbEchecs++;
+            }
+        }
+        long[] latences = new long[nbEchantillons];
+        int position = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.echantillons, 0, latences, position, client.nbEchantillons);
+            position += client.nbEchantillons;
+        }
+        Arrays.sort(latences);
+
+        System.out.printf("%d connexions x %d parties simultanées = %d parties ouvertes%n",
+            nbConnexions, partiesParConnexion, nbConnexions * partiesParConnexion);
+        System.out.printf("%d coups joués (%.0f coups/s), %d parties terminées, %d connexions en échec%n",
+            nbCoups, nbCoups * 1e9 / dureeNanos, nbParties, nbEchecs);
+        System.out.printf("Protocole %s : %.1f octets échangés par coup%n",
+            binaire ? "binaire" : "texte", nbCoups == 0 ? 0.0 : (double) octets / nbCoups);
+        if (latences.length > 0) {
+            System.out.printf("Latence d'un coup : p50 %.1f µs, p99 %.1f µs, p99.9 %.1f µs, max %.1f µs%n",
+                percentile(latences, 0.50) / 1e3, percentile(latences, 0.99) / 1e3,
+                percentile(latences, 0.999) / 1e3, latences[latences.length - 1] / 1e3);
+        }
+    }
+
+    private static long percentile(long[] valeursTriees, double quantile) {
+        int rang = (int) Math.ceil(quantile * valeursTriees.length) - 1;
+        return valeursTriees[Math.max(0, Math.min(rang, valeursTriees.length - 1))];
+    }
+
+    /**
+     * Une connexion de test : joue à tour de rôle dans toutes ses parties jusqu'à la fin du test.
+     */
+    private class Client extends Thread {
+
+        private final SplittableRandom aleatoire;
+        private final long[] echantillons = new long[ECHANTILLONS_PAR_CONNEXION];
+        private int nbEchantillons;
+        private long nbCoups;
+        private long nbPartiesTerminees;
+        private boolean derniereReponseFin;
+        private long octetsEnvoyes;
+        private long octetsRecus;
+        private Exception echec;
+        private final ByteBuffer tampon = ByteBuffer.allocate(16);
+        private OutputStream sortie;
+        private DataInputStream entree;
+
+        Client(int numero) {
+            super("charge-" + numero);
+            this.aleatoire = new SplittableRandom(numero);
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(hote, port)) {
+                socket.setTcpNoDelay(true);
+                sortie = new BufferedOutputStream(socket.getOutputStream());
+                entree = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                int[] identifiants = new int[partiesParConnexion];
+                int[] etats = new int[partiesParConnexion];
+                boolean[] terminees = new boolean[partiesParConnexion];
+                for (int i = 0; i < partiesParConnexion; i++) {
+                    identifiants[i] = ouvrir();
+                }
+
+                int[] coups = new int[Coup.MAX_COUPS];
+                long fin = System.nanoTime() + dureeNanos;
+                while (System.nanoTime() < fin) {
+                    for (int i = 0; i < partiesParConnexion; i++) {
+                        // Le serveur déclare la fin de partie (victoire ou nulle) en répondant FIN
+                        if (terminees[i]) {
+                            fermer(identifiants[i]);
+                            identifiants[i] = ouvrir();
+                            etats[i] = PlateauCompact.ETAT_INITIAL;
+                            terminees[i] = false;
+                            nbPartiesTerminees++;
+                            continue;
+                        }
+                        int nb = Coup.generer(etats[i], coups);
+                        long debut = System.nanoTime();
+                        etats[i] = jouer(identifiants[i], coups[aleatoire.nextInt(nb)]);
+                        enregistrer(System.nanoTime() - debut);
+                        terminees[i] = derniereReponseFin;
+                        nbCoups++;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                echec = e;
+                System.err.println(getName() + " : " + e);
+            }
+        }
+
+        private int ouvrir() throws IOException {
+            if (!binaire) {
+                return Integer.parseInt(echanger("NOUVELLE", "PARTIE "));
+            }
+            tampon.clear();
+            ProtocoleBinaire.ecrireNouvelle(tampon);
+            envoyer();
+            attendre(ProtocoleBinaire.PARTIE);
+            return lireIdentifiant();
+        }
+
+        /**
+         * @return l'état de la partie après le coup ; derniereReponseFin indique si la partie est finie
+         */
+        private int jouer(int identifiant, int coup) throws IOException {
+            if (!binaire) {
+                String reponse = echanger("COUP " + identifiant + " " + coup, "");
+                if (!(reponse.startsWith("OK ") || reponse.startsWith("FIN "))) {
+                    throw new IOException("Réponse inattendue : " + reponse);
+                }
+                derniereReponseFin = reponse.startsWith("FIN ");
+                return Integer.parseInt(reponse.substring(reponse.lastIndexOf(' ') + 1));
+            }
+            tampon.clear();
+            ProtocoleBinaire.ecrireCoup(tampon, identifiant, coup);
+            envoyer();
+            byte type = entree.readByte();
+            octetsRecus++;
+            if (type != ProtocoleBinaire.OK && type != ProtocoleBinaire.FIN) {
+                throw new IOException("Réponse inattendue de type " + type);
+            }
+            derniereReponseFin = type == ProtocoleBinaire.FIN;
+            lireIdentifiant();
+            octetsRecus += ProtocoleBinaire.TAILLE_ETAT;
+            return entree.readUnsignedByte() << 16 | entree.readUnsignedByte() << 8 | entree.readUnsignedByte();
+        }
+
+        private void fermer(int identifiant) throws IOException {
+            if (!binaire) {
+                echanger("FERMER " + identifiant, "FERMEE ");
+                return;
+            }
+            tampon.clear();
+            ProtocoleBinaire.ecrireMessage(tampon, ProtocoleBinaire.FERMER, identifiant);
+            envoyer();
+            attendre(ProtocoleBinaire.FERMEE);
+            lireIdentifiant();
+        }
+
+        private String echanger(String commande, String prefixeAttendu) throws IOException {
+            byte[] octets = (commande + "\n").getBytes(StandardCharsets.US_ASCII);
+            sortie.write(octets);
+            sortie.flush();
+            octetsEnvoyes += octets.length;
+            StringBuilder reponse = new StringBuilder();
+            int octet;
+            while ((octet = entree.read()) != '\n') {
+                if (octet < 0) {
+                    throw new IOException("Connexion fermée par le serveur");
+                }
+                reponse.append((char) octet);
+            }
+            octetsRecus += reponse.length() + 1;
+            if (!reponse.toString().startsWith(prefixeAttendu)) {
+                throw new IOException("Réponse inattendue : " + reponse);
+            }
+            return reponse.substring(prefixeAttendu.length());
+        }
+
+        private void envoyer() throws IOException {
+            sortie.write(tampon.array(), 0, tampon.position());
+            sortie.flush();
+            octetsEnvoyes += tampon.position();
+        }
+
+        private void attendre(byte typeAttendu) throws IOException {
+            byte type = entree.readByte();
+            octetsRecus++;
+            if (type != typeAttendu) {
+                throw new IOException("Réponse inattendue de type " + type);
+            }
+        }
+
+        private int lireIdentifiant() throws IOException {
+            int identifiant = 0;
+            for (int decalage = 0; ; decalage += 7) {
+                byte octet = entree.readByte();
+                octetsRecus++;
+                identifiant |= (octet & 0x7F) << decalage;
+                if (octet >= 0) {
+                    return identifiant;
+                }
+            }
+        }
+
+        /** Échantillonnage par réservoir : la mémoire reste bornée quelle que soit la durée du test. */
+        private void enregistrer(long latence) {
+            if (nbEchantillons < echantillons.length) {
+                echantillons[nbEchantillons++] = latence;
+            } else {
+                long rang = aleatoire.nextLong(nbCoups + 1);
+                if (rang < echantillons.length) {
+                    echantillons[(int) rang] = latence;
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage : java TestChargeServeur [connexions] [parties par connexion] [durée en s] [texte|binaire] [hôte port]
+     * Sans hôte ni port, un ServeurJeu est démarré dans la même JVM sur un port libre.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int nbConnexions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int partiesParConnexion = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long dureeMillis = (args.length > 2 ? Long.parseLong(args[2]) : 10) * 1000;
+        boolean binaire = args.length <= 3 || !args[3].equals("texte");
+
+        if (args.length > 5) {
+            new TestChargeServeur(args[4], Integer.parseInt(args[5]), nbConnexions, partiesParConnexion,
+                dureeMillis, binaire).lancer();
+            return;
+        }
+        try (ServeurJeu serveur = new ServeurJeu(0, Runtime.getRuntime().availableProcessors())) {
+            new TestChargeServeur("localhost", serveur.getPort(), nbConnexions, partiesParConnexion,
+                dureeMillis, binaire).lancer();
+        }
+    }
+}
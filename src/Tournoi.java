@@ -0,0 +1,499 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Tournoi entre stratégies, toutes rondes ou système suisse, avec classement Elo.
+ *
+ * Chaque rencontre se joue en un nombre pair de parties, Rouge (qui joue en premier) alternant
+ * d'une partie à l'autre. Les parties se jouent sur JeuAraignee, donc avec ses règles de nulle.
+ * Les rencontres sont découpées en lots de parties, répartis par un ForkJoinPool (vol de tâches) :
+ * chaque thread garde ses propres instances de stratégies, et chaque lot terminé est versé
+ * aussitôt au Classement, consultable pendant le tournoi.
+ */
+public class Tournoi {
+
+    /** Nombre de parties d'un lot, la plus petite unité de travail (pair : autant de parties avec chaque couleur). */
+    private static final int PARTIES_PAR_LOT = 16;
+    /** En dessous de ce nombre de lots, une tâche les joue elle-même. */
+    private static final int SEUIL_DECOUPAGE = 4;
+
+    /**
+     * Un participant : son nom et la fabrique de ses instances (une par thread), à partir d'une graine.
+     */
+    public record Participant(String nom, LongFunction<Strategie> fabrique) {
+        public Participant {
+            if (nom == null || fabrique == null) {
+                throw new IllegalArgumentException("Le nom et la fabrique du participant ne peuvent pas être null");
+            }
+        }
+    }
+
+    private final List<Participant> participants;
+    private final int partiesParRencontre;
+    private final int limiteCoups;
+    private final long graine;
+    private final ForkJoinPool pool;
+    private final Classement classement;
+    private final ThreadLocal<Strategie[]> strategiesParThread;
+    /** Partie de chaque thread, réinitialisée d'une partie à l'autre. */
+    private final ThreadLocal<JeuAraignee> partiesParThread;
+    private final AtomicLong compteurThreads = new AtomicLong();
+
+    /**
+     * @param participants au moins deux stratégies
+     * @param partiesParRencontre nombre de parties entre deux participants, arrondi au multiple
+     *        de PARTIES_PAR_LOT supérieur
+     * @param limiteCoups nombre de coups au-delà duquel une partie est déclarée nulle
+     * @param parallelisme nombre de threads
+     * @param graine graine de base des stratégies (chaque thread en dérive la sienne)
+     */
+    public Tournoi(List<Participant> participants, int partiesParRencontre, int limiteCoups, int parallelisme,
+                   long graine) {
+        if (participants == null || participants.size() < 2) {
+            throw new IllegalArgumentException("Il faut au moins deux participants");
+        }
+        if (partiesParRencontre < 1) {
+            throw new IllegalArgumentException("Il faut au moins une partie par rencontre");
+        }
+        if (limiteCoups < 1) {
+            throw new IllegalArgumentException("La limite de coups doit être strictement positive");
+        }
+        if (parallelisme < 1) {
+            throw new IllegalArgumentException("Il faut au moins un thread");
+        }
+        this.participants = List.copyOf(participants);
+        this.partiesParRencontre = (partiesParRencontre + PARTIES_PAR_LOT - 1) / PARTIES_PAR_LOT * PARTIES_PAR_LOT;
+        this.limiteCoups = limiteCoups;
+        this.graine = graine;
+        this.pool = new ForkJoinPool(parallelisme);
+        String[] noms = new String[participants.size()];
+        for (int i = 0; i < noms.length; i++) {
+            noms[i] = participants.get(i).nom();
+        }
+        this.classement = new Classement(noms);
+        this.strategiesParThread = ThreadLocal.withInitial(
+            () -> new Strategie[this.participants.size()]);
+        this.partiesParThread = ThreadLocal.withInitial(() -> {
+            JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+            jeu.setLimiteCoups(limiteCoups);
+            return jeu;
+        });
+    }
+
+    /**
+     * Joue toutes les rencontres possibles, chaque paire de participants une fois.
+     */
+    public Classement toutesRondes() {
+        int n = participants.size();
+        List<int[]> rencontres = new ArrayList<>(n * (n - 1) / 2);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                rencontres.add(new int[] { i, j });
+            }
+        }
+        jouerRencontres(rencontres);
+        return classement;
+    }
+
+    /**
+     * Joue nbRondes rondes de système suisse : à chaque ronde, les participants sont classés par points
+     * et appariés avec le suivant qu'ils n'ont pas encore rencontré. Avec un nombre impair de participants,
+     * le dernier non apparié est exempt pour la ronde.
+     */
+    public Classement suisse(int nbRondes) {
+        if (nbRondes < 1) {
+            throw new IllegalArgumentException("Il faut au moins une ronde");
+        }
+        int n = participants.size();
+        boolean[][] dejaRencontres = new boolean[n][n];
+        for (int ronde = 0; ronde < nbRondes; ronde++) {
+            List<Integer> ordre = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                ordre.add(i);
+            }
+            // Mélange avant le tri, pour départager les ex aequo différemment à chaque ronde
+            Collections.shuffle(ordre, new Random(graine + ronde));
+            double[] points = classement.getPoints();
+            ordre.sort((a, b) -> Double.compare(points[b], points[a]));
+
+            List<int[]> rencontres = new ArrayList<>(n / 2);
+            boolean[] apparies = new boolean[n];
+            for (int k = 0; k < n; k++) {
+                int i = ordre.get(k);
+                if (apparies[i]) {
+                    continue;
+                }
+                // Le suivant libre jamais rencontré, ou à défaut le suivant libre
+                int adversaire = -1;
+                for (int l = k + 1; l < n; l++) {
+                    int j = ordre.get(l);
+                    if (apparies[j]) {
+                        continue;
+                    }
+                    if (adversaire < 0) {
+                        adversaire = j;
+                    }
+                    if (!dejaRencontres[i][j]) {
+                        adversaire = j;
+                        break;
+                    }
+                }
+                if (adversaire >= 0) {
+                    apparies[i] = true;
+                    apparies[adversaire] = true;
+                    dejaRencontres[i][adversaire] = true;
+                    dejaRencontres[adversaire][i] = true;
+                    rencontres.add(new int[] { i, adversaire });
+                }
+            }
+            jouerRencontres(rencontres);
+        }
+        return classement;
+    }
+
+    private void jouerRencontres(List<int[]> rencontres) {
+        int lotsParRencontre = partiesParRencontre / PARTIES_PAR_LOT;
+        long debut = System.nanoTime();
+        pool.invoke(new Tache(rencontres.toArray(new int[0][]), lotsParRencontre, 0,
+            rencontres.size() * lotsParRencontre));
+        classement.ajouterDuree(System.nanoTime() - debut);
+    }
+
+    /**
+     * Joue les lots [debut, fin[ : le lot k est le lot k % lotsParRencontre de la rencontre k / lotsParRencontre.
+     */
+    private class Tache extends RecursiveAction {
+
+        private final int[][] rencontres;
+        private final int lotsParRencontre;
+        private final int debut;
+        private final int fin;
+
+        Tache(int[][] rencontres, int lotsParRencontre, int debut, int fin) {
+            this.rencontres = rencontres;
+            this.lotsParRencontre = lotsParRencontre;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut > SEUIL_DECOUPAGE) {
+                int milieu = (debut + fin) >>> 1;
+                invokeAll(new Tache(rencontres, lotsParRencontre, debut, milieu),
+                    new Tache(rencontres, lotsParRencontre, milieu, fin));
+                return;
+            }
+            int[] coups = new int[Coup.MAX_COUPS];
+            for (int lot = debut; lot < fin; lot++) {
+                int[] rencontre = rencontres[lot / lotsParRencontre];
+                jouerLot(rencontre[0], rencontre[1], coups);
+            }
+        }
+    }
+
+    private void jouerLot(int a, int b, int[] coups) {
+        Strategie[] strategies = strategiesParThread.get();
+        JeuAraignee jeu = partiesParThread.get();
+        Strategie strategieA = instance(strategies, a);
+        Strategie strategieB = instance(strategies, b);
+        double pointsA = 0;
+        int nuls = 0;
+        int victoiresRouge = 0;
+        for (int partie = 0; partie < PARTIES_PAR_LOT; partie++) {
+            boolean aEstRouge = (partie & 1) == 0;
+            int gagnant = jouerPartie(jeu, aEstRouge ? strategieA : strategieB, aEstRouge ? strategieB : strategieA,
+                coups);
+            if (gagnant < 0) {
+                nuls++;
+                pointsA += 0.5;
+            } else {
+                if (gagnant == 0) {
+                    victoiresRouge++;
+                }
+                if ((gagnant == 0) == aEstRouge) {
+                    pointsA++;
+                }
+            }
+        }
+        classement.enregistrer(a, b, PARTIES_PAR_LOT, pointsA, nuls, victoiresRouge);
+    }
+
+    /**
+     * Les instances sont créées à la première utilisation par chaque thread, avec une graine propre au thread.
+     */
+    private Strategie instance(Strategie[] strategies, int participant) {
+        Strategie strategie = strategies[participant];
+        if (strategie == null) {
+            long graineThread = graine + 0x9E3779B97F4A7C15L * compteurThreads.incrementAndGet();
+            strategie = participants.get(participant).fabrique().apply(graineThread);
+            strategies[participant] = strategie;
+        }
+        return strategie;
+    }
+
+    /**
+     * @return 0 si Rouge gagne, 1 si Bleu gagne, -1 pour une nulle (répétition, limite de coups ou joueur bloqué)
+     */
+    private int jouerPartie(JeuAraignee jeu, Strategie rouge, Strategie bleu, int[] coups) {
+        jeu.reinitialiser();
+        while (true) {
+            int nb = jeu.genererCoups(coups);
+            if (nb == 0) {
+                break;
+            }
+            int etat = jeu.getEtatCompact();
+            Strategie strategie = PlateauCompact.trait(etat) == 0 ? rouge : bleu;
+            if (!jeu.jouerCoup(strategie.choisirCoup(etat, coups, nb))) {
+                throw new IllegalStateException("Coup illégal de " + strategie.getNom());
+            }
+        }
+        return jeu.getIssue() == Issue.VICTOIRE ? jeu.getTrait() : -1;
+    }
+
+    public Classement getClassement() {
+        return classement;
+    }
+
+    public int getPartiesParRencontre() {
+        return partiesParRencontre;
+    }
+
+    public void arreter() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Résultats du tournoi, alimentés au fil des lots et consultables à tout moment.
+     *
+     * Les Elo sont l'estimation du maximum de vraisemblance du modèle de Bradley-Terry sur les scores
+     * (nulle = demi-point), chaque paire recevant en plus une nulle fictive pour que l'estimation reste finie.
+     * Elle est recalculée à la demande, à partir de l'estimation précédente : quelques itérations suffisent
+     * quand seuls quelques lots ont été ajoutés. L'intervalle de confiance à 95 % vient de l'information de Fisher.
+     * Les Elo sont centrés sur une moyenne de 0.
+     */
+    public static class Classement {
+
+        private static final double ECHELLE_ELO = 400 / Math.log(10);
+        private static final double Z_95 = 1.96;
+        private static final int ITERATIONS_MAX = 10_000;
+        private static final double PRECISION = 1e-9;
+
+        private final String[] noms;
+        private final long[][] parties;
+        private final double[][] points;
+        private final long[] nuls;
+        private long victoiresRouge;
+        private long totalParties;
+        private long dureeNanos;
+        private final double[] forces;
+
+        Classement(String[] noms) {
+            this.noms = noms.clone();
+            int n = noms.length;
+            this.parties = new long[n][n];
+            this.points = new double[n][n];
+            this.nuls = new long[n];
+            this.forces = new double[n];
+            Arrays.fill(forces, 1.0);
+        }
+
+        synchronized void enregistrer(int a, int b, int nbParties, double pointsA, int nbNuls, int nbVictoiresRouge) {
+            parties[a][b] += nbParties;
+            parties[b][a] += nbParties;
+            points[a][b] += pointsA;
+            points[b][a] += nbParties - pointsA;
+            nuls[a] += nbNuls;
+            nuls[b] += nbNuls;
+            victoiresRouge += nbVictoiresRouge;
+            totalParties += nbParties;
+        }
+
+        synchronized void ajouterDuree(long nanos) {
+            dureeNanos += nanos;
+        }
+
+        public int getNbParticipants() {
+            return noms.length;
+        }
+
+        public String getNom(int participant) {
+            return noms[participant];
+        }
+
+        public synchronized long getNbParties() {
+            return totalParties;
+        }
+
+        public synchronized long getNbParties(int participant) {
+            long total = 0;
+            for (long n : parties[participant]) {
+                total += n;
+            }
+            return total;
+        }
+
+        /**
+         * @return les points de chaque participant (1 par victoire, 0,5 par nulle)
+         */
+        public synchronized double[] getPoints() {
+            double[] total = new double[noms.length];
+            for (int i = 0; i < noms.length; i++) {
+                for (double p : points[i]) {
+                    total[i] += p;
+                }
+            }
+            return total;
+        }
+
+        public synchronized double getPartRougeGagnante() {
+            return totalParties == 0 ? 0 : (double) victoiresRouge / totalParties;
+        }
+
+        /**
+         * @return l'Elo de chaque participant, centré sur 0
+         */
+        public synchronized double[] calculerElo() {
+            int n = noms.length;
+            double[] scores = new double[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (parties[i][j] > 0) {
+                        scores[i] += points[i][j] + 0.5;
+                    }
+                }
+            }
+            // Algorithme MM de Hunter : chaque itération fait croître la vraisemblance
+            for (int iteration = 0; iteration < ITERATIONS_MAX; iteration++) {
+                double ecartMax = 0;
+                double sommeLog = 0;
+                for (int i = 0; i < n; i++) {
+                    double denominateur = 0;
+                    for (int j = 0; j < n; j++) {
+                        if (parties[i][j] > 0) {
+                            denominateur += (parties[i][j] + 1) / (forces[i] + forces[j]);
+                        }
+                    }
+                    double nouvelle = denominateur == 0 ? forces[i] : scores[i] / denominateur;
+                    ecartMax = Math.max(ecartMax, Math.abs(Math.log(nouvelle / forces[i])));
+                    forces[i] = nouvelle;
+                    sommeLog += Math.log(nouvelle);
+                }
+                double moyenne = Math.exp(sommeLog / n);
+                for (int i = 0; i < n; i++) {
+                    forces[i] /= moyenne;
+                }
+                if (ecartMax < PRECISION) {
+                    break;
+                }
+            }
+            double[] elo = new double[n];
+            for (int i = 0; i < n; i++) {
+                elo[i] = ECHELLE_ELO * Math.log(forces[i]);
+            }
+            return elo;
+        }
+
+        /**
+         * @return la demi-largeur de l'intervalle de confiance à 95 % de chaque Elo (infinie sans partie jouée)
+         */
+        public synchronized double[] calculerIntervalles() {
+            double[] elo = calculerElo();
+            int n = noms.length;
+            double[] intervalles = new double[n];
+            for (int i = 0; i < n; i++) {
+                double information = 0;
+                for (int j = 0; j < n; j++) {
+                    if (parties[i][j] > 0) {
+                        double p = 1 / (1 + Math.pow(10, (elo[j] - elo[i]) / 400));
+                        information += (parties[i][j] + 1) * p * (1 - p);
+                    }
+                }
+                intervalles[i] = information == 0 ? Double.POSITIVE_INFINITY
+                    : Z_95 * ECHELLE_ELO / Math.sqrt(information);
+            }
+            return intervalles;
+        }
+
+        @Override
+        public synchronized String toString() {
+            double[] elo = calculerElo();
+            double[] intervalles = calculerIntervalles();
+            double[] totalPoints = getPoints();
+            Integer[] ordre = new Integer[noms.length];
+            for (int i = 0; i < ordre.length; i++) {
+                ordre[i] = i;
+            }
+            Arrays.sort(ordre, (a, b) -> Double.compare(elo[b], elo[a]));
+            StringBuilder texte = new StringBuilder();
+            texte.append(String.format("%d parties en %.2f s (%.0f parties/s), Rouge gagne %.1f %% des parties%n",
+                totalParties, dureeNanos / 1e9, dureeNanos == 0 ? 0 : totalParties * 1e9 / dureeNanos,
+                100 * getPartRougeGagnante()));
+            texte.append(String.format("%4s  %-20s %7s %7s %10s %7s %7s%n",
+                "Rang", "Stratégie", "Elo", "± 95 %", "Parties", "Score", "Nuls"));
+            for (int rang = 0; rang < ordre.length; rang++) {
+                int i = ordre[rang];
+                long nbParties = getNbParties(i);
+                texte.append(String.format("%4d  %-20s %7.0f %7.0f %10d %6.1f%% %6.1f%%%n",
+                    rang + 1, noms[i], elo[i], intervalles[i], nbParties,
+                    nbParties == 0 ? 0 : 100 * totalPoints[i] / nbParties,
+                    nbParties == 0 ? 0 : 100.0 * nuls[i] / nbParties));
+            }
+            return texte.toString();
+        }
+    }
+
+    /**
+     * Usage : java Tournoi [toutes|suisse:rondes] [parties par rencontre] [threads] [stratégie...]
+     * Une stratégie peut être suffixée par #n pour inscrire plusieurs instances (glouton#2).
+     * Par défaut : toutes rondes, 1024 parties par rencontre, aleatoire et glouton.
+     */
+    public static void main(String[] args) {
+        String format = args.length > 0 ? args[0] : "toutes";
+        int partiesParRencontre = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int nbThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        List<String> noms = args.length > 3
+            ? Arrays.asList(args).subList(3, args.length)
+            : List.of("aleatoire", "glouton");
+
+        List<Participant> participants = new ArrayList<>(noms.size());
+        for (String nom : noms) {
+            String base = nom.contains("#") ? nom.substring(0, nom.indexOf('#')) : nom;
+            // Un nom inconnu est refusé avant le début du tournoi
+            Strategie.parNom(base, 0);
+            participants.add(new Participant(nom, graine -> Strategie.parNom(base, graine)));
+        }
+        Tournoi tournoi = new Tournoi(participants, partiesParRencontre, Simulation.LIMITE_COUPS_PAR_DEFAUT,
+            nbThreads, System.nanoTime());
+
+        Thread suivi = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(10_000);
+                    System.out.println(tournoi.getClassement());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "araignee-tournoi-suivi");
+        suivi.setDaemon(true);
+        suivi.start();
+        try {
+            Classement classement = format.startsWith("suisse")
+                ? tournoi.suisse(format.contains(":") ? Integer.parseInt(format.substring(format.indexOf(':') + 1))
+                    : (int) Math.ceil(Math.log(participants.size()) / Math.log(2)) + 1)
+                : tournoi.toutesRondes();
+            suivi.interrupt();
+            System.out.println(classement);
+        } finally {
+            tournoi.arreter();
+        }
+    }
+}
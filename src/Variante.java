@@ -0,0 +1,208 @@
+/**
+ * Règles d'une variante du jeu de l'Araignée : côté du plateau, nombre de pions par joueur
+ * et longueur d'alignement gagnante (en ligne ou en colonne, jamais en diagonale).
+ * Le jeu classique est CLASSIQUE : plateau 3×3, 3 pions, alignement de 3.
+ *
+ * Les cases sont des bits d'un long (plateaux jusqu'à 8×8), case d'index x * taille + y
+ * comme pour Position. La variante précalcule les masques des cases voisines et, pour chaque case,
+ * ceux des alignements qui la contiennent : déplacements et détection de victoire restent
+ * des tests de masques, quelle que soit la taille du plateau. Une variante est immuable.
+ */
+public final class Variante {
+
+    public static final int TAILLE_MAX = 8;
+
+    public static final Variante CLASSIQUE = new Variante(3, 3, 3);
+
+    private final int taille;
+    private final int nbPions;
+    private final int longueurAlignement;
+    private final long masqueCases;
+    private final long[] masquesVoisines;
+    /** alignementsParCase[c] : masques des alignements (lignes puis colonnes) qui contiennent la case c. */
+    private final long[][] alignementsParCase;
+    private final long[] alignements;
+
+    /**
+     * @param taille côté du plateau, de 2 à TAILLE_MAX
+     * @param nbPions pions par joueur ; il doit rester au moins une case libre une fois tous posés
+     * @param longueurAlignement nombre de pions à aligner, de 2 à min(taille, nbPions)
+     * @throws IllegalArgumentException si les paramètres ne forment pas une variante jouable
+     */
+    public Variante(int taille, int nbPions, int longueurAlignement) {
+        if (taille < 2 || taille > TAILLE_MAX) {
+            throw new IllegalArgumentException("La taille du plateau doit être entre 2 et " + TAILLE_MAX + " : " + taille);
+        }
+        if (nbPions < 1 || 2 * nbPions >= taille * taille) {
+            throw new IllegalArgumentException("Nombre de pions invalide pour un plateau " + taille + "×" + taille
+                + " : " + nbPions);
+        }
+        if (longueurAlignement < 2 || longueurAlignement > Math.min(taille, nbPions)) {
+            throw new IllegalArgumentException("La longueur d'alignement doit être entre 2 et "
+                + Math.min(taille, nbPions) + " : " + longueurAlignement);
+        }
+        this.taille = taille;
+        this.nbPions = nbPions;
+        this.longueurAlignement = longueurAlignement;
+        int nbCases = taille * taille;
+        this.masqueCases = nbCases == 64 ? -1L : (1L << nbCases) - 1;
+
+        this.masquesVoisines = new long[nbCases];
+        for (int c = 0; c < nbCases; c++) {
+            int x = c / taille;
+            int y = c % taille;
+            long voisines = 0;
+            if (x > 0) voisines |= 1L << (c - taille);
+            if (x < taille - 1) voisines |= 1L << (c + taille);
+            if (y > 0) voisines |= 1L << (c - 1);
+            if (y < taille - 1) voisines |= 1L << (c + 1);
+            masquesVoisines[c] = voisines;
+        }
+
+        int parLigne = taille - longueurAlignement + 1;
+        this.alignements = new long[2 * taille * parLigne];
+        int n = 0;
+        for (int x = 0; x < taille; x++) {
+            for (int debut = 0; debut < parLigne; debut++) {
+                long ligne = 0;
+                for (int k = 0; k < longueurAlignement; k++) {
+                    ligne |= 1L << (x * taille + debut + k);
+                }
+                alignements[n++] = ligne;
+            }
+        }
+        for (int y = 0; y < taille; y++) {
+            for (int debut = 0; debut < parLigne; debut++) {
+                long colonne = 0;
+                for (int k = 0; k < longueurAlignement; k++) {
+                    colonne |= 1L << ((debut + k) * taille + y);
+                }
+                alignements[n++] = colonne;
+            }
+        }
+
+        this.alignementsParCase = new long[nbCases][];
+        for (int c = 0; c < nbCases; c++) {
+            int nb = 0;
+            for (long alignement : alignements) {
+                if ((alignement & (1L << c)) != 0) {
+                    nb++;
+                }
+            }
+            long[] contenant = new long[nb];
+            nb = 0;
+            for (long alignement : alignements) {
+                if ((alignement & (1L << c)) != 0) {
+                    contenant[nb++] = alignement;
+                }
+            }
+            alignementsParCase[c] = contenant;
+        }
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public int getNbCases() {
+        return taille * taille;
+    }
+
+    public int getNbPions() {
+        return nbPions;
+    }
+
+    public int getLongueurAlignement() {
+        return longueurAlignement;
+    }
+
+    /**
+     * @return le nombre maximal de coups légaux dans une position : la taille de tampon à passer à JeuVariante
+     */
+    public int getMaxCoups() {
+        return Math.max(getNbCases(), 4 * nbPions);
+    }
+
+    public int index(int x, int y) {
+        if (x < 0 || x >= taille || y < 0 || y >= taille) {
+            throw new IllegalArgumentException("Position invalide. Les coordonnées doivent être entre 0 et "
+                + (taille - 1) + ".");
+        }
+        return x * taille + y;
+    }
+
+    public long getMasqueCases() {
+        return masqueCases;
+    }
+
+    /**
+     * @return le masque des cases orthogonalement adjacentes à une case
+     */
+    public long masqueVoisines(int indexCase) {
+        return masquesVoisines[indexCase];
+    }
+
+    public int getNbAlignements() {
+        return alignements.length;
+    }
+
+    /**
+     * @param alignement l'index de l'alignement (lignes d'abord, puis colonnes)
+     */
+    public long masqueAlignement(int alignement) {
+        return alignements[alignement];
+    }
+
+    /**
+     * Vérifie si un masque de cases contient un alignement complet.
+     */
+    public boolean aAligne(long masque) {
+        for (long alignement : alignements) {
+            if ((masque & alignement) == alignement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Variante incrémentale : ne vérifie que les alignements qui passent par la dernière case jouée.
+     *
+     * @param masque les cases occupées par le joueur qui vient de jouer
+     * @param derniereCase l'index de la case où il vient de poser son pion
+     */
+    public boolean aAligneApres(long masque, int derniereCase) {
+        for (long alignement : alignementsParCase[derniereCase]) {
+            if ((masque & alignement) == alignement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object autre) {
+        if (this == autre) {
+            return true;
+        }
+        if (!(autre instanceof Variante)) {
+            return false;
+        }
+        Variante variante = (Variante) autre;
+        return taille == variante.taille && nbPions == variante.nbPions
+            && longueurAlignement == variante.longueurAlignement;
+    }
+
+    @Override
+    public int hashCode() {
+        return (taille * 31 + nbPions) * 31 + longueurAlignement;
+    }
+
+    /**
+     * @return la variante au format « taille×taille/pions/alignement », par exemple 4×4/4/3
+     */
+    @Override
+    public String toString() {
+        return taille + "×" + taille + "/" + nbPions + "/" + longueurAlignement;
+    }
+}
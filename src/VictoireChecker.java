@@ -2,12 +2,23 @@
  * Vérifie les conditions de victoire du jeu de l'Araignée.
  * Un joueur gagne en alignant 3 pions sur une ligne ou une colonne.
  * Note : Les diagonales ne comptent PAS comme victoire.
+ *
+ * Les vérifications se font par test de masque sur les cases occupées par le joueur
+ * (voir PlateauCompact) : temps constant et aucune allocation.
  */
 public class VictoireChecker {
 
+    public static final int NB_ALIGNEMENTS = 6;
+
+    /** Masques des 3 lignes puis des 3 colonnes, case d'index x * 3 + y. */
+    private static final int[] MASQUES_ALIGNEMENTS = {
+        0b000_000_111, 0b000_111_000, 0b111_000_000,
+        0b001_001_001, 0b010_010_010, 0b100_100_100
+    };
+
     /**
      * Vérifie si un joueur a gagné en alignant 3 pions sur une ligne ou une colonne.
-     * 
+     *
      * @param plateau le plateau de jeu à vérifier
      * @param joueur le joueur dont on vérifie la victoire
      * @return true si le joueur a 3 pions alignés (ligne ou colonne), false sinon
@@ -16,48 +27,55 @@ public class VictoireChecker {
         if (plateau == null || joueur == null) {
             return false;
         }
-        return verifierLignes(plateau, joueur) || verifierColonnes(plateau, joueur);
+        return aAligne(plateau.masqueDe(joueur));
     }
 
-    private boolean verifierLignes(Plateau plateau, Joueur joueur) {
-        for (int ligne = 0; ligne < 3; ligne++) {
-            if (verifierLigne(plateau, joueur, ligne)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Vérifie si un masque de cases contient une ligne ou une colonne complète.
+     *
+     * @param masque les cases occupées par un joueur (9 bits)
+     * @return true si le masque contient un alignement gagnant
+     */
+    public static boolean aAligne(int masque) {
+        return (masque & MASQUES_ALIGNEMENTS[0]) == MASQUES_ALIGNEMENTS[0]
+            || (masque & MASQUES_ALIGNEMENTS[1]) == MASQUES_ALIGNEMENTS[1]
+            || (masque & MASQUES_ALIGNEMENTS[2]) == MASQUES_ALIGNEMENTS[2]
+            || (masque & MASQUES_ALIGNEMENTS[3]) == MASQUES_ALIGNEMENTS[3]
+            || (masque & MASQUES_ALIGNEMENTS[4]) == MASQUES_ALIGNEMENTS[4]
+            || (masque & MASQUES_ALIGNEMENTS[5]) == MASQUES_ALIGNEMENTS[5];
     }
-    
-    private boolean verifierLigne(Plateau plateau, Joueur joueur, int ligne) {
-        for (int colonne = 0; colonne < 3; colonne++) {
-            Position pos = new Position(ligne, colonne);
-            Pion pion = plateau.obtenirPion(pos);
-            
-            if (pion == null || !pion.appartientA(joueur)) {
-                return false;
-            }
-        }
-        return true;
+
+    /**
+     * Variante incrémentale : ne vérifie que la ligne et la colonne de la dernière case jouée.
+     * Suffisant après un placement ou un déplacement, puisque la partie s'arrête dès le premier alignement.
+     *
+     * @param masque les cases occupées par le joueur qui vient de jouer
+     * @param derniereCase l'index (0..8) de la case où il vient de poser son pion
+     * @return true si ce coup a formé un alignement gagnant
+     */
+    public static boolean aAligneApres(int masque, int derniereCase) {
+        int ligne = MASQUES_ALIGNEMENTS[derniereCase / 3];
+        int colonne = MASQUES_ALIGNEMENTS[3 + derniereCase % 3];
+        return (masque & ligne) == ligne || (masque & colonne) == colonne;
     }
-    
-    private boolean verifierColonnes(Plateau plateau, Joueur joueur) {
-        for (int colonne = 0; colonne < 3; colonne++) {
-            if (verifierColonne(plateau, joueur, colonne)) {
-                return true;
-            }
-        }
-        return false;
+
+    /**
+     * @param alignement l'index de l'alignement (0..2 lignes, 3..5 colonnes)
+     * @return le masque des 3 cases de cet alignement
+     */
+    public static int masqueAlignement(int alignement) {
+        return MASQUES_ALIGNEMENTS[alignement];
     }
 
-    private boolean verifierColonne(Plateau plateau, Joueur joueur, int colonne) {
-        for (int ligne = 0; ligne < 3; ligne++) {
-            Position pos = new Position(ligne, colonne);
-            Pion pion = plateau.obtenirPion(pos);
-            
-            if (pion == null || !pion.appartientA(joueur)) {
-                return false;
+    /**
+     * @return l'index du premier alignement complet du masque (0..2 lignes, 3..5 colonnes), -1 s'il n'y en a pas
+     */
+    public static int alignementGagnant(int masque) {
+        for (int i = 0; i < NB_ALIGNEMENTS; i++) {
+            if ((masque & MASQUES_ALIGNEMENTS[i]) == MASQUES_ALIGNEMENTS[i]) {
+                return i;
             }
         }
-        return true;
+        return -1;
     }
-}
\ No newline at end of file
+}
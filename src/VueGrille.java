@@ -0,0 +1,174 @@
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Grille 3×3 dessinée d'un seul composant, qui remplace les neuf boutons de l'interface.
+ *
+ * La vue garde le propriétaire de chaque case et, abonnée à la partie (voir EcouteurPlateau),
+ * ne demande que le redessin des cases modifiées : un coup redessine une ou deux cases,
+ * et paintComponent ne peint que les cases touchées par la zone à redessiner.
+ * Les demandes de redessin successives sont regroupées par Swing, ce qui suffit à suivre
+ * des parties rapides entre ordinateurs.
+ *
+ * En mode indices, les cases jouables sont teintées : vert pour un coup gagnant, orange pour un coup
+ * qui laisse un gain immédiat à l'adversaire, bleu pâle pour les autres (voir AnalyseCoups).
+ *
+ * Comme tout composant Swing, la vue ne doit être modifiée que depuis l'EDT.
+ */
+public class VueGrille extends JComponent implements EcouteurPlateau {
+
+    private static final int TAILLE_CASE = 120;
+    private static final int ESPACE = 5;
+    private static final int MARGE = 10;
+    private static final int MARGE_PION = 24;
+    private static final int TAILLE = 2 * MARGE + 3 * TAILLE_CASE + 2 * ESPACE;
+
+    private static final Color[] COULEURS_JOUEURS = { Color.RED, Color.BLUE };
+    private static final Color COULEUR_SELECTION = Color.YELLOW;
+    private static final Color COULEUR_BORDURE = Color.GRAY;
+    private static final Color COULEUR_GAGNANT = new Color(170, 235, 170);
+    private static final Color COULEUR_RISQUE = new Color(255, 205, 160);
+    private static final Color COULEUR_JOUABLE = new Color(225, 235, 255);
+
+    /** Rectangle de chaque case, par index (voir Position). */
+    private static final Rectangle[] CASES = new Rectangle[PlateauCompact.NB_CASES];
+
+    static {
+        for (int index = 0; index < CASES.length; index++) {
+            // Comme pour Position, x est la ligne et y la colonne
+            int gauche = MARGE + (index % 3) * (TAILLE_CASE + ESPACE);
+            int haut = MARGE + (index / 3) * (TAILLE_CASE + ESPACE);
+            CASES[index] = new Rectangle(gauche, haut, TAILLE_CASE, TAILLE_CASE);
+        }
+    }
+
+    private final int[] proprietaires = new int[PlateauCompact.NB_CASES];
+    private int caseSelectionnee = -1;
+    private int masqueJouables;
+    private int masqueGagnants;
+    private int masqueRisques;
+
+    /**
+     * @param clic appelé avec l'index de la case cliquée
+     */
+    public VueGrille(IntConsumer clic) {
+        Arrays.fill(proprietaires, -1);
+        setPreferredSize(new Dimension(TAILLE, TAILLE));
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                for (int index = 0; index < CASES.length; index++) {
+                    if (CASES[index].contains(e.getX(), e.getY())) {
+                        clic.accept(index);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Aligne la vue sur une position entière (nouvelle partie, reprise) : seules les cases
+     * qui diffèrent de l'affichage actuel sont redessinées.
+     */
+    public void afficher(int etat) {
+        for (int index = 0; index < proprietaires.length; index++) {
+            caseModifiee(index, PlateauCompact.proprietaire(etat, index));
+        }
+    }
+
+    /**
+     * Met une case en surbrillance, ou aucune.
+     *
+     * @param indexCase l'index de la case, -1 pour retirer la sélection
+     */
+    public void selectionner(int indexCase) {
+        if (indexCase == caseSelectionnee) {
+            return;
+        }
+        int ancienne = caseSelectionnee;
+        caseSelectionnee = indexCase;
+        redessinerCase(ancienne);
+        redessinerCase(indexCase);
+    }
+
+    /**
+     * Affiche les indices : masques de cases (voir Position), 0 partout pour les effacer.
+     * Seules les cases dont l'indice change sont redessinées.
+     */
+    public void afficherIndices(int jouables, int gagnants, int risques) {
+        int modifiees = (jouables ^ masqueJouables) | (gagnants ^ masqueGagnants) | (risques ^ masqueRisques);
+        masqueJouables = jouables;
+        masqueGagnants = gagnants;
+        masqueRisques = risques;
+        for (; modifiees != 0; modifiees &= modifiees - 1) {
+            redessinerCase(Integer.numberOfTrailingZeros(modifiees));
+        }
+    }
+
+    private Color couleurFond(int indexCase) {
+        int bit = 1 << indexCase;
+        if (indexCase == caseSelectionnee) {
+            return COULEUR_SELECTION;
+        }
+        if ((masqueGagnants & bit) != 0) {
+            return COULEUR_GAGNANT;
+        }
+        if ((masqueRisques & bit) != 0) {
+            return COULEUR_RISQUE;
+        }
+        return (masqueJouables & bit) != 0 ? COULEUR_JOUABLE : Color.WHITE;
+    }
+
+    @Override
+    public void caseModifiee(int indexCase, int proprietaire) {
+        if (proprietaires[indexCase] != proprietaire) {
+            proprietaires[indexCase] = proprietaire;
+            redessinerCase(indexCase);
+        }
+    }
+
+    private void redessinerCase(int indexCase) {
+        if (indexCase >= 0) {
+            repaint(CASES[indexCase]);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle zone = g2.getClipBounds();
+        if (zone == null) {
+            zone = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g2.setColor(getBackground());
+        g2.fillRect(zone.x, zone.y, zone.width, zone.height);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int index = 0; index < CASES.length; index++) {
+            Rectangle rectangle = CASES[index];
+            if (!rectangle.intersects(zone)) {
+                continue;
+            }
+            g2.setColor(couleurFond(index));
+            g2.fillRect(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+            g2.setColor(COULEUR_BORDURE);
+            g2.drawRect(rectangle.x, rectangle.y, rectangle.width - 1, rectangle.height - 1);
+            int proprietaire = proprietaires[index];
+            if (proprietaire >= 0) {
+                g2.setColor(COULEURS_JOUEURS[proprietaire]);
+                g2.fillOval(rectangle.x + MARGE_PION, rectangle.y + MARGE_PION,
+                    rectangle.width - 2 * MARGE_PION, rectangle.height - 2 * MARGE_PION);
+            }
+        }
+    }
+}
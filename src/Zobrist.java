@@ -0,0 +1,81 @@
+import java.util.SplittableRandom;
+
+/**
+ * Clés de hachage de Zobrist pour les positions du jeu de l'Araignée.
+ * Le hash d'une position est le XOR des clés de ses pions (une clé par joueur et par case),
+ * de la clé de trait si le joueur 1 a le trait, et de la clé de phase en DEPLACEMENT.
+ * Il se met donc à jour en O(1) à chaque pion posé, retiré ou déplacé.
+ */
+public final class Zobrist {
+
+    private static final long GRAINE = 0x41524149474E4545L;
+    private static final long[] CLES_PIONS = new long[2 * PlateauCompact.NB_CASES];
+    private static final long CLE_TRAIT;
+    private static final long CLE_PHASE;
+
+    static {
+        SplittableRandom aleatoire = new SplittableRandom(GRAINE);
+        for (int i = 0; i < CLES_PIONS.length; i++) {
+            CLES_PIONS[i] = aleatoire.nextLong();
+        }
+        CLE_TRAIT = aleatoire.nextLong();
+        CLE_PHASE = aleatoire.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long clePion(int joueur, int indexCase) {
+        return CLES_PIONS[joueur * PlateauCompact.NB_CASES + indexCase];
+    }
+
+    public static long cleTrait() {
+        return CLE_TRAIT;
+    }
+
+    public static long clePhase() {
+        return CLE_PHASE;
+    }
+
+    /**
+     * Calcule le hash complet d'un état compact.
+     */
+    public static long hash(int etat) {
+        long hash = 0;
+        for (int joueur = 0; joueur < 2; joueur++) {
+            for (int pions = PlateauCompact.masque(etat, joueur); pions != 0; pions &= pions - 1) {
+                hash ^= clePion(joueur, Integer.numberOfTrailingZeros(pions));
+            }
+        }
+        if (PlateauCompact.trait(etat) == 1) {
+            hash ^= CLE_TRAIT;
+        }
+        if (PlateauCompact.estEnDeplacement(etat)) {
+            hash ^= CLE_PHASE;
+        }
+        return hash;
+    }
+
+    /**
+     * Met à jour un hash après Coup.appliquer, sans recalculer toute la position.
+     *
+     * @param hash le hash de l'état avant le coup
+     * @param etat l'état avant le coup
+     * @param suivant l'état après le coup
+     * @param coup le coup joué
+     */
+    public static long apresCoup(long hash, int etat, int suivant, int coup) {
+        int joueur = PlateauCompact.trait(etat);
+        hash ^= clePion(joueur, Coup.destination(coup));
+        if (!Coup.estPlacement(coup)) {
+            hash ^= clePion(joueur, Coup.origine(coup));
+        }
+        if (((etat ^ suivant) & PlateauCompact.BIT_TRAIT) != 0) {
+            hash ^= CLE_TRAIT;
+        }
+        if (((etat ^ suivant) & PlateauCompact.BIT_PHASE) != 0) {
+            hash ^= CLE_PHASE;
+        }
+        return hash;
+    }
+}
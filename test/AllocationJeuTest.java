@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parties complètes sur un JeuAraignee réutilisé par reinitialiser : une fois le code compilé et l'historique
+ * à sa taille, jouer n'alloue rien. Même chemin que AllocationJeuBenchmark (benchmarks), mesuré ici par
+ * le compteur d'allocations du thread pour que la vérification fasse partie de mvn test.
+ */
+class AllocationJeuTest {
+
+    private static final int PARTIES_CHAUFFE = 50_000;
+    private static final int PARTIES_MESUREES = 10_000;
+    /** Tolérance : moins d'un octet par partie, pour une éventuelle recompilation pendant la mesure. */
+    private static final long OCTETS_MAX = PARTIES_MESUREES;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final SplittableRandom aleatoire = new SplittableRandom(42);
+    private final int[] coups = new int[Coup.MAX_COUPS];
+    private final JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+
+    @BeforeAll
+    static void verifierMesureDisponible() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private int partieJouerCoup(JeuAraignee jeu) {
+        jeu.reinitialiser();
+        int nbCoupsJoues = 0;
+        for (int nb = jeu.genererCoups(coups); nb > 0; nb = jeu.genererCoups(coups)) {
+            if (jeu.jouerCoup(coups[aleatoire.nextInt(nb)])) {
+                nbCoupsJoues++;
+            }
+        }
+        return nbCoupsJoues;
+    }
+
+    private int partiePlacerDeplacer(JeuAraignee jeu) {
+        jeu.reinitialiser();
+        int nbVictoires = 0;
+        for (int nb = jeu.genererCoups(coups); nb > 0; nb = jeu.genererCoups(coups)) {
+            int coup = coups[aleatoire.nextInt(nb)];
+            Position destination = Position.of(Coup.destination(coup));
+            boolean victoire = Coup.estPlacement(coup)
+                ? jeu.placerPion(destination)
+                : jeu.deplacerPion(Position.of(Coup.origine(coup)), destination);
+            if (victoire) {
+                nbVictoires++;
+            }
+        }
+        return nbVictoires;
+    }
+
+    /**
+     * @return les octets alloués par le thread courant pendant PARTIES_MESUREES parties, après la chauffe
+     */
+    private long octetsAlloues(ToIntFunction<JeuAraignee> partie) {
+        long puits = 0;
+        for (int i = 0; i < PARTIES_CHAUFFE; i++) {
+            puits += partie.applyAsInt(jeu);
+        }
+        long idThread = Thread.currentThread().getId();
+        long avant = THREADS.getThreadAllocatedBytes(idThread);
+        for (int i = 0; i < PARTIES_MESUREES; i++) {
+            puits += partie.applyAsInt(jeu);
+        }
+        long octets = THREADS.getThreadAllocatedBytes(idThread) - avant;
+        assertTrue(puits > 0);
+        return octets;
+    }
+
+    @Test
+    void jouerCoupNAllouePas() {
+        long octets = octetsAlloues(this::partieJouerCoup);
+        assertTrue(octets < OCTETS_MAX, octets + " octets alloués en " + PARTIES_MESUREES + " parties");
+    }
+
+    @Test
+    void placerEtDeplacerNAllouentPas() {
+        long octets = octetsAlloues(this::partiePlacerDeplacer);
+        assertTrue(octets < OCTETS_MAX, octets + " octets alloués en " + PARTIES_MESUREES + " parties");
+    }
+}
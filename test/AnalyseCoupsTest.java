@@ -0,0 +1,119 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Indices de JeuAraignee.analyserCoups : coups gagnants, ripostes gagnantes, valeur du solveur vue par celui
+ * qui joue, et coups qui terminent la partie sur une nulle.
+ */
+class AnalyseCoupsTest {
+
+    private static Solveur oracle;
+
+    private final JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+    private final AnalyseCoups analyse = new AnalyseCoups();
+
+    @BeforeAll
+    static void resoudre() {
+        oracle = Solveur.resoudre();
+    }
+
+    private void jouer(int... coups) {
+        for (int coup : coups) {
+            assertTrue(jeu.jouerCoup(coup), Coup.toString(coup));
+        }
+    }
+
+    private int index(int coup) {
+        int i = analyse.indexDe(coup);
+        assertTrue(i >= 0, Coup.toString(coup));
+        return i;
+    }
+
+    /** Rouge en 0 et 1, Bleu en 3 et 4 : Rouge gagne en 2, et doit sinon parer en 5. */
+    private void menacesCroisees() {
+        jouer(Coup.placement(0), Coup.placement(3), Coup.placement(1), Coup.placement(4));
+    }
+
+    @Test
+    void unCoupGagnantEstReconnuAuTraitFige() {
+        menacesCroisees();
+        jeu.analyserCoups(analyse, null);
+
+        assertEquals(5, analyse.getNbCoups());
+        assertEquals(1 << 2, analyse.masqueDestinationsGagnantes(-1));
+        assertTrue(analyse.estGagnant(index(Coup.placement(2))));
+        assertFalse(analyse.estGagnant(index(Coup.placement(5))));
+        assertEquals(Resultat.INCONNU, analyse.getResultat(index(Coup.placement(2))));
+    }
+
+    @Test
+    void adversairePeutGagnerSaufSiLeCoupGagneOuPare() {
+        menacesCroisees();
+        jeu.analyserCoups(analyse, null);
+
+        assertFalse(analyse.adversairePeutGagner(index(Coup.placement(2))));
+        assertFalse(analyse.adversairePeutGagner(index(Coup.placement(5))));
+        assertTrue(analyse.adversairePeutGagner(index(Coup.placement(6))));
+        assertEquals((1 << 6) | (1 << 7) | (1 << 8), analyse.masqueDestinationsRisquees(-1));
+    }
+
+    @Test
+    void laValeurDuSolveurEstCelleDuJoueurQuiJoue() {
+        menacesCroisees();
+        jeu.analyserCoups(analyse, oracle);
+
+        assertEquals(Resultat.GAIN, analyse.getResultat(index(Coup.placement(2))));
+        // Après 6, Bleu gagne en 5 : la position suivante est un gain pour Bleu, donc une perte pour Rouge
+        int suivant = Coup.appliquer(jeu.getEtatCompact(), Coup.placement(6));
+        assertEquals(Resultat.GAIN, oracle.getResultat(suivant));
+        assertEquals(Resultat.PERTE, analyse.getResultat(index(Coup.placement(6))));
+        for (int i = 0; i < analyse.getNbCoups(); i++) {
+            if (!analyse.estGagnant(i)) {
+                Resultat adverse = oracle.getResultat(Coup.appliquer(jeu.getEtatCompact(), analyse.getCoup(i)));
+                assertEquals(adverse == Resultat.GAIN ? Resultat.PERTE : adverse == Resultat.PERTE ? Resultat.GAIN : adverse,
+                    analyse.getResultat(i), Coup.toString(analyse.getCoup(i)));
+            }
+        }
+    }
+
+    @Test
+    void unCoupQuiRepeteUneTroisiemeFoisEstNul() {
+        // Rouge en 0, 4, 8 et Bleu en 2, 5, 6, puis deux allers-retours moins le dernier demi-coup
+        jouer(Coup.placement(0), Coup.placement(2), Coup.placement(4),
+              Coup.placement(6), Coup.placement(8), Coup.placement(5));
+        int[] allerRetour = { Coup.deplacement(0, 3), Coup.deplacement(6, 7), Coup.deplacement(3, 0), Coup.deplacement(7, 6) };
+        jouer(allerRetour);
+        jouer(allerRetour[0], allerRetour[1], allerRetour[2]);
+        jeu.analyserCoups(analyse, oracle);
+
+        int repetition = index(allerRetour[3]);
+        assertTrue(analyse.estNul(repetition));
+        assertFalse(analyse.adversairePeutGagner(repetition));
+        assertEquals(Resultat.NUL, analyse.getResultat(repetition));
+
+        assertTrue(jeu.jouerCoup(allerRetour[3]));
+        assertEquals(Issue.NUL, jeu.getIssue());
+    }
+
+    @Test
+    void unCoupQuiAtteintLaLimiteEstNulSaufSIlGagne() {
+        menacesCroisees();
+        jeu.setLimiteCoups(5);
+        jeu.analyserCoups(analyse, oracle);
+
+        int gagnant = index(Coup.placement(2));
+        assertTrue(analyse.estGagnant(gagnant));
+        assertFalse(analyse.estNul(gagnant));
+        for (int i = 0; i < analyse.getNbCoups(); i++) {
+            if (i != gagnant) {
+                assertTrue(analyse.estNul(i), Coup.toString(analyse.getCoup(i)));
+                assertFalse(analyse.adversairePeutGagner(i));
+                assertEquals(Resultat.NUL, analyse.getResultat(i));
+            }
+        }
+    }
+}
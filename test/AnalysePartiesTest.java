@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Analyse d'un journal : ouverture lue dans l'historique final, issue rejouée avec la limite de chaque partie.
+ */
+class AnalysePartiesTest {
+
+    private static Solveur oracle;
+
+    @TempDir
+    Path dossier;
+
+    private final AnalyseParties analyse = new AnalyseParties(oracle, 2);
+
+    @BeforeAll
+    static void resoudre() {
+        oracle = Solveur.resoudre();
+    }
+
+    @AfterEach
+    void arreter() {
+        analyse.arreter();
+    }
+
+    @Test
+    void analyseChaquePartieAvecSaPropreLimite() throws IOException {
+        Path fichier = dossier.resolve("parties.journal");
+        try (JournalPartie journal = JournalPartie.ouvrir(fichier, JournalPartie.PolitiqueSynchro.AUCUNE, 16)) {
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            // Premier coup au centre, annulé et remplacé par le coin : l'ouverture est le coin
+            jouer(jeu, Coup.placement(4));
+            jeu.annulerCoup();
+            jouer(jeu, Coup.placement(0), Coup.placement(3), Coup.placement(1), Coup.placement(4), Coup.placement(2));
+
+            // Nulle par la limite de coups de cette partie seulement
+            jeu.reinitialiser();
+            jeu.setLimiteCoups(3);
+            jouer(jeu, Coup.placement(8), Coup.placement(0), Coup.placement(4));
+
+            // Partie inachevée, avec la limite par défaut
+            jeu.reinitialiser();
+            jeu.setLimiteCoups(JeuAraignee.LIMITE_COUPS_PAR_DEFAUT);
+            jouer(jeu, Coup.placement(8), Coup.placement(0), Coup.placement(4), Coup.placement(2));
+        }
+
+        AnalyseParties.Statistiques statistiques = analyse.analyser(fichier);
+        assertEquals(3, statistiques.getNbParties());
+        assertEquals(0, statistiques.getNbPartiesInvalides());
+        assertArrayEquals(new long[] { 1, 0, 0, 0, 0, 0, 0, 0, 2 }, statistiques.getOuvertures());
+        assertArrayEquals(new long[] { 1, 0, 0, 0, 0, 0 }, statistiques.getAlignementsGagnants());
+        assertEquals(1, statistiques.getNbVictoires());
+        assertEquals(1, statistiques.getNbNuls());
+    }
+
+    private static void jouer(JeuAraignee jeu, int... coups) {
+        for (int coup : coups) {
+            assertTrue(jeu.jouerCoup(coup), Coup.toString(coup));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ConnexionClientTest {
+
+    @Test
+    void unIdentifiantTropGrandPourUnIntEstRefuse() throws IOException {
+        assertEquals("ERREUR 2147483647 partie inconnue\n", repondre("ETAT 2147483647\n"));
+        assertEquals("ERREUR -1 partie inconnue\n", repondre("ETAT 2147483648\n"));
+        assertEquals("ERREUR -1 partie inconnue\n", repondre("ETAT 4294967295\n"));
+        assertEquals("ERREUR -1 partie inconnue\n", repondre("ETAT 12345678901\n"));
+    }
+
+    /**
+     * Envoie une ligne de commande à une ConnexionClient reliée par une socket locale et renvoie sa réponse.
+     */
+    private static String repondre(String commande) throws IOException {
+        try (ServerSocketChannel serveur = ServerSocketChannel.open();
+                Selector selecteur = Selector.open()) {
+            serveur.bind(new InetSocketAddress("localhost", 0));
+            try (SocketChannel client = SocketChannel.open(serveur.getLocalAddress());
+                    SocketChannel accepte = serveur.accept()) {
+                accepte.configureBlocking(false);
+                SelectionKey cle = accepte.register(selecteur, SelectionKey.OP_READ);
+                ConnexionClient connexion = new ConnexionClient(accepte, cle);
+
+                client.write(ByteBuffer.wrap(commande.getBytes(StandardCharsets.US_ASCII)));
+                selecteur.select();
+                assertTrue(connexion.lire());
+
+                ByteBuffer reponse = ByteBuffer.allocate(64);
+                do {
+                    client.read(reponse);
+                } while (reponse.position() == 0 || reponse.get(reponse.position() - 1) != '\n');
+                return new String(reponse.array(), 0, reponse.position(), StandardCharsets.US_ASCII);
+            }
+        }
+    }
+}
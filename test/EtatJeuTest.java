@@ -0,0 +1,124 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EtatJeu suit les mêmes règles que JeuAraignee, creer refuse les états incohérents,
+ * et jouer n'alloue que le nouvel état.
+ */
+class EtatJeuTest {
+
+    @Test
+    void getEtatSuitLaPartieCoupParCoup() {
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        int[] coups = new int[Coup.MAX_COUPS];
+        int nbNulles = 0;
+        for (int partie = 0; partie < 500; partie++) {
+            JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+            jeu.setLimiteCoups(partie % 2 == 0 ? 40 : JeuAraignee.LIMITE_COUPS_PAR_DEFAUT);
+            for (int nb = jeu.genererCoups(coups); nb > 0; nb = jeu.genererCoups(coups)) {
+                jeu.jouerCoup(coups[aleatoire.nextInt(nb)]);
+                if (aleatoire.nextInt(8) == 0) {
+                    jeu.annulerCoup();
+                }
+                EtatJeu etat = jeu.getEtat();
+                assertEquals(jeu.getEtatCompact(), etat.etat());
+                assertEquals(jeu.getNbCoupsJoues(), etat.nbCoupsJoues());
+                assertEquals(jeu.getIssue(), etat.issue());
+                assertEquals(jeu.getLimiteCoups(), etat.limiteCoups());
+            }
+            if (jeu.getIssue() == Issue.NUL) {
+                nbNulles++;
+            }
+        }
+        assertTrue(nbNulles > 0);
+    }
+
+    @Test
+    void getEtatProlongeLeDernierEtatRetourne() {
+        JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+        jeu.jouerCoup(Coup.placement(4));
+        EtatJeu avant = jeu.getEtat();
+        assertSame(avant, jeu.getEtat());
+
+        jeu.jouerCoup(Coup.placement(0));
+        assertSame(avant, jeu.getEtat().precedent());
+
+        jeu.annulerCoup();
+        jeu.jouerCoup(Coup.placement(8));
+        EtatJeu apres = jeu.getEtat();
+        assertSame(avant, apres.precedent());
+        assertEquals(Coup.placement(8), apres.dernierCoup());
+    }
+
+    @Test
+    void laLimiteDeCoupsFaitPartieDeLEtat() {
+        EtatJeu etat = EtatJeu.initial(3)
+            .jouer(Coup.placement(0)).jouer(Coup.placement(2)).jouer(Coup.placement(4));
+        assertEquals(Issue.NUL, etat.issue());
+
+        JeuAraignee jeu = JeuAraignee.depuis(etat, "Rouge", "Bleu");
+        assertEquals(3, jeu.getLimiteCoups());
+        assertEquals(Issue.NUL, jeu.getIssue());
+        assertEquals(etat, jeu.getEtat());
+    }
+
+    @Test
+    void leConstructeurRefuseLesEtatsIncoherents() {
+        EtatJeu initial = EtatJeu.INITIAL;
+        int placement = Coup.placement(4);
+        int apres = Coup.appliquer(initial.etat(), placement);
+        int limite = EtatJeu.LIMITE_COUPS_PAR_DEFAUT;
+
+        assertEquals(initial.jouer(placement), EtatJeu.creer(apres, placement, 1, Issue.EN_COURS, limite, initial));
+        // Racine qui n'est pas la position initiale, issue absente, limite nulle
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(apres, placement, 1, Issue.EN_COURS, limite, null));
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(apres, placement, 1, null, limite, initial));
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.initial(0));
+        // Position, nombre de coups, limite ou issue qui ne suivent pas du coup joué
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(initial.etat(), placement, 1, Issue.EN_COURS, limite, initial));
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(apres, placement, 2, Issue.EN_COURS, limite, initial));
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(apres, placement, 1, Issue.EN_COURS, limite + 1, initial));
+        assertThrows(IllegalArgumentException.class, () -> EtatJeu.creer(apres, placement, 1, Issue.NUL, limite, initial));
+        assertThrows(IllegalArgumentException.class,
+            () -> EtatJeu.creer(apres, Coup.deplacement(0, 4), 1, Issue.EN_COURS, limite, initial));
+
+        // Aucun coup après la fin de partie
+        EtatJeu gagne = initial.jouer(Coup.placement(0)).jouer(Coup.placement(3)).jouer(Coup.placement(1))
+            .jouer(Coup.placement(4)).jouer(Coup.placement(2));
+        assertEquals(Issue.VICTOIRE, gagne.issue());
+        int suivant = Coup.appliquer(gagne.etat(), Coup.placement(8));
+        assertThrows(IllegalArgumentException.class,
+            () -> EtatJeu.creer(suivant, Coup.placement(8), 6, Issue.VICTOIRE, limite, gagne));
+    }
+
+    @Test
+    void jouerNAlloueQueLeNouvelEtat() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SplittableRandom aleatoire = new SplittableRandom(7);
+        int[] coups = new int[Coup.MAX_COUPS];
+        long[] nbCoups = new long[1];
+        Runnable parties = () -> {
+            for (int partie = 0; partie < 5_000; partie++) {
+                EtatJeu etat = EtatJeu.INITIAL;
+                for (int nb = etat.genererCoups(coups); nb > 0; nb = etat.genererCoups(coups)) {
+                    etat = etat.jouer(coups[aleatoire.nextInt(nb)]);
+                }
+                nbCoups[0] += etat.nbCoupsJoues();
+            }
+        };
+        parties.run();
+        nbCoups[0] = 0;
+        long idThread = Thread.currentThread().getId();
+        long avant = threads.getThreadAllocatedBytes(idThread);
+        parties.run();
+        long octetsParCoup = (threads.getThreadAllocatedBytes(idThread) - avant) / nbCoups[0];
+        // Un état tient sur 40 octets ; allouer la fenêtre de répétition à chaque déplacement triplerait ce coût
+        assertTrue(octetsParCoup < 48, octetsParCoup + " octets par coup");
+    }
+}
@@ -0,0 +1,148 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fin de partie de JeuAraignee : victoire, et nulle par triple répétition, limite de coups ou joueur bloqué.
+ */
+class JeuAraigneeTest {
+
+    /**
+     * Fin du placement sans alignement : Rouge en 0, 4, 8 et Bleu en 2, 5, 6 ; Rouge a le trait.
+     */
+    private static final int[] PLACEMENT_SANS_ALIGNEMENT = {
+        Coup.placement(0), Coup.placement(2), Coup.placement(4),
+        Coup.placement(6), Coup.placement(8), Coup.placement(5)
+    };
+
+    /** Aller-retour de chaque joueur qui ramène la position de départ en quatre demi-coups. */
+    private static final int[] ALLER_RETOUR = {
+        Coup.deplacement(0, 3), Coup.deplacement(6, 7), Coup.deplacement(3, 0), Coup.deplacement(7, 6)
+    };
+
+    private final JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+
+    private void jouer(int... coups) {
+        for (int coup : coups) {
+            assertTrue(jeu.jouerCoup(coup), Coup.toString(coup));
+        }
+    }
+
+    @Test
+    void unAlignementGagneLaPartie() {
+        jouer(Coup.placement(0), Coup.placement(3), Coup.placement(1), Coup.placement(4));
+        assertTrue(jeu.placerPion(Position.of(2)));
+
+        assertEquals(Issue.VICTOIRE, jeu.getIssue());
+        assertEquals(Joueur.ID_ROUGE, jeu.getTrait());
+        assertEquals(0, jeu.genererCoups(new int[Coup.MAX_COUPS]));
+    }
+
+    @Test
+    void laTroisiemeOccurrenceDUnePositionEstNulle() {
+        jouer(PLACEMENT_SANS_ALIGNEMENT);
+        jouer(ALLER_RETOUR);
+        jouer(ALLER_RETOUR[0], ALLER_RETOUR[1], ALLER_RETOUR[2]);
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+
+        jouer(ALLER_RETOUR[3]);
+        assertEquals(Issue.NUL, jeu.getIssue());
+        assertTrue(jeu.estPartieTerminee());
+        assertFalse(jeu.jouerCoup(ALLER_RETOUR[0]));
+        assertThrows(IllegalArgumentException.class, () -> jeu.deplacerPion(Position.of(0), Position.of(3)));
+    }
+
+    @Test
+    void annulerLeCoupQuiRepeteRelanceLaPartie() {
+        jouer(PLACEMENT_SANS_ALIGNEMENT);
+        jouer(ALLER_RETOUR);
+        jouer(ALLER_RETOUR);
+        assertEquals(Issue.NUL, jeu.getIssue());
+
+        assertTrue(jeu.annulerCoup());
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+        assertTrue(jeu.retablirCoup());
+        assertEquals(Issue.NUL, jeu.getIssue());
+    }
+
+    @Test
+    void laLimiteDeCoupsTermineLaPartie() {
+        jeu.setLimiteCoups(4);
+        jouer(Coup.placement(0), Coup.placement(2), Coup.placement(4));
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+
+        jouer(Coup.placement(6));
+        assertEquals(Issue.NUL, jeu.getIssue());
+    }
+
+    @Test
+    void abaisserLaLimiteAuNombreDeCoupsTermineLaPartie() {
+        jouer(Coup.placement(0), Coup.placement(2), Coup.placement(4));
+        assertThrows(IllegalArgumentException.class, () -> jeu.setLimiteCoups(0));
+        assertThrows(IllegalArgumentException.class, () -> jeu.setLimiteCoups(2));
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+
+        jeu.setLimiteCoups(3);
+        assertEquals(Issue.NUL, jeu.getIssue());
+    }
+
+    @Test
+    void unCoupNePeutPasEtreRetabliApresLaFinDePartie() {
+        jouer(Coup.placement(0), Coup.placement(2), Coup.placement(4));
+        jeu.annulerCoup();
+        jeu.setLimiteCoups(2);
+
+        assertEquals(Issue.NUL, jeu.getIssue());
+        assertFalse(jeu.retablirCoup());
+        assertEquals(2, jeu.getNbCoupsJoues());
+    }
+
+    @Test
+    void unJoueurBloqueTermineLaPartieSurUneNulle() {
+        // Bleu en 0, 1, 3 ; Rouge en 2, 4, 7 puis 7 -> 6 : aucun pion bleu ne peut plus bouger
+        jouer(Coup.placement(2), Coup.placement(0), Coup.placement(4),
+              Coup.placement(1), Coup.placement(7), Coup.placement(3));
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+
+        assertFalse(jeu.deplacerPion(Position.of(7), Position.of(6)));
+        assertEquals(Joueur.ID_BLEU, jeu.getTrait());
+        assertTrue(PlateauCompact.estBloque(jeu.getEtatCompact()));
+        assertEquals(Issue.NUL, jeu.getIssue());
+        assertEquals(0, jeu.genererCoups(new int[Coup.MAX_COUPS]));
+    }
+
+    @Test
+    void estBloqueCorrespondAuxPositionsAtteignablesSansCoupLegal() {
+        Solveur solveur = Solveur.resoudre();
+        int[] coups = new int[Coup.MAX_COUPS];
+        int nbBloquees = 0;
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+            int etat = PlateauCompact.etatDepuisIndex(index);
+            if (solveur.getResultat(etat) == Resultat.INCONNU || PlateauCompact.estTerminee(etat)) {
+                continue;
+            }
+            boolean bloque = Coup.generer(etat, coups) == 0;
+            assertEquals(bloque, PlateauCompact.estBloque(etat), PlateauCompact.toString(etat));
+            if (bloque) {
+                nbBloquees++;
+                assertEquals(Resultat.NUL, solveur.getResultat(etat), PlateauCompact.toString(etat));
+            }
+        }
+        assertTrue(nbBloquees > 0);
+    }
+
+    @Test
+    void reinitialiserRelanceUnePartieNulle() {
+        jeu.setLimiteCoups(1);
+        jouer(Coup.placement(4));
+        assertEquals(Issue.NUL, jeu.getIssue());
+
+        jeu.reinitialiser();
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+        assertEquals(1, jeu.getLimiteCoups());
+        assertEquals(PlateauCompact.ETAT_INITIAL, jeu.getEtatCompact());
+    }
+}
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JeuVariante : mêmes coups et même issue que JeuAraignee sur le plateau classique,
+ * bornes des variantes, victoire sur un plateau plus grand et annulation d'une victoire.
+ */
+class JeuVarianteTest {
+
+    @Test
+    void suitJeuAraigneeCoupParCoupSurLePlateauClassique() {
+        SplittableRandom aleatoire = new SplittableRandom(2024);
+        int[] coupsVariante = new int[Variante.CLASSIQUE.getMaxCoups()];
+        int[] coups = new int[Coup.MAX_COUPS];
+        int nbNulles = 0;
+        for (int partie = 0; partie < 20_000; partie++) {
+            JeuVariante variante = new JeuVariante(Variante.CLASSIQUE);
+            JeuAraignee jeu = new JeuAraignee("Rouge", "Bleu");
+            while (true) {
+                int nb = jeu.genererCoups(coups);
+                assertEquals(nb, variante.genererCoups(coupsVariante), jeu.toString());
+                assertEquals(jeu.getIssue(), variante.getIssue(), variante.toString());
+                assertEquals(jeu.getTrait(), variante.getTrait());
+                for (int c = 0; c < PlateauCompact.NB_CASES; c++) {
+                    assertEquals(PlateauCompact.proprietaire(jeu.getEtatCompact(), c), variante.getProprietaire(c));
+                }
+                if (nb == 0) {
+                    break;
+                }
+                int coup = coups[aleatoire.nextInt(nb)];
+                int destination = Coup.destination(coup);
+                assertTrue(jeu.jouerCoup(coup));
+                assertTrue(variante.jouerCoup(Coup.estPlacement(coup)
+                    ? JeuVariante.placement(destination)
+                    : JeuVariante.deplacement(Coup.origine(coup), destination)));
+                if (aleatoire.nextInt(10) == 0) {
+                    assertTrue(jeu.annulerCoup());
+                    assertTrue(variante.annulerCoup());
+                }
+            }
+            if (variante.getIssue() == Issue.NUL) {
+                nbNulles++;
+            }
+        }
+        assertTrue(nbNulles > 0);
+    }
+
+    @Test
+    void leConstructeurRefuseLesVariantesInjouables() {
+        assertThrows(IllegalArgumentException.class, () -> new Variante(1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Variante(Variante.TAILLE_MAX + 1, 3, 3));
+        // Au moins un pion, et une case libre une fois tous les pions posés
+        assertThrows(IllegalArgumentException.class, () -> new Variante(3, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new Variante(3, 5, 3));
+        assertDoesNotThrow(() -> new Variante(3, 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> new Variante(8, 32, 5));
+        assertDoesNotThrow(() -> new Variante(8, 31, 8));
+        // Alignement de 2 à min(taille, pions)
+        assertThrows(IllegalArgumentException.class, () -> new Variante(3, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Variante(3, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> new Variante(4, 2, 3));
+        // Sur 2×2, un seul pion chacun : aucun alignement possible
+        assertThrows(IllegalArgumentException.class, () -> new Variante(2, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new JeuVariante(null));
+    }
+
+    @Test
+    void quatreAlignesGagnentSurCinqParCinq() {
+        JeuVariante jeu = new JeuVariante(new Variante(5, 5, 4));
+        // Rouge en (0, 2), (0, 3), (0, 4) puis (1, 0) : quatre bits consécutifs, mais à cheval sur deux lignes
+        int[][] rouge = { { 0, 2 }, { 0, 3 }, { 0, 4 }, { 1, 0 } };
+        int[][] bleu = { { 4, 0 }, { 4, 1 }, { 4, 2 }, { 3, 4 } };
+        for (int i = 0; i < rouge.length; i++) {
+            assertFalse(jeu.placerPion(rouge[i][0], rouge[i][1]));
+            assertFalse(jeu.placerPion(bleu[i][0], bleu[i][1]));
+        }
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+
+        assertTrue(jeu.placerPion(0, 1));
+        assertEquals(Issue.VICTOIRE, jeu.getIssue());
+        assertEquals(0, jeu.getTrait());
+        assertEquals(0, jeu.genererCoups(new int[jeu.getVariante().getMaxCoups()]));
+    }
+
+    @Test
+    void annulerUneVictoireRelanceLaPartie() {
+        JeuVariante jeu = new JeuVariante(Variante.CLASSIQUE);
+        jeu.placerPion(0, 0);
+        jeu.placerPion(1, 0);
+        jeu.placerPion(0, 1);
+        jeu.placerPion(1, 1);
+        long masqueAvant = jeu.getMasque(0);
+        assertTrue(jeu.placerPion(0, 2));
+
+        assertTrue(jeu.annulerCoup());
+        assertEquals(Issue.EN_COURS, jeu.getIssue());
+        assertEquals(0, jeu.getTrait());
+        assertEquals(masqueAvant, jeu.getMasque(0));
+        assertEquals(4, jeu.getNbCoupsJoues());
+        assertThrows(IllegalArgumentException.class, () -> jeu.placerPion(1, 0));
+        assertFalse(jeu.placerPion(2, 2));
+        assertEquals(1, jeu.getTrait());
+    }
+}
@@ -0,0 +1,37 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Identifiants des joueurs, y compris ceux créés par l'ancien constructeur sans identifiant.
+ */
+class JoueurTest {
+
+    @Test
+    void lIdentifiantDoitEtreZeroOuUn() {
+        assertEquals(Joueur.ID_BLEU, new Joueur("B", "Bleu", Joueur.ID_BLEU).getId());
+        assertThrows(IllegalArgumentException.class, () -> new Joueur("A", "Rouge", 2));
+        assertThrows(IllegalArgumentException.class, () -> new Joueur(null, "Rouge", 0));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void lAncienConstructeurDeduitLIdentifiantDeLaCouleur() {
+        assertEquals(Joueur.ID_ROUGE, new Joueur("A", "Rouge").getId());
+        assertEquals(Joueur.ID_BLEU, new Joueur("B", "bleu").getId());
+        assertThrows(IllegalArgumentException.class, () -> new Joueur("C", "Vert"));
+        assertThrows(IllegalArgumentException.class, () -> new Joueur("E", null));
+        assertEquals(Joueur.ID_BLEU, new Joueur("V", "Vert", Joueur.ID_BLEU).getId());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void lesPionsDeLAncienConstructeurVontDansLeMasqueDeLeurIdentifiant() {
+        Joueur bleu = new Joueur("B", "Bleu");
+        Plateau plateau = new Plateau();
+        plateau.placerPion(new Pion(bleu), Position.of(4));
+        assertEquals(1 << 4, plateau.masqueDe(Joueur.ID_BLEU));
+        assertEquals(0, plateau.masqueDe(Joueur.ID_ROUGE));
+    }
+}
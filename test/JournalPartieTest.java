@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reprise de partie depuis le journal : après un arrêt, au fil d'une session de plusieurs parties,
+ * et après une écriture interrompue.
+ */
+class JournalPartieTest {
+
+    /** Rouge aligne la première ligne au cinquième coup. */
+    private static final int[] PARTIE_GAGNEE = {
+        Coup.placement(0), Coup.placement(3), Coup.placement(1), Coup.placement(4), Coup.placement(2)
+    };
+
+    /** Enregistrement LIMITE qui ouvre chaque partie. */
+    private static final int EN_TETE = 1 + JournalPartie.TAILLE_LIMITE;
+
+    @TempDir
+    Path dossier;
+
+    private Path fichier() {
+        return dossier.resolve("parties.journal");
+    }
+
+    private static JournalPartie ouvrir(Path fichier) throws IOException {
+        return JournalPartie.ouvrir(fichier, JournalPartie.PolitiqueSynchro.AUCUNE, 16);
+    }
+
+    private static void jouer(JeuAraignee jeu, int... coups) {
+        for (int coup : coups) {
+            assertTrue(jeu.jouerCoup(coup), Coup.toString(coup));
+        }
+    }
+
+    @Test
+    void reprendLaPartieInterrompueALaReouverture() throws IOException {
+        int etat;
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertFalse(journal.aPartieEnCours());
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            jouer(jeu, Coup.placement(4), Coup.placement(0), Coup.placement(8));
+            jeu.annulerCoup();
+            jeu.retablirCoup();
+            jeu.annulerCoup();
+            etat = jeu.getEtatCompact();
+        }
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertTrue(journal.aPartieEnCours());
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            assertEquals(etat, jeu.getEtatCompact());
+            assertEquals(2, jeu.getNbCoupsJoues());
+            assertTrue(jeu.retablirCoup());
+        }
+    }
+
+    @Test
+    void reprendLaBonnePartieApresUnePartieTermineeDansLaSession() throws IOException {
+        try (JournalPartie journal = ouvrir(fichier())) {
+            JeuAraignee premiere = journal.reprendrePartie("A", "B");
+            jouer(premiere, Coup.placement(4), Coup.placement(0));
+            journal.terminerPartie();
+
+            JeuAraignee seconde = journal.reprendrePartie("A", "B");
+            assertEquals(0, seconde.getNbCoupsJoues());
+            jouer(seconde, Coup.placement(8), Coup.placement(6), Coup.placement(2));
+
+            JeuAraignee reprise = journal.reprendrePartie("A", "B");
+            assertEquals(seconde.getEtatCompact(), reprise.getEtatCompact());
+            assertEquals(3, reprise.getNbCoupsJoues());
+        }
+    }
+
+    @Test
+    void neReprendPasUnePartieGagneeJamaisClose() throws IOException {
+        try (JournalPartie journal = ouvrir(fichier())) {
+            jouer(journal.reprendrePartie("A", "B"), PARTIE_GAGNEE);
+        }
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertFalse(journal.aPartieEnCours());
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            assertEquals(0, jeu.getNbCoupsJoues());
+            jouer(jeu, Coup.placement(4));
+        }
+
+        // La partie gagnée a été close : la suivante est bien une partie à part, chacune avec sa limite en tête
+        List<Integer> longueurs = new ArrayList<>();
+        JournalPartie.parcourir(fichier(), enregistrements -> longueurs.add(enregistrements.remaining()));
+        assertEquals(List.of(EN_TETE + PARTIE_GAGNEE.length, EN_TETE + 1), longueurs);
+    }
+
+    @Test
+    void rejoueLaPartieAvecSaLimiteDeCoups() throws IOException {
+        // Lot d'un octet : l'en-tête de limite est écrit en plusieurs fois
+        try (JournalPartie journal = JournalPartie.ouvrir(fichier(), JournalPartie.PolitiqueSynchro.AUCUNE, 1)) {
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            jeu.setLimiteCoups(1_000);
+            jouer(jeu, Coup.placement(4), Coup.placement(0));
+            jeu.setLimiteCoups(300);
+        }
+        try (JournalPartie journal = ouvrir(fichier())) {
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            assertEquals(300, jeu.getLimiteCoups());
+            assertEquals(2, jeu.getNbCoupsJoues());
+            jeu.setLimiteCoups(3);
+            assertEquals(Issue.EN_COURS, jeu.getIssue());
+        }
+        try (JournalPartie journal = ouvrir(fichier())) {
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            assertEquals(3, jeu.getLimiteCoups());
+            jouer(jeu, Coup.placement(8));
+            assertEquals(Issue.NUL, jeu.getIssue());
+        }
+        // Atteinte de la limite enregistrée : la partie est close à la réouverture
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertFalse(journal.aPartieEnCours());
+        }
+    }
+
+    @Test
+    void tronqueUneEcritureInterrompue() throws IOException {
+        try (JournalPartie journal = ouvrir(fichier())) {
+            jouer(journal.reprendrePartie("A", "B"), Coup.placement(4), Coup.placement(0));
+        }
+        long tailleValide = Files.size(fichier());
+        // Dernier lot à moitié écrit : un placement sur une case occupée, puis des octets quelconques
+        Files.write(fichier(), new byte[] { (byte) Coup.placement(4), 0x13, 0x37 }, StandardOpenOption.APPEND);
+
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertEquals(tailleValide, Files.size(fichier()));
+            assertTrue(journal.aPartieEnCours());
+            JeuAraignee jeu = journal.reprendrePartie("A", "B");
+            assertEquals(2, jeu.getNbCoupsJoues());
+            jouer(jeu, Coup.placement(8));
+        }
+        try (JournalPartie journal = ouvrir(fichier())) {
+            assertEquals(3, journal.reprendrePartie("A", "B").getNbCoupsJoues());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Codage et décodage des éléments et des messages du protocole binaire, et découpage des messages reçus.
+ */
+class ProtocoleBinaireTest {
+
+    private final ByteBuffer tampon = ByteBuffer.allocate(64);
+
+    @Test
+    void unCoupTientSurUnOctet() {
+        int[] coups = new int[Coup.MAX_COUPS];
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+            int etat = PlateauCompact.etatDepuisIndex(index);
+            int nb = Coup.generer(etat, coups);
+            for (int i = 0; i < nb; i++) {
+                tampon.clear();
+                ProtocoleBinaire.ecrireCoup(tampon, coups[i]);
+                assertEquals(1, tampon.position());
+                tampon.flip();
+                assertEquals(coups[i], ProtocoleBinaire.lireCoup(tampon), Coup.toString(coups[i]));
+            }
+        }
+    }
+
+    @Test
+    void unEtatTientSurTroisOctets() {
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+            int etat = PlateauCompact.etatDepuisIndex(index);
+            tampon.clear();
+            ProtocoleBinaire.ecrireEtat(tampon, etat);
+            assertEquals(ProtocoleBinaire.TAILLE_ETAT, tampon.position());
+            tampon.flip();
+            assertEquals(etat, ProtocoleBinaire.lireEtat(tampon), PlateauCompact.toString(etat));
+        }
+    }
+
+    @Test
+    void lIdentifiantOccupeSeptBitsParOctet() {
+        int[] identifiants = { 0, 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE, -1 };
+        int[] tailles = { 1, 1, 1, 2, 2, 3, 3, 4, 5, 5 };
+        for (int i = 0; i < identifiants.length; i++) {
+            tampon.clear();
+            ProtocoleBinaire.ecrireIdentifiant(tampon, identifiants[i]);
+            assertEquals(tailles[i], tampon.position(), "taille de " + identifiants[i]);
+            tampon.flip();
+            assertEquals(identifiants[i], ProtocoleBinaire.lireIdentifiant(tampon));
+        }
+    }
+
+    @Test
+    void lesMessagesSeRelisentChampParChamp() {
+        int identifiant = 300;
+        int etat = PlateauCompact.creer(0b000_010_001, 0b100_000_000, 1, Phase.PLACEMENT);
+        ProtocoleBinaire.ecrireCoup(tampon, identifiant, Coup.placement(4));
+        ProtocoleBinaire.ecrireMessage(tampon, ProtocoleBinaire.FIN, identifiant, etat);
+        ProtocoleBinaire.ecrireErreur(tampon, identifiant, ProtocoleBinaire.ERREUR_COUP_ILLEGAL);
+        tampon.flip();
+
+        assertEquals(ProtocoleBinaire.COUP, tampon.get());
+        assertEquals(identifiant, ProtocoleBinaire.lireIdentifiant(tampon));
+        assertEquals(Coup.placement(4), ProtocoleBinaire.lireCoup(tampon));
+        assertEquals(ProtocoleBinaire.FIN, tampon.get());
+        assertEquals(identifiant, ProtocoleBinaire.lireIdentifiant(tampon));
+        assertEquals(etat, ProtocoleBinaire.lireEtat(tampon));
+        assertEquals(ProtocoleBinaire.ERREUR, tampon.get());
+        assertEquals(identifiant, ProtocoleBinaire.lireIdentifiant(tampon));
+        assertEquals(ProtocoleBinaire.ERREUR_COUP_ILLEGAL, tampon.get());
+        assertEquals(0, tampon.remaining());
+    }
+
+    @Test
+    void tailleMessageAttendLaFinDuMessage() {
+        tampon.put((byte) 0x55);
+        int debut = tampon.position();
+        ProtocoleBinaire.ecrireMessage(tampon, ProtocoleBinaire.OK, 200, PlateauCompact.ETAT_INITIAL);
+        int taille = tampon.position() - debut;
+        assertEquals(1 + 2 + ProtocoleBinaire.TAILLE_ETAT, taille);
+
+        for (int recus = 0; recus < taille; recus++) {
+            tampon.limit(debut + recus).position(debut);
+            assertEquals(ProtocoleBinaire.INCOMPLET, ProtocoleBinaire.tailleMessage(tampon), recus + " octets reçus");
+        }
+        tampon.limit(debut + taille + 1).position(debut);
+        assertEquals(taille, ProtocoleBinaire.tailleMessage(tampon));
+        assertEquals(debut, tampon.position());
+    }
+
+    @Test
+    void tailleMessageDeChaqueType() {
+        assertEquals(1, taille(t -> ProtocoleBinaire.ecrireNouvelle(t)));
+        assertEquals(3, taille(t -> ProtocoleBinaire.ecrireCoup(t, 1, Coup.placement(0))));
+        assertEquals(2, taille(t -> ProtocoleBinaire.ecrireMessage(t, ProtocoleBinaire.ETAT, 1)));
+        assertEquals(2, taille(t -> ProtocoleBinaire.ecrireMessage(t, ProtocoleBinaire.FERMER, 1)));
+        assertEquals(2, taille(t -> ProtocoleBinaire.ecrireMessage(t, ProtocoleBinaire.PARTIE, 1)));
+        assertEquals(2, taille(t -> ProtocoleBinaire.ecrireMessage(t, ProtocoleBinaire.FERMEE, 1)));
+        assertEquals(5, taille(t -> ProtocoleBinaire.ecrireMessage(t, ProtocoleBinaire.ETAT_PARTIE, 1, 0)));
+        assertEquals(3, taille(t -> ProtocoleBinaire.ecrireErreur(t, 1, ProtocoleBinaire.ERREUR_PARTIE_INCONNUE)));
+    }
+
+    @Test
+    void tailleMessageRefuseUnTypeInconnuOuUnIdentifiantTropLong() {
+        tampon.put((byte) 0x42).flip();
+        assertEquals(ProtocoleBinaire.INVALIDE, ProtocoleBinaire.tailleMessage(tampon));
+
+        tampon.clear();
+        tampon.put(ProtocoleBinaire.ETAT);
+        for (int i = 0; i < 6; i++) {
+            tampon.put((byte) 0x80);
+        }
+        tampon.flip();
+        assertEquals(ProtocoleBinaire.INVALIDE, ProtocoleBinaire.tailleMessage(tampon));
+    }
+
+    private int taille(Consumer<ByteBuffer> ecriture) {
+        tampon.clear();
+        ecriture.accept(tampon);
+        int ecrits = tampon.position();
+        tampon.flip();
+        assertEquals(ecrits, ProtocoleBinaire.tailleMessage(tampon));
+        return ecrits;
+    }
+}
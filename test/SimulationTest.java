@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Simulation joue ses parties sur JeuAraignee : mêmes règles de nulle, et refus des coups illégaux.
+ */
+class SimulationTest {
+
+    /** Joue toujours en 0 : illégal dès que la case est prise. */
+    private static final Strategie COIN = new Strategie() {
+        @Override
+        public int choisirCoup(int etat, int[] coups, int nbCoups) {
+            return Coup.placement(0);
+        }
+
+        @Override
+        public String getNom() {
+            return "coin";
+        }
+    };
+
+    @Test
+    void chaquePartieEstCompteeUneFois() throws InterruptedException {
+        int limite = 60;
+        Simulation simulation = new Simulation(
+            graine -> Strategie.parNom("aleatoire", graine), graine -> Strategie.parNom("aleatoire", graine), 3, limite, 42);
+        Simulation.Statistiques statistiques = simulation.lancer(3_001);
+
+        assertEquals(3_001, statistiques.getNbParties());
+        assertEquals(3_001, Arrays.stream(statistiques.getLongueurs()).sum());
+        // Des nulles par répétition ou blocage, bien avant la limite
+        assertTrue(statistiques.getNuls() > statistiques.getLongueurs()[limite]);
+        assertTrue(statistiques.getVictoiresRouge() > 0 && statistiques.getVictoiresBleu() > 0);
+    }
+
+    @Test
+    void unCoupIllegalArreteLaSimulation() {
+        Simulation simulation = new Simulation(graine -> COIN, graine -> COIN, 1, 200, 0);
+        IllegalStateException erreur = assertThrows(IllegalStateException.class, () -> simulation.lancer(1));
+        assertInstanceOf(IllegalStateException.class, erreur.getCause());
+    }
+}
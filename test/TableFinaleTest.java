@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Aller-retour d'une table de finales : ce qui est relu du fichier doit être exactement ce que le solveur a calculé.
+ */
+class TableFinaleTest {
+
+    private static Solveur solveur;
+
+    @TempDir
+    Path dossier;
+
+    @BeforeAll
+    static void resoudre() {
+        solveur = Solveur.resoudre();
+    }
+
+    @Test
+    void relitLesResultatsEtLesDistancesDuSolveur() throws IOException {
+        Path fichier = dossier.resolve("araignee.tbl");
+        TableFinale.generer(solveur, fichier, true);
+        TableFinale table = TableFinale.charger(fichier);
+
+        assertTrue(table.aDesDistances());
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+            int etat = PlateauCompact.etatDepuisIndex(index);
+            assertEquals(solveur.getResultat(etat), table.getResultat(etat), PlateauCompact.toString(etat));
+            assertEquals(Math.min(solveur.getDistance(etat), 255), table.getDistance(etat), PlateauCompact.toString(etat));
+        }
+    }
+
+    @Test
+    void relitLesResultatsSansDistances() throws IOException {
+        Path fichier = dossier.resolve("araignee.tbl");
+        TableFinale.generer(solveur, fichier, false);
+        TableFinale table = TableFinale.charger(fichier);
+
+        assertFalse(table.aDesDistances());
+        assertEquals(-1, table.getDistance(PlateauCompact.ETAT_INITIAL));
+        for (int index = 0; index < PlateauCompact.NB_INDEX; index++) {
+            int etat = PlateauCompact.etatDepuisIndex(index);
+            assertEquals(solveur.getResultat(etat), table.getResultat(etat), PlateauCompact.toString(etat));
+        }
+    }
+
+    @Test
+    void refuseUnFichierQuiNEstPasUneTable() throws IOException {
+        Path fichier = dossier.resolve("autre.tbl");
+        TableFinale.generer(solveur, fichier, false);
+        byte[] octets = Files.readAllBytes(fichier);
+        octets[0] = 'X';
+        Files.write(fichier, octets);
+
+        assertThrows(IOException.class, () -> TableFinale.charger(fichier));
+    }
+
+    @Test
+    void refuseUnFichierTronque() throws IOException {
+        Path fichier = dossier.resolve("tronque.tbl");
+        TableFinale.generer(solveur, fichier, true);
+        byte[] octets = Files.readAllBytes(fichier);
+        Files.write(fichier, Arrays.copyOf(octets, octets.length - 1));
+
+        assertThrows(IOException.class, () -> TableFinale.charger(fichier));
+    }
+}